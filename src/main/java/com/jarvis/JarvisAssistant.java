@@ -1,28 +1,67 @@
 package com.jarvis;
 
+import com.jarvis.ai.AIProcessor;
 import com.jarvis.commands.CommandHandler;
 import com.jarvis.config.Config;
+import com.jarvis.speech.SpeechQueue;
 import com.jarvis.speech.SpeechRecognizer;
 import com.jarvis.speech.TextToSpeech;
+import com.jarvis.utils.Bootstrap;
+import com.jarvis.utils.HttpClientProvider;
+import com.jarvis.utils.NetworkChecker;
 
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main JARVIS Voice Assistant Application
  */
 public class JarvisAssistant {
+    // Fixed phrases, rendered ahead of time so they play without synthesis delay
+    private static final String GREETING = "Hello! I am I.R.I.S, your voice assistant. How may I help you?";
+    private static final String ACKNOWLEDGEMENT = "Yes?";
+    private static final String CANCELLED = "Cancelled.";
+    private static final String NOTHING_TO_CANCEL = "Nothing to cancel.";
+    private static final String COMMAND_FAILED = "Sorry, something went wrong with that request.";
+    private static final String FAREWELL = "Goodbye! Shutting down I.R.I.S.";
+    // Longest the command capture waits for the acknowledgement to finish
+    private static final long ACKNOWLEDGEMENT_HOLD_SECONDS = 3;
+    
     private final TextToSpeech tts;
     private final SpeechRecognizer speechRecognizer;
     private final CommandHandler commandHandler;
     private final Config config;
-    private boolean running;
+    private volatile boolean running;
+    // Voice commands still being answered while the loop keeps listening
+    private final Set<CompletableFuture<String>> pendingCommands = ConcurrentHashMap.newKeySet();
+    // Completes once the last acknowledgement has been said; speech is not detected before
+    private volatile CompletableFuture<Boolean> acknowledgement = CompletableFuture.completedFuture(true);
     
     public JarvisAssistant() {
-        this.config = Config.getInstance();
-        this.tts = new TextToSpeech();
-        this.speechRecognizer = new SpeechRecognizer();
-        this.commandHandler = new CommandHandler(tts);
+        // Independent components load concurrently; each waits only for what it needs
+        Bootstrap boot = new Bootstrap("I.R.I.S");
+        Bootstrap.Stage<Config> configStage = boot.stage("config", Config::getInstance);
+        Bootstrap.Stage<TextToSpeech> ttsStage = boot.stage("tts", TextToSpeech::new, configStage);
+        Bootstrap.Stage<SpeechRecognizer> speechStage = boot.stage("speech", SpeechRecognizer::new, configStage);
+        // Warms the network status cache; nothing waits for it
+        boot.stage("network", () -> NetworkChecker.getInstance().getNetworkStatus());
+        Bootstrap.Stage<CommandHandler> commandStage = boot.stage("commands",
+            () -> new CommandHandler(ttsStage::get), configStage);
+        boot.await(ttsStage, speechStage, commandStage);
+        System.out.println(boot.getReport());
+        
+        this.config = configStage.get();
+        this.tts = ttsStage.get();
+        this.speechRecognizer = speechStage.get();
+        this.commandHandler = commandStage.get();
         this.running = true;
+        
+        // The acknowledgement first: it is on the critical path after every wake word
+        tts.preload(ACKNOWLEDGEMENT, GREETING, COMMAND_FAILED, CommandHandler.NOT_HEARD, AIProcessor.NO_RESPONSE,
+            CANCELLED, NOTHING_TO_CANCEL, FAREWELL);
     }
     
     /**
@@ -33,7 +72,10 @@ public class JarvisAssistant {
         System.out.println("I.R.I.S Voice Assistant - Initializing...");
         System.out.println("=".repeat(60));
         
-        tts.speak("Hello! I am I.R.I.S, your voice assistant. How may I help you?");
+        // Load the offline model while the greeting plays, if it will be used
+        commandHandler.getAIProcessor().warmUpIfUsed();
+        
+        tts.speak(GREETING);
         
         System.out.println("\nListening for wake word: 'Jarvis' or 'Hey Jarvis'");
         System.out.println("Type 'text' to switch to text mode, or 'quit' to exit\n");
@@ -94,37 +136,50 @@ public class JarvisAssistant {
                     }
                 }
                 
-                // Listen for wake word
+                // Only the wake-word grammar runs until a wake word is heard; the
+                // command is then recognized from the same open microphone
                 System.out.println("\n[Listening for wake word...]");
-                String speech = speechRecognizer.listen(5);
-                
-                if (speech != null && !speech.isEmpty()) {
-                    System.out.println("Heard: \"" + speech + "\"");
-                    
-                    if (speechRecognizer.containsWakeWord(speech)) {
-                        System.out.println("✅ Wake word detected!");
-                        tts.speak("Yes?");
-                        System.out.println("\n[Listening for command...]");
-                        
-                        // Listen for actual command
-                        String command = speechRecognizer.listen(5);
-                        
-                        if (command != null && !command.isEmpty()) {
-                            System.out.println("Command: \"" + command + "\"");
-                            processCommand(command);
-                            consecutiveErrors = 0; // Reset error counter on success
-                        } else {
-                            System.out.println("No command detected.");
-                        }
+                String command = speechRecognizer.listenForWakeWord(5, 5, () -> {
+                    System.out.println("✅ Wake word detected!");
+                    // Acknowledge at once, cutting off any answer still being read out
+                    acknowledgement = tts.speak(ACKNOWLEDGEMENT, SpeechQueue.Priority.INTERRUPT).copy()
+                        .completeOnTimeout(false, ACKNOWLEDGEMENT_HOLD_SECONDS, TimeUnit.SECONDS);
+                    System.out.println("\n[Listening for command...]");
+                }, new SpeechRecognizer.AudioLevelCallback() {
+                    @Override
+                    public void onAudioLevel(float level) {}
+                    @Override
+                    public void onTranscript(String text) {}
+                    @Override
+                    public void onPartialTranscript(String text) {
+                        System.out.println("… " + text);
                     }
-                } else {
-                    // No speech detected, this is normal
+                    @Override
+                    public void onStablePartial(String text) {
+                        commandHandler.prewarm(text);
+                    }
+                    @Override
+                    public void onSpeechStart() {
+                        tts.bargeIn();
+                    }
+                    @Override
+                    public boolean isSpeechHeld() {
+                        // "Yes?" coming back through the microphone is not the command
+                        return !acknowledgement.isDone();
+                    }
+                });
+                
+                if (command == null) {
+                    // No wake word yet, this is normal
                     System.out.print(".");
+                } else if (!command.isEmpty()) {
+                    System.out.println("Command: \"" + command + "\"");
+                    processCommandAsync(command);
+                    consecutiveErrors = 0; // Reset error counter on success
+                } else {
+                    System.out.println("No command detected.");
                 }
                 
-                // Small delay to prevent excessive CPU usage
-                Thread.sleep(500);
-                
             } catch (Exception e) {
                 consecutiveErrors++;
                 System.err.println("\n⚠️  Error in voice mode: " + e.getMessage());
@@ -151,6 +206,8 @@ public class JarvisAssistant {
      * Run in text input mode (fallback)
      */
     private void runTextMode() {
+        // Nothing listens in text mode; stop capturing but keep the device open
+        speechRecognizer.getMicrophone().pause();
         Scanner scanner = new Scanner(System.in);
         
         System.out.println("\n" + "=".repeat(60));
@@ -188,18 +245,54 @@ public class JarvisAssistant {
         tts.speak(response);
     }
     
+    /**
+     * Process a voice command in the background so the loop can keep listening.
+     * Saying "cancel" or "never mind" abandons answers that are still pending.
+     */
+    private void processCommandAsync(String command) {
+        String normalized = command.toLowerCase().trim();
+        if (normalized.equals("cancel") || normalized.equals("never mind") || normalized.equals("nevermind")) {
+            int cancelled = pendingCommands.size();
+            pendingCommands.forEach(pending -> pending.cancel(true));
+            tts.bargeIn();
+            tts.speak(cancelled > 0 ? CANCELLED : NOTHING_TO_CANCEL);
+            return;
+        }
+        
+        System.out.println("Processing: " + command);
+        CompletableFuture<String> pending = commandHandler.processCommandAsync(command);
+        pendingCommands.add(pending);
+        
+        pending.whenComplete((response, error) -> {
+            pendingCommands.remove(pending);
+            if (pending.isCancelled() || !running) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("⚠️  Error processing command: " + error.getMessage());
+                tts.speak(COMMAND_FAILED);
+            } else if (response.equals("exit")) {
+                shutdown();
+            } else {
+                tts.speak(response);
+            }
+        });
+    }
+    
     /**
      * Shutdown the assistant
      */
     private void shutdown() {
         running = false;
-        tts.speak("Goodbye! Shutting down I.R.I.S.");
+        tts.speak(FAREWELL);
         
         System.out.println("\nShutting down...");
         
         // Cleanup resources
         tts.shutdown();
         speechRecognizer.shutdown();
+        commandHandler.getAIProcessor().shutdown();
+        HttpClientProvider.getInstance().shutdown();
         
         System.out.println("I.R.I.S has been shut down.");
         System.exit(0);
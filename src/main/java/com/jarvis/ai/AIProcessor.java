@@ -1,71 +1,170 @@
 package com.jarvis.ai;
 
 import com.jarvis.config.Config;
+import com.jarvis.utils.HttpClientProvider;
 import com.jarvis.utils.NetworkChecker;
 import okhttp3.*;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonArray;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
+import okio.BufferedSource;
+
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * AI Processing with support for online (Gemini/Grok) and offline (Ollama) LLMs
  */
 public class AIProcessor {
+    // Answer given when a backend replied with nothing usable
+    public static final String NO_RESPONSE = "I couldn't generate a proper response.";
+    
     private final Config config;
     private final OkHttpClient httpClient;
+    private final OkHttpClient ollamaClient;
     private final NetworkChecker networkChecker;
     private final String geminiApiKey;
     private final String grokApiKey;
     private final String grokApiUrl;
     private final String grokModel;
-    private final List<String> conversationHistory;
+    private final ConversationHistory conversationHistory;
+    private final boolean historyEnabled;
+    private final int defaultHistoryBudget;
+    private final int maxOllamaContextTokens;
+    
+    // Ollama's encoded conversation; only valid while the history version matches
+    private int[] ollamaContext;
+    private long ollamaContextVersion = -1;
     private final String ollamaUrl;
     private final String ollamaModel;
+    private final String ollamaKeepAlive;
+    private final boolean ollamaWarmupEnabled;
+    
+    private final PromptTemplate ollamaPrompt;          // {history}, {query}
+    private final PromptTemplate ollamaFollowUpPrompt;  // {query}; Ollama's context holds the rest
+    private final PromptTemplate geminiPrompt;          // {system}, {query}
+    private final String onlineSystemPrompt;
+    
+    /**
+     * Whether the local Ollama model is loaded and ready to answer quickly
+     */
+    public enum Readiness { COLD, WARMING, READY, UNAVAILABLE }
+    
+    private volatile Readiness ollamaReadiness = Readiness.COLD;
+    private final List<Consumer<Readiness>> readinessListeners = new CopyOnWriteArrayList<>();
+    private final ResponseCache responseCache; // null when disabled
     
-    // Timeout settings (in seconds)
-    private static final int CONNECT_TIMEOUT = 15;
-    private static final int READ_TIMEOUT_ONLINE = 30;
-    private static final int READ_TIMEOUT_OLLAMA = 120; // Ollama can be slow
+    // Race / hedge routing across several backends
+    private final List<String> raceBackends;
+    private final String raceStrategy; // "race" (all at once) or "hedge" (second after p95 delay)
+    private final long hedgeDefaultDelayMs;
+    private final double hedgePercentile;
+    private final String onlineRouting; // "adaptive" or "race" in auto mode
+    private final BackendRouter backendRouter;
+    
+    // Asynchronous queries: bounded number in flight, the rest wait their turn
+    private final Semaphore asyncPermits;
+    private final Queue<Runnable> pendingAsync = new ConcurrentLinkedQueue<>();
+    private final long asyncDeadlineMs;
+    
+    // Identical queries in flight at once share one generation
+    private final SingleFlight<String, String> inFlightQueries = new SingleFlight<>();
+    private final boolean coalesceEnabled;
     
     // Manual mode control
     private boolean manualModeEnabled = false;
-    private String manualModeSelection = "auto"; // "gemini", "grok", "ollama", or "auto"
-    
-    // Online AI selection (round-robin)
-    private int onlineAIIndex = 0; // 0 = Gemini, 1 = Grok
-    private String currentOnlineAI = "gemini";
+    private String manualModeSelection = "auto"; // "gemini", "grok", "ollama", "race", or "auto"
     
     private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent";
+    private static final String GEMINI_STREAM_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:streamGenerateContent";
     private static final String DEFAULT_OLLAMA_URL = "http://localhost:11434/api/generate";
     
+    // Default prompt templates, overridable with the ai.prompt.* settings
+    private static final String DEFAULT_OLLAMA_PROMPT =
+        "You are I.R.I.S (Intelligent Responsive Integrated System), an AI assistant. " +
+        "Respond in a helpful, intelligent, and slightly witty manner. Keep responses concise. " +
+        "{history}User query: {query}";
+    private static final String DEFAULT_OLLAMA_FOLLOWUP_PROMPT = "User query: {query}";
+    private static final String DEFAULT_ONLINE_SYSTEM_PROMPT =
+        "You are I.R.I.S (Intelligent Responsive Integrated System), " +
+        "an advanced AI assistant for penetration testing and security analysis. " +
+        "Respond in a helpful, intelligent, and professional manner.";
+    private static final String DEFAULT_GEMINI_PROMPT = "{system} User query: {query}";
+    private static final PromptTemplate HISTORY_TURN = PromptTemplate.compile("User: {user}\nI.R.I.S: {assistant}\n");
+    private static final int MIN_HEDGE_SAMPLES = 5;
+    private static final String DEADLINE_MESSAGE = "That took longer than expected, so I stopped waiting. Please try again.";
+    
     public AIProcessor() {
+        this(HttpClientProvider.getInstance());
+    }
+    
+    /**
+     * Create a processor on the given HTTP transport
+     * @param httpClientProvider Shared transport supplying the per-backend clients
+     */
+    public AIProcessor(HttpClientProvider httpClientProvider) {
         this.config = Config.getInstance();
-        // Configure HTTP client with sensible timeouts
-        this.httpClient = new OkHttpClient.Builder()
-            .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
-            .readTimeout(READ_TIMEOUT_ONLINE, TimeUnit.SECONDS)
-            .writeTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
-            .retryOnConnectionFailure(true)
-            .build();
+        // Shared pooled clients: online APIs and the slower local Ollama profile
+        this.httpClient = httpClientProvider.getOnlineAIClient();
+        this.ollamaClient = httpClientProvider.getOllamaClient();
         this.networkChecker = NetworkChecker.getInstance();
         this.geminiApiKey = config.getGeminiApiKey();
         this.grokApiKey = config.getGrokApiKey();
         this.grokApiUrl = config.getGrokApiUrl();
         this.grokModel = config.getGrokModel();
-        this.conversationHistory = new ArrayList<>();
+        this.historyEnabled = Boolean.parseBoolean(config.getProperty("ai.history.enabled", "true"));
+        this.conversationHistory = new ConversationHistory(
+            Integer.parseInt(config.getProperty("ai.history.max.exchanges", "20")));
+        this.defaultHistoryBudget = Integer.parseInt(config.getProperty("ai.history.tokens", "2048"));
+        this.maxOllamaContextTokens = Integer.parseInt(config.getProperty("ai.ollama.context.max.tokens", "3072"));
         
         this.ollamaUrl = config.getProperty("ai.ollama.url", DEFAULT_OLLAMA_URL);
         this.ollamaModel = config.getProperty("ai.ollama.model", "llama2");
+        this.ollamaKeepAlive = config.getProperty("ai.ollama.keep_alive", "30m").trim();
+        this.ollamaWarmupEnabled = Boolean.parseBoolean(config.getProperty("ai.ollama.warmup", "true"));
+        
+        this.ollamaPrompt = PromptTemplate.compile(config.getProperty("ai.prompt.ollama", DEFAULT_OLLAMA_PROMPT));
+        this.ollamaFollowUpPrompt = PromptTemplate.compile(
+            config.getProperty("ai.prompt.ollama.followup", DEFAULT_OLLAMA_FOLLOWUP_PROMPT));
+        this.geminiPrompt = PromptTemplate.compile(config.getProperty("ai.prompt.gemini", DEFAULT_GEMINI_PROMPT));
+        this.onlineSystemPrompt = config.getProperty("ai.prompt.system", DEFAULT_ONLINE_SYSTEM_PROMPT);
+        
+        boolean cacheEnabled = Boolean.parseBoolean(config.getProperty("ai.cache.enabled", "true"));
+        this.responseCache = cacheEnabled ? ResponseCache.fromConfig(config) : null;
+        
+        this.raceBackends = Arrays.asList(config.getProperty("ai.race.backends", "grok,gemini")
+            .toLowerCase().replace(" ", "").split(","));
+        this.raceStrategy = config.getProperty("ai.race.strategy", "hedge");
+        this.hedgeDefaultDelayMs = Long.parseLong(config.getProperty("ai.race.hedge.default.ms", "3000"));
+        this.hedgePercentile = Double.parseDouble(config.getProperty("ai.race.hedge.percentile", "95"));
+        this.onlineRouting = config.getProperty("ai.routing.online", "adaptive");
+        this.backendRouter = BackendRouter.fromConfig(config);
+        this.asyncPermits = new Semaphore(Math.max(1,
+            Integer.parseInt(config.getProperty("ai.async.max.concurrent", "4"))));
+        this.asyncDeadlineMs = Long.parseLong(config.getProperty("ai.async.deadline.seconds", "120")) * 1000L;
+        this.coalesceEnabled = Boolean.parseBoolean(config.getProperty("ai.coalesce.enabled", "true"));
         
         // DEFAULT TO GROK (primary AI) - Priority: Grok → Gemini → Ollama
-        setManualMode(true, "grok");
-        System.out.println("🎯 AI Mode: GROK (default) - Use GUI buttons to switch to Gemini/Ollama");
+        String defaultMode = config.getProperty("ai.default.mode", "grok");
+        setManualMode(true, isBackendMode(defaultMode) ? defaultMode : "grok");
+        System.out.println("🎯 AI Mode: " + manualModeSelection.toUpperCase() +
+            " (default) - Use GUI buttons to switch to Gemini/Ollama");
     }
     
     /**
@@ -75,53 +174,538 @@ public class AIProcessor {
      * @return AI-generated response
      */
     public String processQuery(String query) {
-        String mode = selectAIMode();
+        String mode = selectAIMode(query);
+        String cacheModel = cacheModelFor(mode, query);
         
+        String cached = cachedAnswer(mode, cacheModel, query);
+        if (cached != null) {
+            rememberExchange(query, AIResponse.success(mode, cached));
+            return cached;
+        }
+        
+        // A caller asking the same question meanwhile waits for this answer
+        if (!coalesceEnabled) {
+            return queryBackend(query, mode, cacheModel);
+        }
+        return inFlightQueries.run(flightKey(mode, query),
+            () -> queryBackend(query, mode, cacheModel));
+    }
+    
+    /**
+     * Ask the selected backend, then cache and remember its answer
+     */
+    private String queryBackend(String query, String mode, String cacheModel) {
+        long start = System.nanoTime();
+        AIResponse response;
         if (mode.equals("ollama")) {
-            return processWithOllama(query);
+            response = processWithOllama(query);
         } else if (mode.equals("grok")) {
-            return processWithGrok(query);
+            response = processWithGrok(query);
+        } else if (mode.equals("race")) {
+            response = processWithRace(query); // records per-backend outcomes itself
+            start = -1;
         } else {
-            // mode is "gemini" or online (round-robin)
-            return processWithOnlineAI(query);
+            response = processWithGemini(query);
         }
+        
+        if (start >= 0) {
+            recordOutcome(response, start, -1);
+        }
+        cacheResponse(mode, cacheModel, query, response);
+        rememberExchange(query, response);
+        return response.getText();
     }
     
     /**
-     * Process with online AI (Gemini or Grok with round-robin)
+     * Process a query and deliver the answer incrementally as the backend generates it.
+     * Tokens are pushed to {@code onToken} on the calling thread as soon as each chunk
+     * arrives; error messages are delivered the same way when nothing was streamed.
+     * @param query User's question or command
+     * @param onToken Receives each chunk of generated text in order
+     * @return The complete AI-generated response
      */
-    private String processWithOnlineAI(String query) {
-        // Try current online AI
-        String result = null;
+    public String processQueryStreaming(String query, Consumer<String> onToken) {
+        StreamSink sink = new StreamSink(onToken);
+        String mode = selectAIMode(query);
+        String cacheModel = cacheModelFor(mode, query);
         
-        if (currentOnlineAI.equals("gemini")) {
-            result = processWithGemini(query);
-            // Switch to Grok for next query
-            if (grokApiKey != null && !grokApiKey.isEmpty()) {
-                currentOnlineAI = "grok";
-            }
+        // A cached answer is delivered as a single chunk
+        String cached = cachedAnswer(mode, cacheModel, query);
+        if (cached != null) {
+            sink.accept(cached);
+            rememberExchange(query, AIResponse.success(mode, cached));
+            return cached;
+        }
+        
+        // Only the first caller streams; one that joins it gets the answer in one piece
+        String result = coalesceEnabled ?
+            inFlightQueries.run(flightKey(mode, query), () -> streamBackend(query, mode, cacheModel, sink)) :
+            streamBackend(query, mode, cacheModel, sink);
+        
+        // Backends that failed before producing output return a message instead
+        if (!sink.hasEmitted() && result != null && !result.isEmpty()) {
+            sink.accept(result);
+        }
+        return result;
+    }
+    
+    /**
+     * Stream from the selected backend, then cache and remember its answer
+     */
+    private String streamBackend(String query, String mode, String cacheModel, StreamSink sink) {
+        long start = System.nanoTime();
+        AIResponse response;
+        if (mode.equals("ollama")) {
+            response = streamWithOllama(query, sink);
+        } else if (mode.equals("grok")) {
+            response = streamWithGrok(query, sink);
+        } else if (mode.equals("race")) {
+            // Racing streams would interleave tokens; the winner is delivered in one piece
+            response = processWithRace(query);
+            start = -1;
         } else {
-            result = processWithGrok(query);
-            // Switch to Gemini for next query
-            currentOnlineAI = "gemini";
+            response = streamWithGemini(query, sink);
         }
         
+        if (start >= 0) {
+            recordOutcome(response, start, sink.getFirstChunkNanos());
+        }
+        
+        cacheResponse(mode, cacheModel, query, response);
+        rememberExchange(query, response);
+        return response.getText();
+    }
+    
+    /**
+     * Key under which identical in-flight queries are coalesced: the backend, the
+     * model, the conversation so far and the normalized query
+     */
+    private String flightKey(String mode, String query) {
+        String history = historyEnabled ? Integer.toHexString(conversationHistory.fingerprint()) : "";
+        return mode + "\u0000" + modelFor(mode) + "#" + history + "\u0000" + ResponseCache.normalize(query);
+    }
+    
+    /**
+     * Cached answer to a standalone query, or null
+     */
+    private String cachedAnswer(String mode, String cacheModel, String query) {
+        return responseCache != null && cacheModel != null ? responseCache.get(mode, cacheModel, query) : null;
+    }
+    
+    /**
+     * Remember a successful answer; error messages are never cached
+     */
+    private void cacheResponse(String mode, String cacheModel, String query, AIResponse response) {
+        if (responseCache != null && cacheModel != null && response.isSuccess()) {
+            responseCache.put(mode, cacheModel, query, response.getText());
+        }
+    }
+    
+    /**
+     * Cache key model for a mode, or null when the answer must not be cached.
+     * Earlier turns are sent with the prompt, but a question that does not refer
+     * back to them is answered the same in any conversation, so it is looked up
+     * and stored under the same key as a question asked first. Follow-ups depend
+     * on the history and bypass the cache.
+     */
+    private String cacheModelFor(String mode, String query) {
+        if (historyEnabled && !conversationHistory.isEmpty() && ConversationHistory.refersBack(query)) {
+            return null;
+        }
+        return modelFor(mode);
+    }
+    
+    /**
+     * Append a successful exchange to the history, keeping Ollama's context tokens
+     * when Ollama produced the answer so its next turn can skip re-encoding
+     */
+    private void rememberExchange(String query, AIResponse response) {
+        if (!historyEnabled || !response.isSuccess()) {
+            return;
+        }
+        synchronized (conversationHistory) {
+            conversationHistory.add(query, response.getText());
+            if (response.getBackend().equals("ollama") && response.getContext() != null) {
+                ollamaContext = response.getContext();
+                ollamaContextVersion = conversationHistory.getVersion();
+            }
+        }
+    }
+    
+    /**
+     * Ollama context from the previous turn, or null if another backend answered
+     * since, the history was cleared, or the context has grown past its limit
+     */
+    private int[] reusableOllamaContext() {
+        if (!historyEnabled) return null;
+        synchronized (conversationHistory) {
+            if (ollamaContext == null || ollamaContextVersion != conversationHistory.getVersion()
+                    || ollamaContext.length > maxOllamaContextTokens) {
+                return null;
+            }
+            return ollamaContext;
+        }
+    }
+    
+    /**
+     * Recent exchanges that fit the history budget of a backend and model. The budget
+     * is read from ai.history.tokens.&lt;model&gt;, then ai.history.tokens.&lt;backend&gt;,
+     * then ai.history.tokens.
+     */
+    private List<ConversationHistory.Exchange> historyFor(String backend, String model) {
+        if (!historyEnabled) {
+            return new ArrayList<>();
+        }
+        String budget = config.getProperty("ai.history.tokens." + model,
+            config.getProperty("ai.history.tokens." + backend, null));
+        return conversationHistory.recent(budget != null ? Integer.parseInt(budget.trim()) : defaultHistoryBudget);
+    }
+    
+    /**
+     * Model name used for a mode, so switching models never serves stale answers
+     */
+    private String modelFor(String mode) {
+        switch (mode) {
+            case "ollama": return ollamaModel;
+            case "grok": return grokModel;
+            case "race": return String.join(",", raceBackends);
+            default: return "gemini-pro";
+        }
+    }
+    
+    /**
+     * Process a query without blocking the caller. Backend calls are enqueued on the
+     * shared OkHttp dispatcher and the answer completes the returned future on one of
+     * its threads. Cancelling the future cancels the HTTP calls in flight. At most
+     * ai.async.max.concurrent queries run at once; later ones wait for a free slot.
+     * @param query User's question or command
+     * @return Future AI-generated response, completed with a message on deadline
+     */
+    public CompletableFuture<String> processQueryAsync(String query) {
+        return processQueryAsync(query, asyncDeadlineMs);
+    }
+    
+    /**
+     * Process a query without blocking the caller, with an explicit deadline
+     * @param deadlineMs Time after which the calls are cancelled and a timeout
+     *                   message is returned, measured from submission; 0 for none
+     */
+    public CompletableFuture<String> processQueryAsync(String query, long deadlineMs) {
+        String mode = selectAIMode(query);
+        String cacheModel = cacheModelFor(mode, query);
+        
+        String cached = cachedAnswer(mode, cacheModel, query);
+        if (cached != null) {
+            rememberExchange(query, AIResponse.success(mode, cached));
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        // Each caller gets its own future: cancelling it or hitting its deadline only
+        // stops the shared calls once no other caller is waiting for the answer
+        CompletableFuture<String> result = coalesceEnabled ?
+            inFlightQueries.execute(flightKey(mode, query), () -> queueAsyncQuery(query, mode, cacheModel)) :
+            queueAsyncQuery(query, mode, cacheModel);
+        
+        if (deadlineMs > 0) {
+            result.completeOnTimeout(DEADLINE_MESSAGE, deadlineMs, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+    
+    /**
+     * Start the query once a concurrency permit is free
+     */
+    private CompletableFuture<String> queueAsyncQuery(String query, String mode, String cacheModel) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AsyncCalls calls = new AsyncCalls();
+        
+        runWhenPermitted(() -> {
+            if (result.isDone()) {
+                releasePermit(); // cancelled or past its deadline while waiting
+                return;
+            }
+            startAsyncQuery(query, mode, cacheModel, calls).whenComplete((text, error) -> {
+                releasePermit();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(text);
+                }
+            });
+        });
+        
+        // However the query ends (answer, cancel or deadline), stop calls still running
+        result.whenComplete((text, error) -> calls.cancelAll());
         return result;
     }
     
+    /**
+     * Start the query on the selected backend; the caller holds a concurrency permit
+     */
+    private CompletableFuture<String> startAsyncQuery(String query, String mode, String cacheModel, AsyncCalls calls) {
+        long start = System.nanoTime();
+        CompletableFuture<AIResponse> response = mode.equals("race") ?
+            raceAsync(query, calls) : callBackendAsync(mode, query, calls);
+        
+        return response.thenApply(r -> {
+            // Race mode records per-backend outcomes itself; cancelled calls did not fail
+            if (!mode.equals("race") && !calls.isCancelled()) {
+                recordOutcome(r, start, -1);
+            }
+            cacheResponse(mode, cacheModel, query, r);
+            rememberExchange(query, r);
+            return r.getText();
+        });
+    }
+    
+    private void runWhenPermitted(Runnable task) {
+        pendingAsync.add(task);
+        drainPendingAsync();
+    }
+    
+    private void releasePermit() {
+        asyncPermits.release();
+        drainPendingAsync();
+    }
+    
+    private void drainPendingAsync() {
+        while (!pendingAsync.isEmpty() && asyncPermits.tryAcquire()) {
+            Runnable task = pendingAsync.poll();
+            if (task == null) {
+                asyncPermits.release(); // another thread took it
+                break;
+            }
+            task.run();
+        }
+    }
+    
+    /**
+     * Non-blocking call to a single named backend, with the same fallbacks and
+     * messages as the blocking processWith* methods
+     */
+    private CompletableFuture<AIResponse> callBackendAsync(String backend, String query, AsyncCalls calls) {
+        if (backend.equals("ollama") && (query == null || query.trim().isEmpty())) {
+            return CompletableFuture.completedFuture(
+                AIResponse.failure("ollama", "I didn't receive a valid query. Please try again."));
+        }
+        if (backend.equals("gemini") && (geminiApiKey == null || geminiApiKey.isEmpty())) {
+            return CompletableFuture.completedFuture(geminiKeyMissing());
+        }
+        if (backend.equals("grok") && (grokApiKey == null || grokApiKey.isEmpty())) {
+            System.out.println("Grok API key not configured, falling back to Gemini");
+            return callBackendAsync("gemini", query, calls);
+        }
+        
+        CompletableFuture<AIResponse> future = new CompletableFuture<>();
+        calls.add(enqueueBackend(backend, query, future::complete));
+        if (!backend.equals("grok")) {
+            return future;
+        }
+        
+        return future.thenCompose(response -> {
+            if (response.isSuccess() || calls.isCancelled()) {
+                return CompletableFuture.completedFuture(response);
+            }
+            backendRouter.recordFailure("grok");
+            System.out.println("Falling back to Gemini");
+            long fallbackStart = System.nanoTime();
+            return callBackendAsync("gemini", query, calls).thenApply(r -> r.timedFrom(fallbackStart));
+        });
+    }
+    
+    /**
+     * Send the query to several backends and keep the first successful answer,
+     * cancelling the others. With the "hedge" strategy the next backend is only
+     * asked once the first has taken longer than its recent p95 latency.
+     */
+    private AIResponse processWithRace(String query) {
+        return raceAsync(query, new AsyncCalls()).join();
+    }
+    
+    /**
+     * Non-blocking race; completes with the winning answer or the last failure
+     */
+    private CompletableFuture<AIResponse> raceAsync(String query, AsyncCalls calls) {
+        List<String> candidates = new ArrayList<>();
+        for (String backend : raceBackends) {
+            if (isBackendAvailable(backend)) {
+                candidates.add(backend);
+            }
+        }
+        
+        if (candidates.isEmpty()) {
+            return callBackendAsync("grok", query, calls); // reports the missing API keys
+        }
+        if (candidates.size() == 1) {
+            return callBackendAsync(candidates.get(0), query, calls);
+        }
+        
+        BackendRace race = new BackendRace(calls);
+        String primary = candidates.get(0);
+        List<String> others = candidates.subList(1, candidates.size());
+        race.start(primary, query);
+        
+        CompletableFuture<AIResponse> outcome;
+        if (raceStrategy.equals("hedge")) {
+            long delay = hedgeDelayMillis(primary);
+            outcome = race.first.copy()
+                .completeOnTimeout(null, delay, TimeUnit.MILLISECONDS)
+                .thenCompose(early -> {
+                    if (early != null && early.isSuccess()) {
+                        return CompletableFuture.completedFuture(early);
+                    }
+                    if (early == null) {
+                        System.out.println("⏱ " + primary + " slower than " + delay + " ms, hedging request");
+                    }
+                    return race.startAll(others, query);
+                });
+        } else {
+            outcome = race.startAll(others, query);
+        }
+        
+        // No-op for calls that already completed
+        return outcome.whenComplete((response, error) -> race.cancelAll());
+    }
+    
+    /**
+     * Whether a backend is configured well enough to be worth racing
+     */
+    private boolean isBackendAvailable(String backend) {
+        switch (backend) {
+            case "ollama": return true;
+            case "grok": return grokApiKey != null && !grokApiKey.isEmpty();
+            case "gemini": return geminiApiKey != null && !geminiApiKey.isEmpty();
+            default: return false;
+        }
+    }
+    
+    private static boolean isBackendMode(String mode) {
+        return mode.equals("gemini") || mode.equals("grok") || mode.equals("ollama") || mode.equals("race");
+    }
+    
+    /**
+     * How long to wait for a backend before hedging: its recent p95, or a default
+     * until enough samples have been seen
+     */
+    private long hedgeDelayMillis(String backend) {
+        long percentile = backendRouter.latencyPercentile(backend, hedgePercentile, MIN_HEDGE_SAMPLES);
+        return percentile >= 0 ? percentile : hedgeDefaultDelayMs;
+    }
+    
+    /**
+     * Feed the outcome of a call into the router's latency, throughput and error statistics
+     * @param firstChunkNanos When the first streamed chunk arrived, or -1 if not streamed
+     */
+    private void recordOutcome(AIResponse response, long startNanos, long firstChunkNanos) {
+        // A fallback answer is timed from when the fallback started
+        if (response.getStartNanos() >= 0) {
+            startNanos = response.getStartNanos();
+        }
+        if (response.isSuccess()) {
+            if (response.getBackend().equals("ollama")) {
+                setOllamaReadiness(Readiness.READY); // answered, so the model is loaded
+            }
+            long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            long firstMs = firstChunkNanos >= 0 ? TimeUnit.NANOSECONDS.toMillis(firstChunkNanos - startNanos) : -1;
+            backendRouter.recordSuccess(response.getBackend(), firstMs, totalMs, response.getText());
+        } else {
+            backendRouter.recordFailure(response.getBackend());
+        }
+    }
+    
+    /**
+     * Start a non-blocking call to a backend; the result is delivered on an OkHttp
+     * dispatcher thread. The returned Call can be cancelled.
+     */
+    private Call enqueueBackend(String backend, String query, Consumer<AIResponse> onResult) {
+        OkHttpClient client;
+        Request request;
+        ResponseReader reader;
+        switch (backend) {
+            case "ollama":
+                client = ollamaClient;
+                request = buildOllamaRequest(query, false);
+                reader = this::readOllamaResponse;
+                break;
+            case "grok":
+                client = httpClient;
+                request = buildGrokRequest(query, false);
+                reader = this::readGrokResponse;
+                break;
+            default:
+                client = httpClient;
+                request = buildGeminiRequest(query, false);
+                reader = this::readGeminiResponse;
+                break;
+        }
+        
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call failedCall, IOException e) {
+                if (failedCall.isCanceled()) {
+                    onResult.accept(AIResponse.failure(backend, "Request cancelled."));
+                } else {
+                    onResult.accept(transportFailure(backend, e));
+                }
+            }
+            
+            @Override
+            public void onResponse(Call completedCall, Response response) {
+                try (response) {
+                    onResult.accept(reader.read(response));
+                } catch (IOException e) {
+                    onResult.accept(transportFailure(backend, e));
+                }
+            }
+        });
+        return call;
+    }
+    
+    /**
+     * User-facing message for a transport error on any backend
+     */
+    private AIResponse transportFailure(String backend, IOException e) {
+        if (backend.equals("ollama")) {
+            return ollamaFailure(e);
+        }
+        System.err.println("Error calling " + backend + ": " + e.getMessage());
+        return AIResponse.failure(backend, "I'm having trouble connecting to my AI systems right now.");
+    }
+    
     /**
      * Select AI mode based on network status or manual override
+     * @param query The query being routed, or null when only reporting the mode
      */
-    private String selectAIMode() {
+    private String selectAIMode(String query) {
         // Manual mode takes precedence
         if (manualModeEnabled) {
             return manualModeSelection;
         }
         
         // Auto mode: check network
-        if (networkChecker.isOnline() && networkChecker.isFastNetwork()) {
-            // Return "online" for round-robin selection
-            return currentOnlineAI;
+        return selectAIMode(query, networkChecker.isOnline() && networkChecker.isFastNetwork());
+    }
+    
+    /**
+     * Auto mode for a known network state
+     */
+    private String selectAIMode(String query, boolean fastOnline) {
+        if (fastOnline) {
+            if (onlineRouting.equals("race")) {
+                return "race";
+            }
+            // Fastest expected backend whose circuit is not open
+            List<String> candidates = new ArrayList<>();
+            for (String backend : new String[] {"grok", "gemini", "ollama"}) {
+                if (isBackendAvailable(backend)) {
+                    candidates.add(backend);
+                }
+            }
+            // A real query claims a half-open backend's single trial; reporting the mode does not
+            String chosen = query != null ? backendRouter.choose(candidates, query) :
+                backendRouter.peek(candidates, null);
+            return chosen != null ? chosen : "ollama";
         } else {
             return "ollama";
         }
@@ -130,11 +714,11 @@ public class AIProcessor {
     /**
      * Set manual mode override
      * @param manual true to enable manual mode, false for auto mode
-     * @param mode "gemini", "grok", or "ollama" (only used if manual is true)
+     * @param mode "gemini", "grok", "ollama", or "race" (only used if manual is true)
      */
     public void setManualMode(boolean manual, String mode) {
         this.manualModeEnabled = manual;
-        if (manual && (mode.equals("gemini") || mode.equals("grok") || mode.equals("ollama"))) {
+        if (manual && isBackendMode(mode)) {
             this.manualModeSelection = mode;
             System.out.println("🔧 AI Mode: MANUAL - " + mode.toUpperCase());
         } else if (!manual) {
@@ -147,7 +731,21 @@ public class AIProcessor {
      * Get current AI mode being used
      */
     public String getCurrentMode() {
-        return selectAIMode();
+        return selectAIMode(null);
+    }
+    
+    /**
+     * Per-backend latency, throughput, error rate and circuit state
+     */
+    public String getRoutingStats() {
+        return backendRouter.getStats();
+    }
+    
+    /**
+     * The manually selected mode, or "auto"; unlike getCurrentMode this never checks the network
+     */
+    public String getManualSelection() {
+        return manualModeEnabled ? manualModeSelection : "auto";
     }
     
     /**
@@ -167,282 +765,604 @@ public class AIProcessor {
     /**
      * Process query using local Ollama LLM (offline)
      */
-    private String processWithOllama(String query) {
+    private AIResponse processWithOllama(String query) {
         if (query == null || query.trim().isEmpty()) {
-            return "I didn't receive a valid query. Please try again.";
+            return AIResponse.failure("ollama", "I didn't receive a valid query. Please try again.");
         }
         
-        try {
-            // Build the request JSON for Ollama
-            JsonObject requestJson = new JsonObject();
-            
-            // Add I.R.I.S personality context
-            String enhancedQuery = "You are I.R.I.S (Intelligent Responsive Integrated System), an AI assistant. " +
-                "Respond in a helpful, intelligent, and slightly witty manner. Keep responses concise. " +
-                "User query: " + query;
-            
-            requestJson.addProperty("model", ollamaModel);
-            requestJson.addProperty("prompt", enhancedQuery);
-            requestJson.addProperty("stream", false);
-            
-            // Create request
-            RequestBody body = RequestBody.create(
-                requestJson.toString(),
-                MediaType.parse("application/json")
-            );
-            
-            Request request = new Request.Builder()
-                .url(ollamaUrl)
-                .post(body)
-                .build();
-            
-            // Execute request with extended timeout for large models
-            OkHttpClient clientWithTimeout = httpClient.newBuilder()
-                .readTimeout(READ_TIMEOUT_OLLAMA, TimeUnit.SECONDS)
-                .build();
-            
-            try (Response response = clientWithTimeout.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    int code = response.code();
-                    if (code == 404) {
-                        return "Ollama model '" + ollamaModel + "' not found. " +
-                               "Try: ollama pull " + ollamaModel;
-                    } else if (code >= 500) {
-                        return "Ollama server error. Please restart Ollama: ollama serve";
-                    }
-                    return "I'm having trouble connecting to Ollama (error " + code + "). " +
-                           "Make sure Ollama is running: ollama serve";
-                }
-                
-                String responseBody = response.body() != null ? response.body().string() : null;
-                if (responseBody == null || responseBody.isEmpty()) {
-                    return "I received an empty response from Ollama. Please try again.";
-                }
-                return parseOllamaResponse(responseBody);
-            }
-            
-        } catch (SocketTimeoutException e) {
-            System.err.println("Ollama timeout: " + e.getMessage());
-            return "The AI is taking too long to respond. The model might be loading. " +
-                   "Please try again in a moment.";
-        } catch (java.net.ConnectException e) {
-            System.err.println("Cannot connect to Ollama: " + e.getMessage());
-            return "Cannot connect to Ollama. Please start it with: ollama serve";
+        // Execute request on the Ollama profile (extended timeout for large models)
+        try (Response response = ollamaClient.newCall(buildOllamaRequest(query, false)).execute()) {
+            return readOllamaResponse(response);
         } catch (IOException e) {
-            System.err.println("Error calling Ollama: " + e.getMessage());
-            return "I'm having trouble with my offline AI system. " +
-                   "Please ensure Ollama is installed and running. " +
-                   "Install: curl -fsSL https://ollama.com/install.sh | sh";
+            return ollamaFailure(e);
         }
     }
     
     /**
      * Process query using Google Gemini API (online)
      */
-    private String processWithGemini(String query) {
+    private AIResponse processWithGemini(String query) {
         if (geminiApiKey == null || geminiApiKey.isEmpty()) {
-            return "I'm sorry, but I need a Gemini API key to answer that question. " +
-                   "Please configure your API key in the .env file, or enable offline mode.";
+            return geminiKeyMissing();
         }
         
-        try {
-            // Build the request JSON
-            JsonObject requestJson = new JsonObject();
-            JsonArray contents = new JsonArray();
-            JsonObject content = new JsonObject();
-            JsonArray parts = new JsonArray();
-            JsonObject part = new JsonObject();
-            
-            // Add context for I.R.I.S personality
-            String enhancedQuery = "You are I.R.I.S (Intelligent Responsive Integrated System), " +
-                "an advanced AI assistant for penetration testing and security analysis. " +
-                "Respond in a helpful, intelligent, and professional manner. " +
-                "User query: " + query;
-            
-            part.addProperty("text", enhancedQuery);
-            parts.add(part);
-            content.add("parts", parts);
-            contents.add(content);
-            requestJson.add("contents", contents);
-            
-            // Create request
-            RequestBody body = RequestBody.create(
-                requestJson.toString(),
-                MediaType.parse("application/json")
-            );
-            
-            Request request = new Request.Builder()
-                .url(GEMINI_API_URL + "?key=" + geminiApiKey)
-                .post(body)
-                .build();
-            
-            // Execute request
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    return "I encountered an error while processing your request. Please check your API key.";
-                }
-                
-                String responseBody = response.body().string();
-                return parseGeminiResponse(responseBody);
-            }
-            
+        try (Response response = httpClient.newCall(buildGeminiRequest(query, false)).execute()) {
+            return readGeminiResponse(response);
         } catch (IOException e) {
             System.err.println("Error calling Gemini API: " + e.getMessage());
-            return "I'm having trouble connecting to my AI systems right now.";
+            return AIResponse.failure("gemini", "I'm having trouble connecting to my AI systems right now.");
         }
     }
     
     /**
      * Process query using Grok API (online)
      */
-    private String processWithGrok(String query) {
+    private AIResponse processWithGrok(String query) {
         if (grokApiKey == null || grokApiKey.isEmpty()) {
             System.out.println("Grok API key not configured, falling back to Gemini");
             return processWithGemini(query);
         }
         
-        try {
-            // Build the request JSON (OpenAI-compatible format)
-            JsonObject requestJson = new JsonObject();
-            JsonArray messages = new JsonArray();
-            
-            // System message
-            JsonObject systemMessage = new JsonObject();
-            systemMessage.addProperty("role", "system");
-            systemMessage.addProperty("content", "You are I.R.I.S (Intelligent Responsive Integrated System), " +
-                "an advanced AI assistant for penetration testing and security analysis. " +
-                "Respond in a helpful, intelligent, and professional manner.");
-            messages.add(systemMessage);
-            
-            // User message
-            JsonObject userMessage = new JsonObject();
-            userMessage.addProperty("role", "user");
-            userMessage.addProperty("content", query);
-            messages.add(userMessage);
-            
-            requestJson.add("messages", messages);
-            requestJson.addProperty("model", grokModel);
-            requestJson.addProperty("stream", false);
-            requestJson.addProperty("temperature", 0.7);
-            
-            // Create request
-            RequestBody body = RequestBody.create(
-                requestJson.toString(),
-                MediaType.parse("application/json")
-            );
-            
-            Request request = new Request.Builder()
-                .url(grokApiUrl)
-                .addHeader("Authorization", "Bearer " + grokApiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(body)
-                .build();
-            
-            // Execute request
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    System.err.println("Grok API error: " + response.code());
-                    System.out.println("Falling back to Gemini");
-                    return processWithGemini(query);
-                }
-                
-                String responseBody = response.body().string();
-                return parseGrokResponse(responseBody);
+        try (Response response = httpClient.newCall(buildGrokRequest(query, false)).execute()) {
+            if (!response.isSuccessful()) {
+                System.err.println("Grok API error: " + response.code());
+                backendRouter.recordFailure("grok");
+                System.out.println("Falling back to Gemini");
+                long fallbackStart = System.nanoTime();
+                return processWithGemini(query).timedFrom(fallbackStart);
             }
-            
+            return readGrokResponse(response);
         } catch (IOException e) {
             System.err.println("Error calling Grok API: " + e.getMessage());
+            backendRouter.recordFailure("grok");
             System.out.println("Falling back to Gemini");
-            return processWithGemini(query);
+            long fallbackStart = System.nanoTime();
+            return processWithGemini(query).timedFrom(fallbackStart);
         }
     }
     
     /**
-     * Parse the Ollama API response
+     * Build the Ollama generate request
      */
-    private String parseOllamaResponse(String jsonResponse) {
-        try {
-            JsonObject responseObj = JsonParser.parseString(jsonResponse).getAsJsonObject();
-            
-            if (responseObj.has("response")) {
-                return responseObj.get("response").getAsString().trim();
+    private Request buildOllamaRequest(String query, boolean stream) {
+        int[] context = reusableOllamaContext();
+        String prompt;
+        if (context != null) {
+            // The personality and earlier turns are already encoded in the context
+            prompt = ollamaFollowUpPrompt.render(Map.of("query", query));
+        } else {
+            // Add I.R.I.S personality context and as much recent conversation as fits
+            List<ConversationHistory.Exchange> history = historyFor("ollama", ollamaModel);
+            prompt = ollamaPrompt.render(Map.of("history", formatHistory(history), "query", query));
+        }
+        
+        RequestBody body = LlmJson.body(json -> {
+            json.beginObject();
+            json.name("model").value(ollamaModel);
+            json.name("prompt").value(prompt);
+            json.name("stream").value(stream);
+            writeKeepAlive(json);
+            if (context != null) {
+                json.name("context").beginArray();
+                for (int token : context) {
+                    json.value(token);
+                }
+                json.endArray();
             }
-            
-            return "I couldn't generate a proper response.";
-        } catch (Exception e) {
-            System.err.println("Error parsing Ollama response: " + e.getMessage());
-            return "I had trouble understanding the response from my AI system.";
+            json.endObject();
+        });
+        
+        return new Request.Builder()
+            .url(ollamaUrl)
+            .post(body)
+            .build();
+    }
+    
+    /**
+     * Earlier turns as a transcript for prompts that take plain text
+     */
+    private static String formatHistory(List<ConversationHistory.Exchange> history) {
+        if (history.isEmpty()) {
+            return "";
         }
+        StringBuilder sb = new StringBuilder("\nConversation so far:\n");
+        for (ConversationHistory.Exchange exchange : history) {
+            HISTORY_TURN.appendTo(sb, Map.of("user", exchange.getUser(), "assistant", exchange.getAssistant()));
+        }
+        return sb.toString();
     }
     
     /**
-     * Parse the Gemini API response
+     * Build the Gemini generateContent (or streamGenerateContent) request
      */
-    private String parseGeminiResponse(String jsonResponse) {
-        try {
-            JsonObject responseObj = JsonParser.parseString(jsonResponse).getAsJsonObject();
+    private Request buildGeminiRequest(String query, boolean stream) {
+        List<ConversationHistory.Exchange> history = historyFor("gemini", "gemini-pro");
+        // Add context for I.R.I.S personality
+        String userText = geminiPrompt.render(Map.of("system", onlineSystemPrompt, "query", query));
+        
+        RequestBody body = LlmJson.body(json -> {
+            json.beginObject();
+            json.name("contents").beginArray();
+            // Earlier turns, alternating user and model roles
+            for (ConversationHistory.Exchange exchange : history) {
+                writeGeminiContent(json, "user", exchange.getUser());
+                writeGeminiContent(json, "model", exchange.getAssistant());
+            }
+            writeGeminiContent(json, "user", userText);
+            json.endArray();
+            json.endObject();
+        });
+        
+        String url = stream ?
+            GEMINI_STREAM_API_URL + "?alt=sse&key=" + geminiApiKey :
+            GEMINI_API_URL + "?key=" + geminiApiKey;
+        
+        return new Request.Builder()
+            .url(url)
+            .post(body)
+            .build();
+    }
+    
+    /**
+     * One Gemini conversation turn: {"role": ..., "parts": [{"text": ...}]}
+     */
+    private static void writeGeminiContent(JsonWriter json, String role, String text) throws IOException {
+        json.beginObject();
+        json.name("role").value(role);
+        json.name("parts").beginArray();
+        json.beginObject().name("text").value(text).endObject();
+        json.endArray();
+        json.endObject();
+    }
+    
+    /**
+     * Build the Grok chat completion request (OpenAI-compatible format)
+     */
+    private Request buildGrokRequest(String query, boolean stream) {
+        List<ConversationHistory.Exchange> history = historyFor("grok", grokModel);
+        
+        RequestBody body = LlmJson.body(json -> {
+            json.beginObject();
+            json.name("messages").beginArray();
+            writeChatMessage(json, "system", onlineSystemPrompt);
+            // Earlier turns that fit the history budget
+            for (ConversationHistory.Exchange exchange : history) {
+                writeChatMessage(json, "user", exchange.getUser());
+                writeChatMessage(json, "assistant", exchange.getAssistant());
+            }
+            writeChatMessage(json, "user", query);
+            json.endArray();
+            json.name("model").value(grokModel);
+            json.name("stream").value(stream);
+            json.name("temperature").value(0.7);
+            json.endObject();
+        });
+        
+        Request.Builder builder = new Request.Builder()
+            .url(grokApiUrl)
+            .addHeader("Authorization", "Bearer " + grokApiKey)
+            .addHeader("Content-Type", "application/json")
+            .post(body);
+        if (stream) {
+            builder.addHeader("Accept", "text/event-stream");
+        }
+        return builder.build();
+    }
+    
+    private static void writeChatMessage(JsonWriter json, String role, String content) throws IOException {
+        json.beginObject();
+        json.name("role").value(role);
+        json.name("content").value(content);
+        json.endObject();
+    }
+    
+    /**
+     * Ask Ollama to keep the model resident for the configured time after each request
+     */
+    private void writeKeepAlive(JsonWriter json) throws IOException {
+        if (ollamaKeepAlive.isEmpty()) return;
+        // Plain numbers are seconds; durations such as "30m" are passed as strings
+        if (ollamaKeepAlive.matches("-?\\d+")) {
+            json.name("keep_alive").value(Long.parseLong(ollamaKeepAlive));
+        } else {
+            json.name("keep_alive").value(ollamaKeepAlive);
+        }
+    }
+    
+    /**
+     * Load the Ollama model in the background so the first real query does not pay
+     * the model-load cost. Ollama loads a model when given an empty prompt and keeps
+     * it resident for keep_alive. Does nothing if warm-up is disabled or already done.
+     */
+    public void warmUp() {
+        if (!ollamaWarmupEnabled) return;
+        synchronized (readinessListeners) {
+            if (ollamaReadiness == Readiness.WARMING || ollamaReadiness == Readiness.READY) return;
+            setOllamaReadiness(Readiness.WARMING);
+        }
+        
+        RequestBody body = LlmJson.body(json -> {
+            json.beginObject();
+            json.name("model").value(ollamaModel);
+            json.name("prompt").value("");
+            json.name("stream").value(false);
+            writeKeepAlive(json);
+            json.endObject();
+        });
+        
+        Request request = new Request.Builder()
+            .url(ollamaUrl)
+            .post(body)
+            .build();
+        
+        long start = System.nanoTime();
+        System.out.println("🔥 Warming up Ollama model " + ollamaModel + "...");
+        ollamaClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                System.err.println("Ollama warm-up failed: " + e.getMessage());
+                setOllamaReadiness(Readiness.UNAVAILABLE);
+            }
             
-            if (responseObj.has("candidates")) {
-                JsonArray candidates = responseObj.getAsJsonArray("candidates");
-                if (candidates.size() > 0) {
-                    JsonObject candidate = candidates.get(0).getAsJsonObject();
-                    JsonObject content = candidate.getAsJsonObject("content");
-                    JsonArray parts = content.getAsJsonArray("parts");
-                    if (parts.size() > 0) {
-                        JsonObject part = parts.get(0).getAsJsonObject();
-                        return part.get("text").getAsString();
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful()) {
+                        System.out.println("✅ Ollama model " + ollamaModel + " loaded in " +
+                            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + "s");
+                        setOllamaReadiness(Readiness.READY);
+                    } else {
+                        System.err.println("Ollama warm-up failed: HTTP " + response.code());
+                        setOllamaReadiness(Readiness.UNAVAILABLE);
                     }
                 }
             }
-            
-            return "I couldn't generate a proper response.";
-        } catch (Exception e) {
+        });
+    }
+    
+    /**
+     * Warm up Ollama only if the current mode can send queries to it, so a
+     * Grok or Gemini session never loads a local model it will not use
+     */
+    public void warmUpIfUsed() {
+        if (usesOllama()) {
+            warmUp();
+        }
+    }
+    
+    /**
+     * Whether queries in the current mode may be answered by Ollama
+     */
+    public boolean usesOllama() {
+        return usesOllama(getCurrentMode());
+    }
+    
+    /**
+     * Like warmUpIfUsed, but judges auto mode from the last network check only and
+     * does nothing if there is none, so it never blocks on a probe
+     */
+    public void warmUpIfUsedCached() {
+        String mode;
+        if (manualModeEnabled) {
+            mode = manualModeSelection;
+        } else {
+            Boolean fastOnline = networkChecker.getCachedFastOnline();
+            if (fastOnline == null) {
+                return;
+            }
+            mode = selectAIMode(null, fastOnline);
+        }
+        if (usesOllama(mode)) {
+            warmUp();
+        }
+    }
+    
+    private boolean usesOllama(String mode) {
+        return mode.equals("ollama") || (mode.equals("race") && raceBackends.contains("ollama"));
+    }
+    
+    /**
+     * Current load state of the local Ollama model
+     */
+    public Readiness getOllamaReadiness() {
+        return ollamaReadiness;
+    }
+    
+    /**
+     * Be notified (on a background thread) whenever the Ollama readiness changes
+     */
+    public void addReadinessListener(Consumer<Readiness> listener) {
+        readinessListeners.add(listener);
+    }
+    
+    private void setOllamaReadiness(Readiness readiness) {
+        if (ollamaReadiness == readiness) return;
+        ollamaReadiness = readiness;
+        for (Consumer<Readiness> listener : readinessListeners) {
+            listener.accept(readiness);
+        }
+    }
+    
+    /**
+     * Turn a complete (non-streamed) Ollama HTTP response into an AIResponse
+     */
+    private AIResponse readOllamaResponse(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            return ollamaHttpFailure(response.code());
+        }
+        if (response.body() == null) {
+            return AIResponse.failure("ollama", "I received an empty response from Ollama. Please try again.");
+        }
+        
+        // Decode straight from the body; the long answer string is the only allocation of note
+        try (JsonReader json = new JsonReader(response.body().charStream())) {
+            LlmJson.OllamaChunk chunk = LlmJson.readOllamaChunk(json);
+            if (chunk.getResponse() != null) {
+                return AIResponse.success("ollama", chunk.getResponse().trim(), chunk.getContext());
+            }
+            return AIResponse.failure("ollama", NO_RESPONSE);
+        } catch (EOFException e) {
+            return AIResponse.failure("ollama", "I received an empty response from Ollama. Please try again.");
+        } catch (MalformedJsonException | RuntimeException e) {
+            System.err.println("Error parsing Ollama response: " + e.getMessage());
+            return AIResponse.failure("ollama", "I had trouble understanding the response from my AI system.");
+        }
+    }
+    
+    /**
+     * Turn a complete Gemini HTTP response into an AIResponse
+     */
+    private AIResponse readGeminiResponse(Response response) throws IOException {
+        if (!response.isSuccessful() || response.body() == null) {
+            return AIResponse.failure("gemini", "I encountered an error while processing your request. Please check your API key.");
+        }
+        
+        try (JsonReader json = new JsonReader(response.body().charStream())) {
+            String text = LlmJson.readString(json, "candidates", 0, "content", "parts", 0, "text");
+            return text != null ? AIResponse.success("gemini", text) :
+                   AIResponse.failure("gemini", NO_RESPONSE);
+        } catch (MalformedJsonException | EOFException | RuntimeException e) {
             System.err.println("Error parsing Gemini response: " + e.getMessage());
-            return "I had trouble understanding the response from my AI systems.";
+            return AIResponse.failure("gemini", "I had trouble understanding the response from my AI systems.");
         }
     }
     
     /**
-     * Parse the Grok API response (OpenAI-compatible format)
+     * Turn a complete Grok HTTP response into an AIResponse
      */
-    private String parseGrokResponse(String jsonResponse) {
-        try {
-            JsonObject responseObj = JsonParser.parseString(jsonResponse).getAsJsonObject();
+    private AIResponse readGrokResponse(Response response) throws IOException {
+        if (!response.isSuccessful() || response.body() == null) {
+            System.err.println("Grok API error: " + response.code());
+            return AIResponse.failure("grok", "I'm having trouble connecting to Grok right now.");
+        }
+        
+        try (JsonReader json = new JsonReader(response.body().charStream())) {
+            String text = LlmJson.readString(json, "choices", 0, "message", "content");
+            return text != null ? AIResponse.success("grok", text) :
+                   AIResponse.failure("grok", NO_RESPONSE);
+        } catch (MalformedJsonException | EOFException | RuntimeException e) {
+            System.err.println("Error parsing Grok response: " + e.getMessage());
+            return AIResponse.failure("grok", "I had trouble understanding the response from Grok.");
+        }
+    }
+    
+    /**
+     * User-facing message for an Ollama HTTP error status
+     */
+    private AIResponse ollamaHttpFailure(int code) {
+        if (code == 404) {
+            return AIResponse.failure("ollama", "Ollama model '" + ollamaModel + "' not found. " +
+                   "Try: ollama pull " + ollamaModel);
+        } else if (code >= 500) {
+            return AIResponse.failure("ollama", "Ollama server error. Please restart Ollama: ollama serve");
+        }
+        return AIResponse.failure("ollama", "I'm having trouble connecting to Ollama (error " + code + "). " +
+               "Make sure Ollama is running: ollama serve");
+    }
+    
+    /**
+     * User-facing message for an Ollama transport error
+     */
+    private AIResponse ollamaFailure(IOException e) {
+        if (e instanceof SocketTimeoutException) {
+            System.err.println("Ollama timeout: " + e.getMessage());
+            if (ollamaReadiness == Readiness.WARMING) {
+                return AIResponse.failure("ollama", "My offline AI model is still loading. " +
+                       "Please try again in a moment.");
+            }
+            return AIResponse.failure("ollama", "The AI is taking too long to respond. The model might be loading. " +
+                   "Please try again in a moment.");
+        } else if (e instanceof java.net.ConnectException) {
+            System.err.println("Cannot connect to Ollama: " + e.getMessage());
+            setOllamaReadiness(Readiness.UNAVAILABLE);
+            return AIResponse.failure("ollama", "Cannot connect to Ollama. Please start it with: ollama serve");
+        }
+        System.err.println("Error calling Ollama: " + e.getMessage());
+        return AIResponse.failure("ollama", "I'm having trouble with my offline AI system. " +
+               "Please ensure Ollama is installed and running. " +
+               "Install: curl -fsSL https://ollama.com/install.sh | sh");
+    }
+    
+    private AIResponse geminiKeyMissing() {
+        return AIResponse.failure("gemini", "I'm sorry, but I need a Gemini API key to answer that question. " +
+               "Please configure your API key in the .env file, or enable offline mode.");
+    }
+    
+    /**
+     * Stream a query through Ollama; the server answers with one JSON object per line
+     */
+    private AIResponse streamWithOllama(String query, StreamSink sink) {
+        if (query == null || query.trim().isEmpty()) {
+            return AIResponse.failure("ollama", "I didn't receive a valid query. Please try again.");
+        }
+        
+        // The read timeout now bounds the gap between chunks, not the whole answer
+        try (Response response = ollamaClient.newCall(buildOllamaRequest(query, true)).execute()) {
+            if (!response.isSuccessful()) {
+                return ollamaHttpFailure(response.code());
+            }
+            if (response.body() == null) {
+                return AIResponse.failure("ollama", "I received an empty response from Ollama. Please try again.");
+            }
             
-            if (responseObj.has("choices")) {
-                JsonArray choices = responseObj.getAsJsonArray("choices");
-                if (choices.size() > 0) {
-                    JsonObject choice = choices.get(0).getAsJsonObject();
-                    JsonObject message = choice.getAsJsonObject("message");
-                    if (message.has("content")) {
-                        return message.get("content").getAsString();
-                    }
+            // One JSON object per line; a lenient reader consumes them back to back
+            JsonReader json = new JsonReader(response.body().charStream());
+            json.setLenient(true);
+            int[] context = null;
+            while (json.peek() != JsonToken.END_DOCUMENT) {
+                LlmJson.OllamaChunk chunk = LlmJson.readOllamaChunk(json);
+                if (chunk.getError() != null && !sink.hasEmitted()) {
+                    System.err.println("Ollama error: " + chunk.getError());
+                    return AIResponse.failure("ollama", "Ollama reported an error: " + chunk.getError());
+                }
+                if (chunk.getResponse() != null) {
+                    sink.accept(chunk.getResponse());
+                }
+                if (chunk.isDone()) {
+                    context = chunk.getContext(); // only the final chunk carries it
+                    break;
                 }
             }
             
-            return "I couldn't generate a proper response.";
-        } catch (Exception e) {
-            System.err.println("Error parsing Grok response: " + e.getMessage());
-            return "I had trouble understanding the response from Grok.";
+            if (!sink.hasEmitted()) {
+                return AIResponse.failure("ollama", NO_RESPONSE);
+            }
+            return AIResponse.success("ollama", sink.getText().trim(), context);
+            
+        } catch (EOFException e) {
+            return AIResponse.failure("ollama", sink.hasEmitted() ? sink.getText().trim() :
+                   "I received an empty response from Ollama. Please try again.");
+        } catch (MalformedJsonException e) {
+            System.err.println("Error parsing Ollama stream: " + e.getMessage());
+            return AIResponse.failure("ollama", sink.hasEmitted() ? sink.getText().trim() :
+                   "I had trouble understanding the response from my AI system.");
+        } catch (IOException e) {
+            if (sink.hasEmitted()) {
+                System.err.println("Error streaming from Ollama: " + e.getMessage());
+                return AIResponse.failure("ollama", sink.getText().trim());
+            }
+            return ollamaFailure(e);
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing Ollama stream: " + e.getMessage());
+            return AIResponse.failure("ollama", sink.hasEmitted() ? sink.getText().trim() :
+                   "I had trouble understanding the response from my AI system.");
+        }
+    }
+    
+    /**
+     * Stream a query through Gemini using server-sent events
+     */
+    private AIResponse streamWithGemini(String query, StreamSink sink) {
+        if (geminiApiKey == null || geminiApiKey.isEmpty()) {
+            return geminiKeyMissing();
+        }
+        
+        try (Response response = httpClient.newCall(buildGeminiRequest(query, true)).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                return AIResponse.failure("gemini", "I encountered an error while processing your request. Please check your API key.");
+            }
+            
+            readServerSentEvents(response.body().source(), data ->
+                sink.accept(eventText(data, "candidates", 0, "content", "parts", 0, "text")));
+            
+            return sink.hasEmitted() ? AIResponse.success("gemini", sink.getText()) :
+                   AIResponse.failure("gemini", NO_RESPONSE);
+            
+        } catch (IOException e) {
+            System.err.println("Error streaming from Gemini API: " + e.getMessage());
+            return AIResponse.failure("gemini", sink.hasEmitted() ? sink.getText() : "I'm having trouble connecting to my AI systems right now.");
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing Gemini stream: " + e.getMessage());
+            return AIResponse.failure("gemini", sink.hasEmitted() ? sink.getText() : "I had trouble understanding the response from my AI systems.");
+        }
+    }
+    
+    /**
+     * Stream a query through Grok using OpenAI-style server-sent event deltas
+     */
+    private AIResponse streamWithGrok(String query, StreamSink sink) {
+        if (grokApiKey == null || grokApiKey.isEmpty()) {
+            System.out.println("Grok API key not configured, falling back to Gemini");
+            return streamWithGemini(query, sink);
+        }
+        
+        try (Response response = httpClient.newCall(buildGrokRequest(query, true)).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                System.err.println("Grok API error: " + response.code());
+                backendRouter.recordFailure("grok");
+                System.out.println("Falling back to Gemini");
+                long fallbackStart = System.nanoTime();
+                return streamWithGemini(query, sink).timedFrom(fallbackStart);
+            }
+            
+            readServerSentEvents(response.body().source(), data ->
+                sink.accept(eventText(data, "choices", 0, "delta", "content")));
+            
+            return sink.hasEmitted() ? AIResponse.success("grok", sink.getText()) :
+                   AIResponse.failure("grok", NO_RESPONSE);
+            
+        } catch (IOException e) {
+            System.err.println("Error streaming from Grok API: " + e.getMessage());
+            if (sink.hasEmitted()) {
+                return AIResponse.failure("grok", sink.getText());
+            }
+            backendRouter.recordFailure("grok");
+            System.out.println("Falling back to Gemini");
+            long fallbackStart = System.nanoTime();
+            return streamWithGemini(query, sink).timedFrom(fallbackStart);
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing Grok stream: " + e.getMessage());
+            return AIResponse.failure("grok", sink.hasEmitted() ? sink.getText() : "I had trouble understanding the response from Grok.");
+        }
+    }
+    
+    /**
+     * Read a server-sent event stream, passing each "data:" payload to the handler
+     * until the stream ends or the OpenAI-style "[DONE]" marker arrives
+     */
+    private void readServerSentEvents(BufferedSource source, Consumer<String> onData) throws IOException {
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith("data:")) {
+                continue; // blank separators, comments and event names
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            if (!data.isEmpty()) {
+                onData.accept(data);
+            }
         }
     }
     
     /**
-     * Add message to conversation history
+     * Text at the given path of one server-sent event payload, or null if absent
+     * @throws JsonSyntaxException if the payload is not valid JSON
      */
-    public void addToHistory(String message) {
-        conversationHistory.add(message);
-        // Keep only last 10 messages to avoid token limits
-        if (conversationHistory.size() > 10) {
-            conversationHistory.remove(0);
+    private static String eventText(String data, Object... path) {
+        try {
+            return LlmJson.readString(new JsonReader(new StringReader(data)), path);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
         }
     }
     
+    /**
+     * Add an exchange to the conversation history sent with later queries
+     */
+    public void addToHistory(String userMessage, String assistantMessage) {
+        rememberExchange(userMessage, AIResponse.success("manual", assistantMessage));
+    }
+    
     /**
      * Clear conversation history
      */
     public void clearHistory() {
-        conversationHistory.clear();
+        synchronized (conversationHistory) {
+            conversationHistory.clear();
+            ollamaContext = null;
+        }
     }
     
     /**
@@ -458,5 +1378,185 @@ public class AIProcessor {
     public void refreshNetworkStatus() {
         networkChecker.refresh();
     }
+    
+    /**
+     * Get the response cache, or null if caching is disabled
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+    
+    /**
+     * Persist cached answers and report cache statistics
+     */
+    public void shutdown() {
+        if (responseCache != null) {
+            System.out.println("💾 Response cache: " + responseCache.getStats());
+            responseCache.save();
+        }
+        if (inFlightQueries.getCoalescedCount() > 0) {
+            System.out.println("🔗 Coalesced " + inFlightQueries.getCoalescedCount() + " duplicate AI queries");
+        }
+        String routing = backendRouter.getStats();
+        if (!routing.isEmpty()) {
+            System.out.println("📊 Backend routing:\n" + routing);
+        }
+    }
+    
+    /**
+     * Reads a complete HTTP response from one backend
+     */
+    @FunctionalInterface
+    private interface ResponseReader {
+        AIResponse read(Response response) throws IOException;
+    }
+    
+    /**
+     * HTTP calls made on behalf of one asynchronous query, so they can all be
+     * cancelled together; calls added after cancellation are cancelled at once
+     */
+    private static class AsyncCalls {
+        private final List<Call> calls = new ArrayList<>();
+        private boolean cancelled = false;
+        
+        synchronized void add(Call call) {
+            if (cancelled) {
+                call.cancel();
+            } else {
+                calls.add(call);
+            }
+        }
+        
+        synchronized void cancelAll() {
+            cancelled = true;
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+        
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+    
+    /**
+     * One query in flight on several backends. The first successful answer wins;
+     * if every started call fails, the last failure is reported.
+     */
+    private class BackendRace {
+        private final CompletableFuture<AIResponse> first = new CompletableFuture<>();
+        private final CompletableFuture<AIResponse> winner = new CompletableFuture<>();
+        private final AsyncCalls owner;
+        private final List<Call> calls = new ArrayList<>();
+        private int started = 0;
+        private int finished = 0;
+        private boolean sealed = false;
+        private boolean cancelled = false;
+        private AIResponse lastFailure;
+        
+        /**
+         * @param owner Calls of the enclosing query, which may cancel the whole race
+         */
+        BackendRace(AsyncCalls owner) {
+            this.owner = owner;
+        }
+        
+        synchronized void start(String backend, String query) {
+            long startNanos = System.nanoTime();
+            started++;
+            Call call = enqueueBackend(backend, query, response -> onResult(response, startNanos));
+            calls.add(call);
+            owner.add(call);
+        }
+        
+        /**
+         * Start the remaining backends and wait for the first success, or for
+         * every started call to fail
+         */
+        CompletableFuture<AIResponse> startAll(List<String> backends, String query) {
+            for (String backend : backends) {
+                start(backend, query);
+            }
+            seal();
+            return winner.thenApply(result -> {
+                System.out.println("🏁 Answer from " + result.getBackend().toUpperCase());
+                return result;
+            });
+        }
+        
+        private synchronized void onResult(AIResponse response, long startNanos) {
+            finished++;
+            first.complete(response);
+            if (!cancelled && !owner.isCancelled()) {
+                recordOutcome(response, startNanos, -1); // losers we cancelled did not fail
+            }
+            if (response.isSuccess()) {
+                winner.complete(response);
+            } else {
+                lastFailure = response;
+                if (sealed && finished == started) {
+                    winner.complete(response);
+                }
+            }
+        }
+        
+        /**
+         * No more backends will be started; from now on, the race ends when the
+         * last outstanding call fails
+         */
+        private synchronized void seal() {
+            sealed = true;
+            if (finished == started && lastFailure != null) {
+                winner.complete(lastFailure);
+            }
+        }
+        
+        synchronized void cancelAll() {
+            cancelled = true;
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+    }
+    
+    /**
+     * Forwards streamed chunks to the caller while accumulating the full answer
+     */
+    private static class StreamSink implements Consumer<String> {
+        private final Consumer<String> onToken;
+        private final StringBuilder text = new StringBuilder();
+        private long firstChunkNanos = -1;
+        
+        StreamSink(Consumer<String> onToken) {
+            this.onToken = onToken;
+        }
+        
+        @Override
+        public void accept(String token) {
+            if (token == null || token.isEmpty()) return;
+            if (firstChunkNanos < 0) {
+                firstChunkNanos = System.nanoTime();
+            }
+            text.append(token);
+            if (onToken != null) {
+                onToken.accept(token);
+            }
+        }
+        
+        boolean hasEmitted() {
+            return text.length() > 0;
+        }
+        
+        String getText() {
+            return text.toString();
+        }
+        
+        /**
+         * System.nanoTime() when the first chunk arrived, or -1 if nothing was streamed
+         */
+        long getFirstChunkNanos() {
+            return firstChunkNanos;
+        }
+    }
 }
 
@@ -0,0 +1,62 @@
+package com.jarvis.ai;
+
+/**
+ * Result of a single AI backend call: the text shown to the user, which backend
+ * produced it, and whether it is a genuine answer or a user-facing error message
+ */
+public class AIResponse {
+    private final String backend;
+    private final String text;
+    private final boolean success;
+    private final int[] context;
+    private final long startNanos; // -1 when timed by the caller
+
+    private AIResponse(String backend, String text, boolean success, int[] context) {
+        this(backend, text, success, context, -1);
+    }
+
+    private AIResponse(String backend, String text, boolean success, int[] context, long startNanos) {
+        this.backend = backend;
+        this.text = text;
+        this.success = success;
+        this.context = context;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * A generated answer
+     */
+    public static AIResponse success(String backend, String text) {
+        return new AIResponse(backend, text, true, null);
+    }
+
+    /**
+     * An error message (or partial output) that should not be cached or trusted
+     */
+    public static AIResponse failure(String backend, String message) {
+        return new AIResponse(backend, message, false, null);
+    }
+
+    /**
+     * A generated answer plus the model's encoded conversation state (Ollama's
+     * context tokens), which lets the next turn continue without re-sending history
+     */
+    public static AIResponse success(String backend, String text, int[] context) {
+        return new AIResponse(backend, text, true, context);
+    }
+
+    /**
+     * The same response, timed from the given System.nanoTime() rather than from
+     * when the caller started; used when a fallback backend answered, so its
+     * latency does not include the failed attempt before it
+     */
+    public AIResponse timedFrom(long startNanos) {
+        return new AIResponse(backend, text, success, context, startNanos);
+    }
+
+    public String getBackend() { return backend; }
+    public String getText() { return text; }
+    public boolean isSuccess() { return success; }
+    public int[] getContext() { return context; }
+    public long getStartNanos() { return startNanos; }
+}
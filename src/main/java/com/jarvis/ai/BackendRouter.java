@@ -0,0 +1,286 @@
+package com.jarvis.ai;
+
+import com.jarvis.config.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency-aware backend selection for auto mode. Keeps per-backend moving
+ * averages of time to first token, generation speed and error rate, opens a
+ * circuit breaker on backends that keep failing, and routes each query to the
+ * backend with the lowest expected completion time for its length. Once an
+ * open circuit's cooldown has passed, a single trial request is let through
+ * until it reports success or failure.
+ */
+public class BackendRouter {
+    // Prompt tokens are evaluated far faster than answer tokens are generated
+    private static final double PROMPT_TOKEN_WEIGHT = 0.1;
+    private static final double MAX_ERROR_RATE = 0.9;
+    private static final int LATENCY_WINDOW = 50;
+
+    /**
+     * Circuit breaker state of one backend
+     */
+    public enum Circuit { CLOSED, OPEN, HALF_OPEN }
+
+    private final double alpha;
+    private final long priorMillis;
+    private final int failureThreshold;
+    private final long cooldownMillis;
+    private final LongSupplier clock;
+    private final Map<String, BackendStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param alpha Weight of the newest sample in the moving averages (0-1)
+     * @param priorMillis Expected completion time assumed for a backend with no history
+     * @param failureThreshold Consecutive failures that open a backend's circuit
+     * @param cooldownMillis How long an open circuit rejects traffic before a trial request
+     */
+    public BackendRouter(double alpha, long priorMillis, int failureThreshold, long cooldownMillis) {
+        this(alpha, priorMillis, failureThreshold, cooldownMillis, System::currentTimeMillis);
+    }
+
+    BackendRouter(double alpha, long priorMillis, int failureThreshold, long cooldownMillis, LongSupplier clock) {
+        this.alpha = Math.min(1.0, Math.max(0.01, alpha));
+        this.priorMillis = priorMillis;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownMillis = cooldownMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Build a router from the ai.router.* settings in config.properties
+     */
+    public static BackendRouter fromConfig(Config config) {
+        double alpha = Double.parseDouble(config.getProperty("ai.router.ewma.alpha", "0.3"));
+        long prior = Long.parseLong(config.getProperty("ai.router.prior.ms", "4000"));
+        int threshold = Integer.parseInt(config.getProperty("ai.router.breaker.failures", "3"));
+        long cooldownSeconds = Long.parseLong(config.getProperty("ai.router.breaker.cooldown.seconds", "30"));
+        return new BackendRouter(alpha, prior, threshold, cooldownSeconds * 1000L);
+    }
+
+    /**
+     * Pick the backend expected to answer this query soonest
+     * @param candidates Usable backends in order of preference (ties go to the earlier one)
+     * @param query The query to route, or null to ignore its length
+     * @return The chosen backend, or null if every candidate's circuit is open.
+     *         A half-open backend is only returned to the caller that claims its trial request.
+     */
+    public String choose(List<String> candidates, String query) {
+        List<String> remaining = new ArrayList<>(candidates);
+        while (true) {
+            String best = fastest(remaining, query);
+            if (best == null || tryAcquire(best)) {
+                return best;
+            }
+            remaining.remove(best); // another query took the trial request
+        }
+    }
+
+    /**
+     * The backend choose would pick, without claiming a half-open backend's trial
+     * request; for reporting the current mode
+     */
+    public String peek(List<String> candidates, String query) {
+        return fastest(candidates, query);
+    }
+
+    private String fastest(List<String> candidates, String query) {
+        int queryTokens = TokenEstimator.estimate(query);
+        String best = null;
+        double bestMillis = Double.MAX_VALUE;
+
+        for (String backend : candidates) {
+            if (!allowsRequest(backend)) {
+                continue;
+            }
+            double expected = expectedMillis(backend, queryTokens);
+            if (expected < bestMillis) {
+                bestMillis = expected;
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Expected time in milliseconds for a backend to finish answering a query of
+     * the given size, inflated by its recent error rate since failures cost a retry
+     */
+    public double expectedMillis(String backend, int queryTokens) {
+        BackendStats s = stats.get(backend);
+        if (s == null) {
+            return priorMillis;
+        }
+        synchronized (s) {
+            if (s.samples == 0) {
+                return priorMillis;
+            }
+            double tokens = s.outputTokens + queryTokens * PROMPT_TOKEN_WEIGHT;
+            double generation = s.tokensPerSecond > 0 ? tokens * 1000.0 / s.tokensPerSecond : 0;
+            double total = s.firstTokenMillis + generation;
+            return total / (1.0 - Math.min(MAX_ERROR_RATE, s.errorRate));
+        }
+    }
+
+    /**
+     * Record a completed answer
+     * @param firstTokenMillis Time until the first chunk arrived, or -1 if not streamed
+     * @param totalMillis Time until the answer was complete
+     */
+    public void recordSuccess(String backend, long firstTokenMillis, long totalMillis, String answer) {
+        statsFor(backend).onSuccess(firstTokenMillis, totalMillis, TokenEstimator.estimate(answer));
+    }
+
+    /**
+     * Record a failed call (transport error, HTTP error or unusable response)
+     */
+    public void recordFailure(String backend) {
+        statsFor(backend).onFailure(clock.getAsLong());
+    }
+
+    /**
+     * Whether a backend may currently receive traffic; an open circuit becomes
+     * half-open once its cooldown has passed, and admits one trial request whose
+     * result closes or re-opens it
+     */
+    public boolean allowsRequest(String backend) {
+        BackendStats s = stats.get(backend);
+        return s == null || s.allowsRequest(clock.getAsLong());
+    }
+
+    /**
+     * Claim a request slot: always granted while the circuit is closed, and to
+     * one caller at a time while it is half-open. A trial that never reports back
+     * (cancelled, or answered from the cache) is given up after one cooldown.
+     */
+    public boolean tryAcquire(String backend) {
+        BackendStats s = stats.get(backend);
+        return s == null || s.tryAcquire(clock.getAsLong());
+    }
+
+    public Circuit getCircuit(String backend) {
+        BackendStats s = stats.get(backend);
+        return s == null ? Circuit.CLOSED : s.circuit(clock.getAsLong());
+    }
+
+    /**
+     * Latency at the given percentile over recent successful calls
+     * @return Milliseconds, or -1 if fewer than minSamples calls were recorded
+     */
+    public long latencyPercentile(String backend, double percentile, int minSamples) {
+        BackendStats s = stats.get(backend);
+        if (s == null || s.latencies.getSampleCount() < minSamples) {
+            return -1;
+        }
+        return s.latencies.percentile(percentile);
+    }
+
+    /**
+     * One line per backend with its averages and circuit state
+     */
+    public String getStats() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, BackendStats> e : stats.entrySet()) {
+            BackendStats s = e.getValue();
+            synchronized (s) {
+                sb.append(String.format("%s: %.0f ms first token, %.1f tok/s, %.0f%% errors, %s%n",
+                    e.getKey(), s.firstTokenMillis, s.tokensPerSecond, s.errorRate * 100,
+                    s.circuit(clock.getAsLong())));
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private BackendStats statsFor(String backend) {
+        return stats.computeIfAbsent(backend, BackendStats::new);
+    }
+
+    /**
+     * Moving averages and breaker state for one backend
+     */
+    private class BackendStats {
+        final String name;
+        final LatencyTracker latencies = new LatencyTracker(LATENCY_WINDOW);
+        int samples = 0;
+        double firstTokenMillis = 0;
+        double tokensPerSecond = 0;
+        double outputTokens = 0;
+        double errorRate = 0;
+        int consecutiveFailures = 0;
+        long openedAt = -1; // -1 while the circuit is closed
+        long trialStartedAt = -1; // -1 unless a half-open trial request is in flight
+
+        BackendStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void onSuccess(long firstTokenMs, long totalMs, int tokens) {
+            latencies.record(totalMs);
+            // Without a first-token time the whole call counts as generation
+            long firstMs = firstTokenMs >= 0 ? firstTokenMs : 0;
+            double generationSeconds = Math.max(1, totalMs - firstMs) / 1000.0;
+            double tps = tokens / generationSeconds;
+
+            if (samples == 0) {
+                firstTokenMillis = firstMs;
+                tokensPerSecond = tps;
+                outputTokens = tokens;
+            } else {
+                if (firstTokenMs >= 0) {
+                    firstTokenMillis = ewma(firstTokenMillis, firstMs);
+                }
+                tokensPerSecond = ewma(tokensPerSecond, tps);
+                outputTokens = ewma(outputTokens, tokens);
+            }
+            samples++;
+            errorRate = ewma(errorRate, 0);
+            consecutiveFailures = 0;
+            openedAt = -1;
+            trialStartedAt = -1;
+        }
+
+        synchronized void onFailure(long now) {
+            trialStartedAt = -1;
+            errorRate = ewma(errorRate, 1);
+            consecutiveFailures++;
+            if (openedAt >= 0 || consecutiveFailures >= failureThreshold) {
+                if (openedAt < 0) {
+                    System.out.println("⚡ " + name.toUpperCase() + " circuit opened after " +
+                        consecutiveFailures + " failures");
+                }
+                openedAt = now; // a failed trial restarts the cooldown
+            }
+        }
+
+        synchronized boolean allowsRequest(long now) {
+            Circuit circuit = circuit(now);
+            return circuit == Circuit.CLOSED || (circuit == Circuit.HALF_OPEN && !trialInFlight(now));
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (!allowsRequest(now)) return false;
+            if (circuit(now) == Circuit.HALF_OPEN) {
+                trialStartedAt = now;
+            }
+            return true;
+        }
+
+        private boolean trialInFlight(long now) {
+            return trialStartedAt >= 0 && now - trialStartedAt < cooldownMillis;
+        }
+
+        synchronized Circuit circuit(long now) {
+            if (openedAt < 0) return Circuit.CLOSED;
+            return now - openedAt >= cooldownMillis ? Circuit.HALF_OPEN : Circuit.OPEN;
+        }
+
+        private double ewma(double average, double sample) {
+            return alpha * sample + (1 - alpha) * average;
+        }
+    }
+}
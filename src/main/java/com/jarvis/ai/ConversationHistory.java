@@ -0,0 +1,142 @@
+package com.jarvis.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixed-capacity ring buffer of recent question/answer exchanges. Once full, each
+ * new exchange overwrites the oldest in place. Callers pack as many of the most
+ * recent exchanges as fit a token budget into the next request.
+ */
+public class ConversationHistory {
+    // Words that point at something said earlier ("explain it", "what about ...")
+    private static final Set<String> BACK_REFERENCES = Set.of(
+        "it", "its", "that", "this", "these", "those", "they", "them", "their",
+        "he", "him", "his", "she", "her", "one", "ones", "there", "again", "more",
+        "else", "also", "same", "above", "previous", "earlier", "last", "former", "latter");
+    // Openings of a follow-up ("and the second", "why", "how about ...")
+    private static final List<String> FOLLOW_UP_OPENINGS = List.of(
+        "and ", "but ", "so ", "then ", "why", "what about ", "how about ", "what else", "what if ");
+
+    private final Exchange[] ring;
+    private int next = 0;
+    private int count = 0;
+    private long version = 0;
+
+    /**
+     * @param capacity Maximum number of exchanges kept
+     */
+    public ConversationHistory(int capacity) {
+        this.ring = new Exchange[Math.max(1, capacity)];
+    }
+
+    /**
+     * Record one completed exchange
+     */
+    public synchronized void add(String user, String assistant) {
+        ring[next] = new Exchange(user, assistant);
+        next = (next + 1) % ring.length;
+        if (count < ring.length) {
+            count++;
+        }
+        version++;
+    }
+
+    /**
+     * The most recent exchanges whose combined size fits the budget, oldest first
+     * @param tokenBudget Maximum estimated tokens of user and assistant text
+     */
+    public synchronized List<Exchange> recent(int tokenBudget) {
+        List<Exchange> result = new ArrayList<>();
+        int used = 0;
+        for (int i = 1; i <= count; i++) {
+            Exchange exchange = ring[(next - i + ring.length) % ring.length];
+            if (used + exchange.tokens > tokenBudget) {
+                break;
+            }
+            used += exchange.tokens;
+            result.add(exchange);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Incremented on every change, so callers can tell whether state derived from
+     * the history (such as an Ollama context) is still current
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Hash of the stored exchanges; equal histories give equal fingerprints
+     */
+    public synchronized int fingerprint() {
+        int hash = 1;
+        for (int i = count; i >= 1; i--) {
+            Exchange exchange = ring[(next - i + ring.length) % ring.length];
+            hash = 31 * hash + exchange.user.hashCode();
+            hash = 31 * hash + exchange.assistant.hashCode();
+        }
+        return hash;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized boolean isEmpty() {
+        return count == 0;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = null;
+        }
+        next = 0;
+        count = 0;
+        version++;
+    }
+
+    /**
+     * Whether a question looks like it refers back to earlier turns, so its answer
+     * depends on them; questions that do not are answered the same in any
+     * conversation. Errs towards true: any pronoun or follow-up opening counts.
+     */
+    public static boolean refersBack(String query) {
+        String normalized = ResponseCache.normalize(query);
+        for (String opening : FOLLOW_UP_OPENINGS) {
+            if (normalized.startsWith(opening)) {
+                return true;
+            }
+        }
+        for (String word : normalized.split(" ")) {
+            if (BACK_REFERENCES.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One user question and the assistant's answer
+     */
+    public static final class Exchange {
+        private final String user;
+        private final String assistant;
+        private final int tokens;
+
+        Exchange(String user, String assistant) {
+            this.user = user;
+            this.assistant = assistant;
+            this.tokens = TokenEstimator.estimate(user) + TokenEstimator.estimate(assistant);
+        }
+
+        public String getUser() { return user; }
+        public String getAssistant() { return assistant; }
+        public int getTokens() { return tokens; }
+    }
+}
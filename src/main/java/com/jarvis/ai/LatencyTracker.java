@@ -0,0 +1,48 @@
+package com.jarvis.ai;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent request latencies for one backend, used to derive
+ * percentiles such as the p95 that drives hedged requests
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private int count = 0;
+    private int next = 0;
+
+    /**
+     * @param windowSize Number of most recent samples kept
+     */
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    /**
+     * Record one completed request
+     */
+    public synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Latency at the given percentile (0-100) over the current window
+     * @return The percentile in milliseconds, or -1 if nothing was recorded yet
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) return -1;
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+}
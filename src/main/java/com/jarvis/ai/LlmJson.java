@@ -0,0 +1,155 @@
+package com.jarvis.ai;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON encoding and decoding for LLM API calls. Requests are written
+ * token by token with JsonWriter, and answers are pulled out of responses with
+ * JsonReader by walking straight to the needed field and skipping everything
+ * else, so no intermediate JsonObject tree or response String is built.
+ */
+public final class LlmJson {
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private LlmJson() {
+    }
+
+    /**
+     * Writes the body of one request
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Encode a request body directly as UTF-8 bytes
+     */
+    public static RequestBody body(BodyWriter writer) {
+        Buffer buffer = new Buffer();
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(buffer.outputStream(), StandardCharsets.UTF_8))) {
+            writer.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // an in-memory buffer does not fail
+        }
+        return RequestBody.create(buffer.readByteString(), JSON);
+    }
+
+    /**
+     * Read the string at a path such as ("choices", 0, "message", "content"),
+     * where names select object members and integers select array elements.
+     * Members and elements off the path are skipped without being decoded.
+     * @return The string, or null if the path is missing or does not end in a string
+     */
+    public static String readString(JsonReader json, Object... path) throws IOException {
+        for (Object step : path) {
+            boolean found = step instanceof Integer ?
+                enterElement(json, (Integer) step) : enterMember(json, (String) step);
+            if (!found) return null;
+        }
+        JsonToken token = json.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return json.nextString();
+        }
+        return null;
+    }
+
+    /**
+     * Read one Ollama generate object, either a whole non-streamed answer or one
+     * line of a stream. Leaves the reader positioned after the object.
+     */
+    public static OllamaChunk readOllamaChunk(JsonReader json) throws IOException {
+        OllamaChunk chunk = new OllamaChunk();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "response":
+                    chunk.response = json.nextString();
+                    break;
+                case "done":
+                    chunk.done = json.nextBoolean();
+                    break;
+                case "error":
+                    chunk.error = json.nextString();
+                    break;
+                case "context":
+                    chunk.context = readIntArray(json);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+        return chunk;
+    }
+
+    private static int[] readIntArray(JsonReader json) throws IOException {
+        int[] values = new int[256];
+        int count = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = json.nextInt();
+        }
+        json.endArray();
+        return Arrays.copyOf(values, count);
+    }
+
+    private static boolean enterMember(JsonReader json, String member) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) return false;
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals(member)) {
+                return true;
+            }
+            json.skipValue();
+        }
+        return false;
+    }
+
+    private static boolean enterElement(JsonReader json, int index) throws IOException {
+        if (json.peek() != JsonToken.BEGIN_ARRAY) return false;
+        json.beginArray();
+        for (int i = 0; json.hasNext(); i++) {
+            if (i == index) {
+                return true;
+            }
+            json.skipValue();
+        }
+        return false;
+    }
+
+    /**
+     * Fields of interest in an Ollama generate response
+     */
+    public static final class OllamaChunk {
+        private String response;
+        private boolean done;
+        private String error;
+        private int[] context;
+
+        public String getResponse() { return response; }
+        public boolean isDone() { return done; }
+        public String getError() { return error; }
+        public int[] getContext() { return context; }
+    }
+}
@@ -0,0 +1,75 @@
+package com.jarvis.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prompt text with {name} placeholders, split into literal and placeholder
+ * segments once so each render is a single pass into a pre-sized builder.
+ * Placeholders without a value render as empty text.
+ */
+public final class PromptTemplate {
+    private final String[] literals;     // literals[i] precedes names[i]; one extra trailing literal
+    private final String[] names;
+    private final int literalLength;
+
+    private PromptTemplate(List<String> literals, List<String> names) {
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a template; "{" without a matching "}" is kept as literal text
+     */
+    public static PromptTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i + 1) : -1;
+            if (close > i + 1) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                names.add(template.substring(i + 1, close));
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new PromptTemplate(literals, names);
+    }
+
+    /**
+     * Fill in the placeholders
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder sb = new StringBuilder(literalLength + 64 * names.length);
+        appendTo(sb, values);
+        return sb.toString();
+    }
+
+    /**
+     * Fill in the placeholders, appending to an existing builder
+     */
+    public StringBuilder appendTo(StringBuilder sb, Map<String, ?> values) {
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            Object value = values.get(names[i]);
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.append(literals[names.length]);
+    }
+}
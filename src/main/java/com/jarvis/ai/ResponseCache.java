@@ -0,0 +1,294 @@
+package com.jarvis.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.jarvis.config.Config;
+import com.jarvis.utils.FuzzyMatcher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of AI answers keyed on backend, model and normalized query.
+ * Entries expire after a TTL; near-identical questions can be matched using
+ * FuzzyMatcher similarity, and the cache can be persisted to disk across restarts.
+ */
+public class ResponseCache {
+    private static final String KEY_SEPARATOR = "\u0000";
+    private static final int MAX_FUZZY_QUERY_LENGTH = 200; // Levenshtein is O(n*m)
+
+    private final int maxEntries;
+    private final long maxChars;
+    private final long ttlMillis;
+    private final double similarityThreshold;
+    private final Path persistPath;
+    private final LongSupplier clock;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalChars = 0;
+
+    private long hits = 0;
+    private long fuzzyHits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param maxEntries Maximum number of cached answers
+     * @param maxChars Maximum total characters of cached answers (bounds memory)
+     * @param ttlMillis Time to live for each entry, 0 for no expiry
+     * @param similarityThreshold FuzzyMatcher similarity (0-100) for near matches, 0 to disable
+     * @param persistPath File to load from and save to, or null for memory only
+     */
+    public ResponseCache(int maxEntries, long maxChars, long ttlMillis,
+                         double similarityThreshold, Path persistPath) {
+        this(maxEntries, maxChars, ttlMillis, similarityThreshold, persistPath, System::currentTimeMillis);
+    }
+
+    ResponseCache(int maxEntries, long maxChars, long ttlMillis,
+                  double similarityThreshold, Path persistPath, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxChars = Math.max(1, maxChars);
+        this.ttlMillis = ttlMillis;
+        this.similarityThreshold = similarityThreshold;
+        this.persistPath = persistPath;
+        this.clock = clock;
+        load();
+    }
+
+    /**
+     * Build a cache from the ai.cache.* settings in config.properties
+     */
+    public static ResponseCache fromConfig(Config config) {
+        int maxEntries = Integer.parseInt(config.getProperty("ai.cache.max.entries", "256"));
+        long maxChars = Long.parseLong(config.getProperty("ai.cache.max.chars", "2000000"));
+        long ttlMinutes = Long.parseLong(config.getProperty("ai.cache.ttl.minutes", "1440"));
+        double similarity = Double.parseDouble(config.getProperty("ai.cache.similarity", "0"));
+        String file = config.getProperty("ai.cache.file", "").trim();
+
+        return new ResponseCache(maxEntries, maxChars, ttlMinutes * 60_000L, similarity,
+            file.isEmpty() ? null : Paths.get(file));
+    }
+
+    /**
+     * Normalize a query so trivially different phrasings share a cache entry:
+     * lower case, punctuation removed, whitespace collapsed
+     */
+    public static String normalize(String query) {
+        if (query == null) return "";
+        StringBuilder sb = new StringBuilder(query.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = Character.toLowerCase(query.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Look up a cached answer
+     * @return The cached response, or null on a miss
+     */
+    public synchronized String get(String backend, String model, String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            misses++;
+            return null;
+        }
+
+        String key = key(backend, model, normalized);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!isExpired(entry)) {
+                hits++;
+                return entry.response;
+            }
+            remove(key);
+        }
+
+        if (similarityThreshold > 0 && normalized.length() <= MAX_FUZZY_QUERY_LENGTH) {
+            String similarKey = findSimilarKey(backend, model, normalized);
+            if (similarKey != null) {
+                hits++;
+                fuzzyHits++;
+                return entries.get(similarKey).response; // get() refreshes LRU position
+            }
+        }
+
+        misses++;
+        return null;
+    }
+
+    /**
+     * Store an answer, evicting least recently used entries to stay within bounds
+     */
+    public synchronized void put(String backend, String model, String query, String response) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || response == null || response.length() > maxChars) {
+            return;
+        }
+
+        String key = key(backend, model, normalized);
+        remove(key);
+
+        entries.put(key, new Entry(backend, model, normalized, response, clock.getAsLong()));
+        totalChars += response.length();
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalChars > maxChars) && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            totalChars -= eldest.response.length();
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove all entries (statistics are kept)
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalChars = 0;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    /**
+     * Summary of cache effectiveness for logs and status output
+     */
+    public synchronized String getStats() {
+        long lookups = hits + misses;
+        double hitRate = lookups == 0 ? 0 : (hits * 100.0) / lookups;
+        return String.format("%d entries, %d hits (%d fuzzy), %d misses, %.1f%% hit rate, %d evictions",
+            entries.size(), hits, fuzzyHits, misses, hitRate, evictions);
+    }
+
+    /**
+     * Write unexpired entries to the persistence file, if one is configured
+     */
+    public synchronized void save() {
+        if (persistPath == null) return;
+
+        List<Entry> snapshot = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (!isExpired(entry)) {
+                snapshot.add(entry);
+            }
+        }
+
+        try {
+            if (persistPath.getParent() != null) {
+                Files.createDirectories(persistPath.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(persistPath, StandardCharsets.UTF_8)) {
+                new Gson().toJson(snapshot, writer);
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save response cache: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (persistPath == null || !Files.isRegularFile(persistPath)) return;
+
+        try (Reader reader = Files.newBufferedReader(persistPath, StandardCharsets.UTF_8)) {
+            List<Entry> saved = new Gson().fromJson(reader, new TypeToken<List<Entry>>() {}.getType());
+            if (saved == null) return;
+
+            for (Entry entry : saved) {
+                if (entry.response == null || entry.query == null || isExpired(entry)) continue;
+                String key = key(entry.backend, entry.model, entry.query);
+                remove(key);
+                entries.put(key, entry);
+                totalChars += entry.response.length();
+            }
+            while (entries.size() > maxEntries || totalChars > maxChars) {
+                remove(entries.keySet().iterator().next());
+            }
+            System.out.println("💾 Loaded " + entries.size() + " cached AI responses");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Could not load response cache: " + e.getMessage());
+        }
+    }
+
+    private String findSimilarKey(String backend, String model, String normalized) {
+        String bestKey = null;
+        double bestSimilarity = similarityThreshold;
+        // Edit distance is at least the length difference, so skip hopeless candidates early
+        double maxLengthGap = (100.0 - similarityThreshold) / 100.0;
+
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry candidate = e.getValue();
+            if (!candidate.backend.equals(backend) || !candidate.model.equals(model)
+                    || isExpired(candidate)) {
+                continue;
+            }
+            int longer = Math.max(candidate.query.length(), normalized.length());
+            if (Math.abs(candidate.query.length() - normalized.length()) > longer * maxLengthGap) {
+                continue;
+            }
+            double sim = FuzzyMatcher.similarity(normalized, candidate.query);
+            if (sim >= bestSimilarity) {
+                bestSimilarity = sim;
+                bestKey = e.getKey();
+            }
+        }
+        return bestKey;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlMillis > 0 && clock.getAsLong() - entry.createdAt > ttlMillis;
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalChars -= removed.response.length();
+        }
+    }
+
+    private static String key(String backend, String model, String normalized) {
+        return backend + KEY_SEPARATOR + model + KEY_SEPARATOR + normalized;
+    }
+
+    /**
+     * Cached answer; field names double as the on-disk JSON format
+     */
+    private static class Entry {
+        String backend;
+        String model;
+        String query;
+        String response;
+        long createdAt;
+
+        Entry(String backend, String model, String query, String response, long createdAt) {
+            this.backend = backend;
+            this.model = model;
+            this.query = query;
+            this.response = response;
+            this.createdAt = createdAt;
+        }
+    }
+}
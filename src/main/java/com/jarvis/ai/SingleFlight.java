@@ -0,0 +1,144 @@
+package com.jarvis.ai;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: while a call for a key is running, further callers with the
+ * same key attach to it and share its result instead of starting their own.
+ * Each caller gets its own future, so one caller cancelling or timing out only
+ * detaches that caller; the shared call is cancelled once every caller is gone.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Start the call for a key, or attach to the identical call already running
+     * @param call Starts the work; only invoked by the first caller for the key
+     * @return This caller's view of the shared result
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        while (true) {
+            Flight created = new Flight(key);
+            Flight existing = flights.putIfAbsent(key, created);
+            if (existing == null) {
+                return created.start(call);
+            }
+            CompletableFuture<V> attached = existing.attach();
+            if (attached != null) {
+                coalesced.incrementAndGet();
+                return attached;
+            }
+            // Every caller left that flight and it is being cancelled; start afresh
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Blocking variant: the first caller runs the call on its own thread and
+     * later callers wait for its result
+     */
+    public V run(K key, Supplier<V> call) {
+        try {
+            return execute(key, () -> CompletableFuture.completedFuture(call.get())).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Number of calls currently running
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Number of callers that attached to a running call instead of starting one
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * One shared call and the callers waiting on it
+     */
+    private class Flight {
+        final K key;
+        final CompletableFuture<V> shared = new CompletableFuture<>();
+        int callers = 0;
+        boolean abandoned = false;
+
+        Flight(K key) {
+            this.key = key;
+        }
+
+        CompletableFuture<V> start(Supplier<CompletableFuture<V>> call) {
+            CompletableFuture<V> mine = attach();
+            CompletableFuture<V> running;
+            try {
+                running = call.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+
+            CompletableFuture<V> work = running;
+            // Leave the map before completing, so late callers start a fresh call
+            work.whenComplete((value, error) -> {
+                flights.remove(key, this);
+                if (error != null) {
+                    shared.completeExceptionally(error);
+                } else {
+                    shared.complete(value);
+                }
+            });
+            shared.whenComplete((value, error) -> {
+                if (shared.isCancelled()) {
+                    work.cancel(true);
+                }
+            });
+            return mine;
+        }
+
+        synchronized CompletableFuture<V> attach() {
+            if (abandoned) {
+                return null;
+            }
+            callers++;
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            shared.whenComplete((value, error) -> {
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+            // Finished before the shared call: the caller cancelled or gave up
+            mine.whenComplete((value, error) -> {
+                if (!shared.isDone()) {
+                    detach();
+                }
+            });
+            return mine;
+        }
+
+        private void detach() {
+            synchronized (this) {
+                if (--callers > 0 || shared.isDone()) {
+                    return;
+                }
+                abandoned = true;
+            }
+            flights.remove(key, this);
+            shared.cancel(true);
+        }
+    }
+}
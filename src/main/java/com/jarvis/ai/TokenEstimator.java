@@ -0,0 +1,38 @@
+package com.jarvis.ai;
+
+/**
+ * Cheap token count estimate for budgeting prompts without a model tokenizer.
+ * BPE vocabularies average roughly four characters per token in English prose,
+ * while short words, digits and punctuation tend to cost a token each.
+ */
+public final class TokenEstimator {
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * Estimated number of tokens in the text
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int words = 0;
+        int symbols = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) words++;
+                inWord = true;
+            } else {
+                inWord = false;
+                if (!Character.isWhitespace(c)) symbols++;
+            }
+        }
+
+        int byLength = (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+        int byWords = (words * 4 + 2) / 3 + symbols; // ~1.3 tokens per word
+        return Math.max(byLength, byWords);
+    }
+}
@@ -0,0 +1,57 @@
+package com.jarvis.commands;
+
+import com.jarvis.ai.AIProcessor;
+import com.jarvis.speech.TextToSpeech;
+import com.jarvis.utils.HttpClientProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Services available to command plugins
+ */
+public class CommandContext {
+    private final AIProcessor aiProcessor;
+    private final HttpClientProvider httpClientProvider;
+    private final Supplier<TextToSpeech> tts;
+    private final SystemCommands systemCommands;
+    private final Map<Class<?>, Object> shared = new ConcurrentHashMap<>();
+    
+    /**
+     * @param tts Supplies the voice, which may still be loading when commands start
+     */
+    public CommandContext(AIProcessor aiProcessor, HttpClientProvider httpClientProvider,
+                          Supplier<TextToSpeech> tts, SystemCommands systemCommands) {
+        this.aiProcessor = aiProcessor;
+        this.httpClientProvider = httpClientProvider;
+        this.tts = tts;
+        this.systemCommands = systemCommands;
+    }
+    
+    public AIProcessor getAIProcessor() {
+        return aiProcessor;
+    }
+    
+    public HttpClientProvider getHttpClientProvider() {
+        return httpClientProvider;
+    }
+    
+    /**
+     * The voice, waiting for it to finish loading if necessary
+     */
+    public TextToSpeech getTextToSpeech() {
+        return tts.get();
+    }
+    
+    public SystemCommands getSystemCommands() {
+        return systemCommands;
+    }
+    
+    /**
+     * A service shared between plugins, created by the first plugin that asks for it
+     */
+    public <T> T getShared(Class<T> type, Supplier<T> factory) {
+        return type.cast(shared.computeIfAbsent(type, t -> factory.get()));
+    }
+}
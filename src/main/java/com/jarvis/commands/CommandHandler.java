@@ -1,42 +1,112 @@
 package com.jarvis.commands;
 
 import com.jarvis.ai.AIProcessor;
-import com.jarvis.services.WeatherService;
+import com.jarvis.config.Config;
 import com.jarvis.speech.TextToSpeech;
-import com.jarvis.security.FileAnalyzer;
-import com.jarvis.security.LinkChecker;
-import com.jarvis.security.NetworkAnalyzer;
-import com.jarvis.security.PentestingTools;
+import com.jarvis.utils.HttpClientProvider;
+import com.jarvis.utils.IntentRouter;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.jarvis.commands.CommandPlugin.PRIORITY_EXIT;
+import static com.jarvis.commands.CommandPlugin.PRIORITY_KEYWORD;
+import static com.jarvis.commands.CommandPlugin.PRIORITY_MULTI_STEP;
+import static com.jarvis.commands.CommandPlugin.PRIORITY_PHRASE;
+import static com.jarvis.commands.CommandPlugin.PRIORITY_SECURITY;
 
 /**
- * Main command handler that routes commands to appropriate handlers
+ * Main command handler that routes commands to appropriate handlers. Core commands
+ * live here; the rest are {@link CommandPlugin}s created on first use.
  */
 public class CommandHandler {
+    // Reply to an empty command
+    public static final String NOT_HEARD = "I didn't catch that. Could you please repeat?";
+    
     private final SystemCommands systemCommands;
     private final WebCommands webCommands;
-    private final WeatherService weatherService;
     private final AIProcessor aiProcessor;
     private final AppAutomation appAutomation;
-    private final FileAnalyzer fileAnalyzer;
-    private final LinkChecker linkChecker;
-    private final NetworkAnalyzer networkAnalyzer;
-    private final PentestingTools pentestingTools;
-    private final TextToSpeech tts;
+    private final CommandRegistry plugins;
+    private final boolean speculativeEnabled;
+    
+    // Trigger phrases of every command, core and plugin, compiled once
+    private final IntentRouter<Function<String, String>> router;
+    
+    // Built-in commands for processCommandAsync run here, one at a time and in order
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "command-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     public CommandHandler(TextToSpeech tts) {
+        this(() -> tts);
+    }
+    
+    /**
+     * Create a handler whose voice is still being loaded elsewhere
+     * @param tts Supplies the voice when a command first needs it
+     */
+    public CommandHandler(Supplier<TextToSpeech> tts) {
+        HttpClientProvider httpClientProvider = HttpClientProvider.getInstance();
         this.systemCommands = new SystemCommands();
         this.webCommands = new WebCommands();
-        this.weatherService = new WeatherService();
-        this.aiProcessor = new AIProcessor();
+        this.aiProcessor = new AIProcessor(httpClientProvider);
         this.appAutomation = new AppAutomation();
-        this.fileAnalyzer = new FileAnalyzer();
-        this.linkChecker = new LinkChecker();
-        this.networkAnalyzer = new NetworkAnalyzer();
-        this.pentestingTools = new PentestingTools();
-        this.tts = tts;
+        this.plugins = new CommandRegistry(new CommandContext(aiProcessor, httpClientProvider, tts, systemCommands));
+        this.router = buildRouter();
+        this.speculativeEnabled = Boolean.parseBoolean(
+            Config.getInstance().getProperty("commands.speculative.enabled", "true"));
+    }
+    
+    /**
+     * Route table: multi-step requests are planned by the LLM before anything else
+     * runs, and specific phrases outrank single generic words ("check open ports"
+     * is a scan, not "open")
+     */
+    private IntentRouter<Function<String, String>> buildRouter() {
+        IntentRouter.Builder<Function<String, String>> builder = IntentRouter.<Function<String, String>>builder()
+            .addAll(this::handleComplexCommand, PRIORITY_MULTI_STEP, new String[] {"open"}, new String[] {"in", "on"})
+            .add(this::handleComplexCommand, PRIORITY_MULTI_STEP, "and", "then")
+            
+            .add(command -> appAutomation.closeWindow(), PRIORITY_PHRASE, "close window", "close this")
+            .add(command -> appAutomation.takeScreenshot(null), PRIORITY_PHRASE, "screenshot", "take a picture")
+            .add(this::handleNavigation, PRIORITY_PHRASE, "go to", "navigate to")
+            .add(this::handleGoogleSearch, PRIORITY_PHRASE, "search google")
+            .addAll(this::handleTerminalCommand, PRIORITY_PHRASE, new String[] {"run"}, new String[] {"terminal"})
+            
+            .add(command -> getTime(), PRIORITY_KEYWORD, "time")
+            .add(command -> getDate(), PRIORITY_KEYWORD, "date")
+            .add(this::handleOpenCommand, PRIORITY_KEYWORD, "open")
+            .add(this::handleVolumeCommand, PRIORITY_KEYWORD, "volume")
+            .add(this::handlePowerCommand, PRIORITY_KEYWORD, "shutdown", "restart", "sleep")
+            .add(this::handleGoogleSearch, PRIORITY_KEYWORD, "google")
+            .add(this::handleYouTube, PRIORITY_KEYWORD, "youtube", "play")
+            .add(this::handleWikipedia, PRIORITY_KEYWORD, "wikipedia")
+            .add(this::handleTyping, PRIORITY_KEYWORD, "type")
+            .add(this::handleKeyPress, PRIORITY_KEYWORD, "press")
+            .add(command -> appAutomation.minimizeWindow(), PRIORITY_KEYWORD, "minimize")
+            .add(command -> appAutomation.maximizeWindow(), PRIORITY_KEYWORD, "maximize")
+            
+            // Security questions get Kali terminal commands from the LLM
+            .add(this::handleSecurityQuery, PRIORITY_SECURITY,
+                "hack*", "crack*", "exploit*", "penetration", "pentest*",
+                "wifi password", "network scan", "port scan", "vulnerabilit*",
+                "sql injection", "xss", "brute force", "password crack*",
+                "metasploit", "nmap", "wireshark", "burp", "hydra",
+                "aircrack", "sqlmap", "john", "ettercap")
+            
+            .add(command -> "exit", PRIORITY_EXIT, "exit", "quit", "goodbye", "bye");
+        
+        plugins.addTo(builder);
+        return builder.build();
     }
     
     /**
@@ -50,138 +120,101 @@ public class CommandHandler {
      * Process a voice command and return response
      */
     public String processCommand(String command) {
+        return processCommand(command, null);
+    }
+    
+    /**
+     * Process a command, streaming the answer to {@code onToken} when it falls
+     * through to the AI backend. Built-in commands return their response directly.
+     * @param command The user's command
+     * @param onToken Receives generated text as it arrives (may be null)
+     * @return The complete response
+     */
+    public String processCommand(String command, Consumer<String> onToken) {
         if (command == null || command.trim().isEmpty()) {
-            return "I didn't catch that. Could you please repeat?";
+            return NOT_HEARD;
         }
         
         command = command.toLowerCase().trim();
-        
-        // Check for complex multi-step commands using LLM
-        if (isComplexCommand(command)) {
-            return handleComplexCommand(command);
-        }
-        
-        // Time and date commands
-        if (command.contains("time")) {
-            return getTime();
-        }
-        if (command.contains("date")) {
-            return getDate();
-        }
-        
-        // System commands
-        if (command.contains("open")) {
-            return handleOpenCommand(command);
-        }
-        if (command.contains("volume")) {
-            return handleVolumeCommand(command);
-        }
-        if (command.contains("shutdown") || command.contains("restart") || 
-            command.contains("sleep")) {
-            return handlePowerCommand(command);
+        String response = handleBuiltInCommand(command);
+        if (response != null) {
+            return response;
         }
         
-        // Web commands
-        if (command.contains("search google") || command.contains("google")) {
-            return handleGoogleSearch(command);
-        }
-        if (command.contains("youtube") || command.contains("play")) {
-            return handleYouTube(command);
-        }
-        if (command.contains("wikipedia")) {
-            return handleWikipedia(command);
-        }
-        
-        // Weather
-        if (command.contains("weather")) {
-            return handleWeather(command);
-        }
-        
-        // App automation commands
-        if (command.contains("go to") || command.contains("navigate to")) {
-            return handleNavigation(command);
-        }
-        if (command.contains("type")) {
-            return handleTyping(command);
-        }
-        if (command.contains("press")) {
-            return handleKeyPress(command);
-        }
-        if (command.contains("run") && command.contains("terminal")) {
-            return handleTerminalCommand(command);
-        }
-        
-        // LLM-powered terminal command generation for hacking/security queries
-        if (containsSecurityKeywords(command)) {
-            return handleSecurityQuery(command);
-        }
-        
-        if (command.contains("minimize")) {
-            return appAutomation.minimizeWindow();
-        }
-        if (command.contains("maximize")) {
-            return appAutomation.maximizeWindow();
-        }
-        if (command.contains("close window") || command.contains("close this")) {
-            return appAutomation.closeWindow();
-        }
-        if (command.contains("screenshot") || command.contains("take a picture")) {
-            return appAutomation.takeScreenshot(null);
-        }
-        
-        // File analysis commands
-        if (command.contains("analyze file") || command.contains("scan file")) {
-            return handleFileAnalysis(command);
-        }
-        if (command.contains("check link") || command.contains("check url")) {
-            return handleLinkCheck(command);
-        }
-        
-        // Pentesting commands
-        if (command.contains("scan network") || command.contains("nmap scan") || 
-            command.contains("check open ports") || command.contains("check ports")) {
-            return handleNmapScan(command);
-        }
-        if (command.contains("create payload") || command.contains("generate payload")) {
-            return handlePayloadGeneration(command);
-        }
-        if (command.contains("crack password")) {
-            return handlePasswordCrack(command);
-        }
-        if (command.contains("capture packets") || command.contains("unwanted packets") ||
-            command.contains("packet analysis") || command.contains("wire shark") ||
-            command.contains("network report") || command.contains("analyze network") ||
-            command.contains("check network") || command.contains("unauthorized access") ||
-            command.contains("network security") || command.contains("scan my network") ||
-            command.contains("http traffic") || command.contains("analyze http") ||
-            command.contains("extract credentials") || command.contains("find credentials") ||
-            command.contains("analyze dns") || command.contains("dns analysis") ||
-            command.contains("follow tcp") || command.contains("tcp stream") ||
-            command.contains("sensitive data") || command.contains("data leak") ||
-            command.contains("ssl certificate") || command.contains("tls certificate") ||
-            command.contains("extract files") || command.contains("http objects") ||
-            command.contains("bug bounty") || command.contains("bugbounty") ||
-            command.contains("pentest network") || command.contains("network pentest")) {
-            return handleNetworkAnalysis(command);
-        }
-        if (command.contains("enumerate directories") || command.contains("directory scan")) {
-            return handleDirectoryEnum(command);
-        }
-        if (command.contains("test sql injection") || command.contains("sqlmap")) {
-            return handleSQLInjection(command);
+        // Default: Use AI for general queries
+        if (onToken != null) {
+            return aiProcessor.processQueryStreaming(command, onToken);
         }
-        if (command.contains("brute force")) {
-            return handleBruteForce(command);
+        return aiProcessor.processQuery(command);
+    }
+    
+    /**
+     * Process a command without blocking the caller. Built-in commands run on a
+     * background worker; general queries go to the AI through its non-blocking API.
+     * Cancelling the returned future cancels an AI request in flight.
+     * @param command The user's command
+     * @return Future response ("exit" for the exit command)
+     */
+    public CompletableFuture<String> processCommandAsync(String command) {
+        if (command == null || command.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(NOT_HEARD);
         }
         
-        // Exit command
-        if (command.contains("exit") || command.contains("quit") || 
-            command.contains("goodbye") || command.contains("bye")) {
-            return "exit";
+        String normalized = command.toLowerCase().trim();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> handleBuiltInCommand(normalized), commandExecutor)
+            .thenCompose(response -> {
+                if (response != null || result.isDone()) {
+                    return CompletableFuture.completedFuture(response);
+                }
+                CompletableFuture<String> aiAnswer = aiProcessor.processQueryAsync(normalized);
+                // Propagate cancellation of the caller's future to the AI request
+                result.whenComplete((r, e) -> aiAnswer.cancel(true));
+                return aiAnswer;
+            })
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        return result;
+    }
+    
+    /**
+     * Prepare for a command that is still being spoken: the plugin its partial
+     * transcript routes to is loaded in the background, or, if no command matches
+     * and the current mode would ask Ollama, the Ollama model is warmed up. The
+     * network is never probed here; without a recent check nothing is warmed. Once
+     * Ollama is known to be unavailable it is left alone until a real query
+     * reaches it. Nothing is executed, so a wrong guess only costs the preparation.
+     * @param partialCommand Interim transcript from the speech recognizer
+     */
+    public void prewarm(String partialCommand) {
+        if (!speculativeEnabled || partialCommand == null || partialCommand.trim().isEmpty()) {
+            return;
+        }
+        Function<String, String> handler = router.route(partialCommand.toLowerCase().trim());
+        if (handler == null) {
+            // Called on the recognition thread: only a cold model is worth a look,
+            // and the mode is judged from the last network check in the background
+            if (aiProcessor.getOllamaReadiness() == AIProcessor.Readiness.COLD) {
+                CompletableFuture.runAsync(aiProcessor::warmUpIfUsedCached);
+            }
+        } else {
+            plugins.prewarm(handler);
         }
-        
-        // Default: Use AI for general queries
-        return aiProcessor.processQuery(command);
+    }
+    
+    /**
+     * Run a built-in command
+     * @param command Lower-cased, trimmed command
+     * @return The response, or null if the command should go to the AI
+     */
+    private String handleBuiltInCommand(String command) {
+        Function<String, String> handler = router.route(command);
+        return handler != null ? handler.apply(command) : null;
     }
     
     private String getTime() {
@@ -247,20 +280,6 @@ public class CommandHandler {
         return webCommands.searchWikipedia(query);
     }
     
-    private String handleWeather(String command) {
-        String city = command.replace("weather", "")
-                            .replace("in", "")
-                            .replace("what's the", "")
-                            .replace("what is the", "")
-                            .trim();
-        
-        if (city.isEmpty()) {
-            return weatherService.getCurrentWeather();
-        } else {
-            return weatherService.getWeather(city);
-        }
-    }
-    
     private String handleNavigation(String command) {
         String url = command.replace("go to", "")
                            .replace("navigate to", "")
@@ -306,83 +325,6 @@ public class CommandHandler {
         return appAutomation.executeInTerminal(cmd);
     }
     
-    /**
-     * Handle file analysis command
-     */
-    private String handleFileAnalysis(String command) {
-        String filePath = command.replace("analyze file", "")
-                                .replace("scan file", "")
-                                .trim();
-        
-        if (filePath.isEmpty()) {
-            return "Please specify a file path. Example: analyze file /path/to/file";
-        }
-        
-        System.out.println("\n🔍 Analyzing file: " + filePath);
-        FileAnalyzer.FileAnalysisReport report = fileAnalyzer.analyzeFile(filePath);
-        
-        // Print report to console
-        System.out.println(report.toFormattedString());
-        
-        // Return summary for GUI
-        String summary = "File analysis complete. Threat level: " + report.getThreatLevel();
-        if (!report.getThreats().isEmpty()) {
-            summary += ". Found " + report.getThreats().size() + " threat(s).";
-        }
-        return summary + " Check console for full report.";
-    }
-    
-    /**
-     * Handle link safety check command
-     */
-    private String handleLinkCheck(String command) {
-        String url = command.replace("check link", "")
-                           .replace("check url", "")
-                           .trim();
-        
-        if (url.isEmpty()) {
-            return "Please specify a URL. Example: check link https://example.com";
-        }
-        
-        // Add https:// if no protocol specified
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
-            url = "https://" + url;
-        }
-        
-        System.out.println("\n🔍 Checking link: " + url);
-        LinkChecker.LinkAnalysisReport report = linkChecker.checkLink(url);
-        
-        // Print report to console
-        System.out.println(report.toFormattedString());
-        
-        // Return summary for GUI
-        String summary = "Link check complete. Threat level: " + report.getThreatLevel();
-        if (!report.getThreats().isEmpty()) {
-            summary += ". Found " + report.getThreats().size() + " threat(s).";
-        }
-        return summary + " Check console for full report.";
-    }
-    
-    /**
-     * Check if command contains security/hacking keywords
-     */
-    private boolean containsSecurityKeywords(String command) {
-        String[] keywords = {
-            "hack", "crack", "exploit", "penetration", "pentest",
-            "wifi password", "network scan", "port scan", "vulnerability",
-            "sql injection", "xss", "brute force", "password crack",
-            "metasploit", "nmap", "wireshark", "burp", "hydra",
-            "aircrack", "sqlmap", "john", "ettercap"
-        };
-        
-        for (String keyword : keywords) {
-            if (command.contains(keyword)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
     /**
      * Handle security/hacking queries using LLM to generate terminal commands
      */
@@ -399,17 +341,6 @@ public class CommandHandler {
         return "🔐 SECURITY COMMANDS:\n\n" + response;
     }
     
-    /**
-     * Check if command is complex (contains multiple actions)
-     */
-    private boolean isComplexCommand(String command) {
-        // Check for patterns indicating multiple steps
-        return (command.contains(" in ") && command.contains("open")) ||
-               (command.contains(" on ") && command.contains("open")) ||
-               (command.contains(" and ")) ||
-               (command.contains(" then "));
-    }
-    
     /**
      * Handle complex commands using LLM to break them down and execute automatically
      */
@@ -500,314 +431,4 @@ public class CommandHandler {
             return processCommand(action);
         }
     }
-    /**
-     * Handle nmap scan command
-     */
-    private String handleNmapScan(String command) {
-        String target = command.replace("scan network", "")
-                              .replace("nmap scan", "")
-                              .trim();
-        
-        if (target.isEmpty()) {
-            return "Please specify a target. Example: scan network 192.168.1.0/24";
-        }
-        
-        // Determine scan type
-        if (command.contains("full")) {
-            return pentestingTools.nmapFullScan(target);
-        } else if (command.contains("os")) {
-            return pentestingTools.nmapOSDetection(target);
-        } else {
-            return pentestingTools.nmapQuickScan(target);
-        }
-    }
-    
-    /**
-     * Handle payload generation command
-     */
-    private String handlePayloadGeneration(String command) {
-        // Parse: "create payload windows reverse shell 192.168.1.10 4444"
-        String[] parts = command.split("\\s+");
-        
-        String platform = "windows";
-        String type = "reverse shell";
-        String lhost = "127.0.0.1";
-        String lport = "4444";
-        
-        // Extract platform
-        if (command.contains("windows")) {
-            platform = "windows";
-        } else if (command.contains("linux")) {
-            platform = "linux";
-        } else if (command.contains("android")) {
-            platform = "android";
-        }
-        
-        // Extract type
-        if (command.contains("reverse")) {
-            type = "reverse";
-        } else if (command.contains("bind")) {
-            type = "bind";
-        }
-        
-        // Extract IP and port (last two numbers in command)
-        for (int i = parts.length - 1; i >= 0; i--) {
-            if (parts[i].matches("\\d+") && lport.equals("4444")) {
-                lport = parts[i];
-            } else if (parts[i].matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
-                lhost = parts[i];
-            }
-        }
-        
-        return pentestingTools.generatePayload(platform, type, lhost, lport);
-    }
-    
-    /**
-     * Handle password cracking command
-     */
-    private String handlePasswordCrack(String command) {
-        // Parse: "crack password hashes.txt with rockyou"
-        String[] parts = command.split("\\s+");
-        
-        String hashFile = null;
-        String wordlist = null;
-        
-        // Find hash file
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].contains(".txt") || parts[i].contains("/")) {
-                hashFile = parts[i];
-            }
-            if (parts[i].equals("with") && i + 1 < parts.length) {
-                wordlist = "/usr/share/wordlists/" + parts[i + 1] + ".txt";
-            }
-        }
-        
-        if (hashFile == null) {
-            return "Please specify a hash file. Example: crack password /tmp/hashes.txt with rockyou";
-        }
-        
-        return pentestingTools.crackPassword(hashFile, wordlist);
-    }
-    
-    /**
-     * Handle network analysis commands (packet capture, scanning, unauthorized access detection)
-     */
-    private String handleNetworkAnalysis(String command) {
-        // Open Wireshark GUI only when explicitly requested
-        if (command.contains("open wireshark") || command.contains("open wire shark") ||
-            (command.contains("gui") && command.contains("wireshark"))) {
-            return systemCommands.openApplication("wireshark");
-        }
-        
-        // Parse interface and duration from command
-        String[] parts = command.split("\\s+");
-        String iface = null; // Will auto-detect if not specified
-        int duration = 15; // Default capture duration
-        String targetIP = null;
-        
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].equals("on") && i + 1 < parts.length) {
-                iface = parts[i + 1];
-            }
-            if (parts[i].equals("for") && i + 1 < parts.length) {
-                try {
-                    duration = Integer.parseInt(parts[i + 1]);
-                } catch (NumberFormatException e) {
-                    // Keep default
-                }
-            }
-            // Check for IP address pattern
-            if (parts[i].matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
-                targetIP = parts[i];
-            }
-        }
-        
-        // Network status report
-        if (command.contains("network report") || command.contains("network status")) {
-            String report = networkAnalyzer.getNetworkReport(iface);
-            System.out.println(report);
-            return "📊 Network report generated. Check console for details.";
-        }
-        
-        // Bug bounty comprehensive scan
-        if (command.contains("bug bounty") || command.contains("bugbounty") || 
-            command.contains("pentest network") || command.contains("network pentest")) {
-            String report = networkAnalyzer.bugBountyScan(iface, duration);
-            System.out.println(report);
-            return "🎯 Bug bounty scan complete! Check console for detailed report.";
-        }
-        
-        // HTTP traffic analysis
-        if (command.contains("http traffic") || command.contains("analyze http") ||
-            command.contains("http analysis")) {
-            String report = networkAnalyzer.analyzeHTTPTraffic(iface, duration);
-            System.out.println(report);
-            return "🌐 HTTP traffic analysis complete. Check console for details.";
-        }
-        
-        // Credential extraction
-        if (command.contains("extract credentials") || command.contains("find credentials") ||
-            command.contains("capture credentials") || command.contains("sniff password")) {
-            String report = networkAnalyzer.extractCredentials(iface, duration);
-            System.out.println(report);
-            return "🔑 Credential scan complete. Check console for findings.";
-        }
-        
-        // DNS analysis
-        if (command.contains("analyze dns") || command.contains("dns analysis") ||
-            command.contains("dns traffic") || command.contains("check dns")) {
-            String report = networkAnalyzer.analyzeDNS(iface, duration);
-            System.out.println(report);
-            return "🔍 DNS analysis complete. Check console for details.";
-        }
-        
-        // Follow TCP stream
-        if (command.contains("follow tcp") || command.contains("tcp stream") ||
-            command.contains("follow stream")) {
-            String report = networkAnalyzer.followTCPStream(iface, targetIP, duration);
-            System.out.println(report);
-            return "📡 TCP stream capture complete. Check console for data.";
-        }
-        
-        // Sensitive data leak detection
-        if (command.contains("sensitive data") || command.contains("data leak") ||
-            command.contains("api key") || command.contains("find secret")) {
-            String report = networkAnalyzer.detectSensitiveDataLeaks(iface, duration);
-            System.out.println(report);
-            return "🔐 Sensitive data scan complete. Check console for findings.";
-        }
-        
-        // SSL/TLS certificate analysis
-        if (command.contains("ssl certificate") || command.contains("tls certificate") ||
-            command.contains("analyze ssl") || command.contains("check certificate")) {
-            String report = networkAnalyzer.analyzeSSLCertificates(iface, duration);
-            System.out.println(report);
-            return "🔒 SSL/TLS certificate analysis complete. Check console.";
-        }
-        
-        // Extract HTTP objects/files
-        if (command.contains("extract files") || command.contains("http objects") ||
-            command.contains("extract objects") || command.contains("download files")) {
-            String report = networkAnalyzer.extractHTTPObjects(iface, duration);
-            System.out.println(report);
-            return "📦 HTTP object extraction complete. Check console for saved files.";
-        }
-        
-        // Unauthorized access / security scan
-        if (command.contains("unauthorized") || command.contains("security") ||
-            command.contains("suspicious") || command.contains("intrusion")) {
-            System.out.println("\n🔒 Scanning for unauthorized access and suspicious activity...");
-            NetworkAnalyzer.NetworkReport report = networkAnalyzer.detectUnauthorizedAccess(iface, duration);
-            String formattedReport = report.toFormattedString();
-            System.out.println(formattedReport);
-            
-            if (report.hasError()) {
-                return "❌ " + report.getError();
-            }
-            
-            int findingsCount = report.getSuspiciousFindings().size();
-            if (findingsCount == 0) {
-                return "✅ Security scan complete. No unauthorized access or suspicious activity detected. " +
-                       "Analyzed " + report.getTotalPackets() + " packets.";
-            } else {
-                return "⚠️ Security scan complete. Found " + findingsCount + " potential issue(s). " +
-                       "Check console for detailed report.";
-            }
-        }
-        
-        // Default: General network scan and analysis
-        System.out.println("\n📡 Starting network scan and analysis...");
-        NetworkAnalyzer.NetworkReport report = networkAnalyzer.captureAndAnalyze(iface, duration);
-        String formattedReport = report.toFormattedString();
-        System.out.println(formattedReport);
-        
-        if (report.hasError()) {
-            return "❌ " + report.getError();
-        }
-        
-        StringBuilder summary = new StringBuilder();
-        summary.append("📡 Network scan complete! Captured ").append(report.getTotalPackets()).append(" packets. ");
-        summary.append("Found ").append(report.getActiveIPs().size()).append(" active IPs. ");
-        
-        if (!report.getSuspiciousFindings().isEmpty()) {
-            summary.append("⚠️ ").append(report.getSuspiciousFindings().size()).append(" finding(s) detected. ");
-        } else {
-            summary.append("✅ No suspicious activity. ");
-        }
-        summary.append("Check console for full report.");
-        
-        return summary.toString();
-    }
-    
-    /**
-     * Handle packet capture command (legacy - now redirects to handleNetworkAnalysis)
-     */
-    private String handlePacketCapture(String command) {
-        return handleNetworkAnalysis(command);
-    }
-    
-    /**
-     * Handle directory enumeration command
-     */
-    private String handleDirectoryEnum(String command) {
-        // Parse: "enumerate directories on example.com"
-        String url = command.replace("enumerate directories on", "")
-                           .replace("directory scan", "")
-                           .trim();
-        
-        if (url.isEmpty()) {
-            return "Please specify a URL. Example: enumerate directories on https://example.com";
-        }
-        
-        if (!url.startsWith("http")) {
-            url = "https://" + url;
-        }
-        
-        return pentestingTools.dirBuster(url, null);
-    }
-    
-    /**
-     * Handle SQL injection testing command
-     */
-    private String handleSQLInjection(String command) {
-        String url = command.replace("test sql injection on", "")
-                           .replace("sqlmap", "")
-                           .trim();
-        
-        if (url.isEmpty()) {
-            return "Please specify a URL. Example: test sql injection on https://example.com/login?id=1";
-        }
-        
-        if (!url.startsWith("http")) {
-            url = "https://" + url;
-        }
-        
-        return pentestingTools.sqlmap(url);
-    }
-    
-    /**
-     * Handle brute force command
-     */
-    private String handleBruteForce(String command) {
-        // Parse: "brute force ssh on 192.168.1.10 with wordlist"
-        String[] parts = command.split("\\s+");
-        
-        String service = "ssh";
-        String target = "127.0.0.1";
-        String wordlist = null;
-        
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].equals("force") && i + 1 < parts.length) {
-                service = parts[i + 1];
-            }
-            if (parts[i].equals("on") && i + 1 < parts.length) {
-                target = parts[i + 1];
-            }
-            if (parts[i].equals("with") && i + 1 < parts.length) {
-                wordlist = "/usr/share/wordlists/" + parts[i + 1] + ".txt";
-            }
-        }
-        
-        return pentestingTools.hydra(target, service, wordlist);
-    }
 }
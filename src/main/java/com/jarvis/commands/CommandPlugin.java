@@ -0,0 +1,30 @@
+package com.jarvis.commands;
+
+/**
+ * A built-in command discovered with {@link java.util.ServiceLoader}. Implementations
+ * are listed in META-INF/services/com.jarvis.commands.CommandPlugin and declare
+ * their trigger phrases with {@link CommandTriggers}, so the command router is built
+ * without creating them: a plugin is instantiated and initialised the first time
+ * one of its phrases is heard.
+ */
+public interface CommandPlugin {
+    // Router priorities; when several commands match, the highest wins
+    int PRIORITY_MULTI_STEP = 100;
+    int PRIORITY_PHRASE = 80;
+    int PRIORITY_KEYWORD = 60;
+    int PRIORITY_SECURITY = 40;
+    int PRIORITY_EXIT = 20;
+    
+    /**
+     * Called once, before the first command, with the services shared by all commands
+     */
+    default void init(CommandContext context) {
+    }
+    
+    /**
+     * Handle a command that matched one of the plugin's triggers
+     * @param command Lower-cased, trimmed command
+     * @return The response to show and speak
+     */
+    String handle(String command);
+}
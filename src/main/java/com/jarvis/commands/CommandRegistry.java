@@ -0,0 +1,129 @@
+package com.jarvis.commands;
+
+import com.jarvis.utils.IntentRouter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Command plugins found on the classpath. Discovery only reads each plugin's
+ * {@link CommandTriggers}; the plugin itself is created on first use.
+ */
+public class CommandRegistry {
+    private final CommandContext context;
+    private final List<LazyPlugin> plugins = new ArrayList<>();
+    
+    /**
+     * Discover the plugins listed in META-INF/services
+     */
+    public CommandRegistry(CommandContext context) {
+        this.context = context;
+        ServiceLoader.load(CommandPlugin.class, CommandRegistry.class.getClassLoader()).stream()
+            .forEach(this::discover);
+    }
+    
+    private void discover(ServiceLoader.Provider<CommandPlugin> provider) {
+        CommandTriggers triggers = provider.type().getAnnotation(CommandTriggers.class);
+        if (triggers == null || triggers.value().length == 0) {
+            System.err.println("⚠️ Command plugin " + provider.type().getName() + " declares no triggers, skipping");
+            return;
+        }
+        plugins.add(new LazyPlugin(provider, triggers));
+    }
+    
+    /**
+     * Register every plugin's trigger phrases with a command router
+     */
+    public void addTo(IntentRouter.Builder<Function<String, String>> router) {
+        for (LazyPlugin plugin : plugins) {
+            router.add(plugin, plugin.triggers.priority(), plugin.triggers.value());
+        }
+    }
+    
+    /**
+     * Create a routed plugin in the background if it is not loaded yet
+     * @param handler A handler returned by the command router
+     * @return true if the handler is a plugin that was not loaded yet
+     */
+    public boolean prewarm(Function<String, String> handler) {
+        if (!(handler instanceof LazyPlugin) || ((LazyPlugin) handler).isLoaded()) {
+            return false;
+        }
+        LazyPlugin plugin = (LazyPlugin) handler;
+        CompletableFuture.runAsync(plugin::load);
+        return true;
+    }
+    
+    /**
+     * Class names of the discovered plugins
+     */
+    public List<String> getPluginNames() {
+        List<String> names = new ArrayList<>();
+        for (LazyPlugin plugin : plugins) {
+            names.add(plugin.provider.type().getSimpleName());
+        }
+        return names;
+    }
+    
+    /**
+     * Number of plugins created so far
+     */
+    public int getLoadedCount() {
+        int loaded = 0;
+        for (LazyPlugin plugin : plugins) {
+            if (plugin.isLoaded()) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * A discovered plugin, created and initialised when first needed
+     */
+    private class LazyPlugin implements Function<String, String> {
+        final ServiceLoader.Provider<CommandPlugin> provider;
+        final CommandTriggers triggers;
+        private CommandPlugin instance;
+        
+        LazyPlugin(ServiceLoader.Provider<CommandPlugin> provider, CommandTriggers triggers) {
+            this.provider = provider;
+            this.triggers = triggers;
+        }
+        
+        synchronized boolean isLoaded() {
+            return instance != null;
+        }
+        
+        @Override
+        public String apply(String command) {
+            CommandPlugin plugin = load();
+            return plugin != null ? plugin.handle(command) : "Sorry, that command is unavailable right now.";
+        }
+        
+        /**
+         * @return The plugin, or null if it failed to load
+         */
+        CommandPlugin load() {
+            try {
+                return get();
+            } catch (RuntimeException | ServiceConfigurationError e) {
+                System.err.println("❌ Could not load " + provider.type().getSimpleName() + ": " + e.getMessage());
+                return null;
+            }
+        }
+        
+        private synchronized CommandPlugin get() {
+            if (instance == null) {
+                CommandPlugin created = provider.get();
+                created.init(context);
+                instance = created;
+            }
+            return instance;
+        }
+    }
+}
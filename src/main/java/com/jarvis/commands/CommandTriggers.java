@@ -0,0 +1,24 @@
+package com.jarvis.commands;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Trigger phrases of a {@link CommandPlugin}, in {@link com.jarvis.utils.IntentRouter}
+ * syntax (whole words, trailing '*' for a prefix)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CommandTriggers {
+    /**
+     * The plugin handles a command containing any of these phrases
+     */
+    String[] value();
+    
+    /**
+     * Priority against other matching commands
+     */
+    int priority() default CommandPlugin.PRIORITY_PHRASE;
+}
@@ -0,0 +1,43 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Brute force a login with hydra
+ */
+@CommandTriggers({"brute force"})
+public class BruteForcePlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        // Parse: "brute force ssh on 192.168.1.10 with wordlist"
+        String[] parts = command.split("\\s+");
+        
+        String service = "ssh";
+        String target = "127.0.0.1";
+        String wordlist = null;
+        
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i].equals("force") && i + 1 < parts.length) {
+                service = parts[i + 1];
+            }
+            if (parts[i].equals("on") && i + 1 < parts.length) {
+                target = parts[i + 1];
+            }
+            if (parts[i].equals("with") && i + 1 < parts.length) {
+                wordlist = "/usr/share/wordlists/" + parts[i + 1] + ".txt";
+            }
+        }
+        
+        return pentestingTools.hydra(target, service, wordlist);
+    }
+}
@@ -0,0 +1,37 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Enumerate web directories with dirb
+ */
+@CommandTriggers({"enumerate directories", "directory scan"})
+public class DirectoryEnumPlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        // Parse: "enumerate directories on example.com"
+        String url = command.replace("enumerate directories on", "")
+                           .replace("directory scan", "")
+                           .trim();
+        
+        if (url.isEmpty()) {
+            return "Please specify a URL. Example: enumerate directories on https://example.com";
+        }
+        
+        if (!url.startsWith("http")) {
+            url = "https://" + url;
+        }
+        
+        return pentestingTools.dirBuster(url, null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.FileAnalyzer;
+
+/**
+ * Scan a local file for security threats
+ */
+@CommandTriggers({"analyze file", "scan file"})
+public class FileAnalysisPlugin implements CommandPlugin {
+    private FileAnalyzer fileAnalyzer;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.fileAnalyzer = new FileAnalyzer(context.getAIProcessor());
+    }
+    
+    @Override
+    public String handle(String command) {
+        String filePath = command.replace("analyze file", "")
+                                .replace("scan file", "")
+                                .trim();
+        
+        if (filePath.isEmpty()) {
+            return "Please specify a file path. Example: analyze file /path/to/file";
+        }
+        
+        System.out.println("\n🔍 Analyzing file: " + filePath);
+        FileAnalyzer.FileAnalysisReport report = fileAnalyzer.analyzeFile(filePath);
+        
+        // Print report to console
+        System.out.println(report.toFormattedString());
+        
+        // Return summary for GUI
+        String summary = "File analysis complete. Threat level: " + report.getThreatLevel();
+        if (!report.getThreats().isEmpty()) {
+            summary += ". Found " + report.getThreats().size() + " threat(s).";
+        }
+        return summary + " Check console for full report.";
+    }
+}
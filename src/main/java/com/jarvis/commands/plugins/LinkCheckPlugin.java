@@ -0,0 +1,48 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.LinkChecker;
+
+/**
+ * Check whether a URL is safe to open
+ */
+@CommandTriggers({"check link", "check url"})
+public class LinkCheckPlugin implements CommandPlugin {
+    private LinkChecker linkChecker;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.linkChecker = new LinkChecker(context.getHttpClientProvider());
+    }
+    
+    @Override
+    public String handle(String command) {
+        String url = command.replace("check link", "")
+                           .replace("check url", "")
+                           .trim();
+        
+        if (url.isEmpty()) {
+            return "Please specify a URL. Example: check link https://example.com";
+        }
+        
+        // Add https:// if no protocol specified
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            url = "https://" + url;
+        }
+        
+        System.out.println("\n🔍 Checking link: " + url);
+        LinkChecker.LinkAnalysisReport report = linkChecker.checkLink(url);
+        
+        // Print report to console
+        System.out.println(report.toFormattedString());
+        
+        // Return summary for GUI
+        String summary = "Link check complete. Threat level: " + report.getThreatLevel();
+        if (!report.getThreats().isEmpty()) {
+            summary += ". Found " + report.getThreats().size() + " threat(s).";
+        }
+        return summary + " Check console for full report.";
+    }
+}
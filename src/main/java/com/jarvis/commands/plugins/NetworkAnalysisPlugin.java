@@ -0,0 +1,177 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.NetworkAnalyzer;
+
+/**
+ * Network analysis commands (packet capture, scanning, unauthorized access detection)
+ */
+@CommandTriggers({
+    "capture packets", "unwanted packets", "packet analysis", "wire shark",
+    "network report", "analyze network", "check network", "unauthorized access",
+    "network security", "scan my network", "http traffic", "analyze http",
+    "extract credentials", "find credentials", "analyze dns", "dns analysis",
+    "follow tcp", "tcp stream", "sensitive data", "data leak",
+    "ssl certificate", "tls certificate", "extract files", "http objects",
+    "bug bounty", "bugbounty", "pentest network", "network pentest", "open wireshark"
+})
+public class NetworkAnalysisPlugin implements CommandPlugin {
+    private CommandContext context;
+    private NetworkAnalyzer networkAnalyzer;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.context = context;
+        this.networkAnalyzer = new NetworkAnalyzer();
+    }
+    
+    @Override
+    public String handle(String command) {
+        // Open Wireshark GUI only when explicitly requested
+        if (command.contains("open wireshark") || command.contains("open wire shark") ||
+            (command.contains("gui") && command.contains("wireshark"))) {
+            return context.getSystemCommands().openApplication("wireshark");
+        }
+        
+        // Parse interface and duration from command
+        String[] parts = command.split("\\s+");
+        String iface = null; // Will auto-detect if not specified
+        int duration = 15; // Default capture duration
+        String targetIP = null;
+        
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i].equals("on") && i + 1 < parts.length) {
+                iface = parts[i + 1];
+            }
+            if (parts[i].equals("for") && i + 1 < parts.length) {
+                try {
+                    duration = Integer.parseInt(parts[i + 1]);
+                } catch (NumberFormatException e) {
+                    // Keep default
+                }
+            }
+            // Check for IP address pattern
+            if (parts[i].matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
+                targetIP = parts[i];
+            }
+        }
+        
+        // Network status report
+        if (command.contains("network report") || command.contains("network status")) {
+            String report = networkAnalyzer.getNetworkReport(iface);
+            System.out.println(report);
+            return "📊 Network report generated. Check console for details.";
+        }
+        
+        // Bug bounty comprehensive scan
+        if (command.contains("bug bounty") || command.contains("bugbounty") || 
+            command.contains("pentest network") || command.contains("network pentest")) {
+            String report = networkAnalyzer.bugBountyScan(iface, duration);
+            System.out.println(report);
+            return "🎯 Bug bounty scan complete! Check console for detailed report.";
+        }
+        
+        // HTTP traffic analysis
+        if (command.contains("http traffic") || command.contains("analyze http") ||
+            command.contains("http analysis")) {
+            String report = networkAnalyzer.analyzeHTTPTraffic(iface, duration);
+            System.out.println(report);
+            return "🌐 HTTP traffic analysis complete. Check console for details.";
+        }
+        
+        // Credential extraction
+        if (command.contains("extract credentials") || command.contains("find credentials") ||
+            command.contains("capture credentials") || command.contains("sniff password")) {
+            String report = networkAnalyzer.extractCredentials(iface, duration);
+            System.out.println(report);
+            return "🔑 Credential scan complete. Check console for findings.";
+        }
+        
+        // DNS analysis
+        if (command.contains("analyze dns") || command.contains("dns analysis") ||
+            command.contains("dns traffic") || command.contains("check dns")) {
+            String report = networkAnalyzer.analyzeDNS(iface, duration);
+            System.out.println(report);
+            return "🔍 DNS analysis complete. Check console for details.";
+        }
+        
+        // Follow TCP stream
+        if (command.contains("follow tcp") || command.contains("tcp stream") ||
+            command.contains("follow stream")) {
+            String report = networkAnalyzer.followTCPStream(iface, targetIP, duration);
+            System.out.println(report);
+            return "📡 TCP stream capture complete. Check console for data.";
+        }
+        
+        // Sensitive data leak detection
+        if (command.contains("sensitive data") || command.contains("data leak") ||
+            command.contains("api key") || command.contains("find secret")) {
+            String report = networkAnalyzer.detectSensitiveDataLeaks(iface, duration);
+            System.out.println(report);
+            return "🔐 Sensitive data scan complete. Check console for findings.";
+        }
+        
+        // SSL/TLS certificate analysis
+        if (command.contains("ssl certificate") || command.contains("tls certificate") ||
+            command.contains("analyze ssl") || command.contains("check certificate")) {
+            String report = networkAnalyzer.analyzeSSLCertificates(iface, duration);
+            System.out.println(report);
+            return "🔒 SSL/TLS certificate analysis complete. Check console.";
+        }
+        
+        // Extract HTTP objects/files
+        if (command.contains("extract files") || command.contains("http objects") ||
+            command.contains("extract objects") || command.contains("download files")) {
+            String report = networkAnalyzer.extractHTTPObjects(iface, duration);
+            System.out.println(report);
+            return "📦 HTTP object extraction complete. Check console for saved files.";
+        }
+        
+        // Unauthorized access / security scan
+        if (command.contains("unauthorized") || command.contains("security") ||
+            command.contains("suspicious") || command.contains("intrusion")) {
+            System.out.println("\n🔒 Scanning for unauthorized access and suspicious activity...");
+            NetworkAnalyzer.NetworkReport report = networkAnalyzer.detectUnauthorizedAccess(iface, duration);
+            String formattedReport = report.toFormattedString();
+            System.out.println(formattedReport);
+            
+            if (report.hasError()) {
+                return "❌ " + report.getError();
+            }
+            
+            int findingsCount = report.getSuspiciousFindings().size();
+            if (findingsCount == 0) {
+                return "✅ Security scan complete. No unauthorized access or suspicious activity detected. " +
+                       "Analyzed " + report.getTotalPackets() + " packets.";
+            } else {
+                return "⚠️ Security scan complete. Found " + findingsCount + " potential issue(s). " +
+                       "Check console for detailed report.";
+            }
+        }
+        
+        // Default: General network scan and analysis
+        System.out.println("\n📡 Starting network scan and analysis...");
+        NetworkAnalyzer.NetworkReport report = networkAnalyzer.captureAndAnalyze(iface, duration);
+        String formattedReport = report.toFormattedString();
+        System.out.println(formattedReport);
+        
+        if (report.hasError()) {
+            return "❌ " + report.getError();
+        }
+        
+        StringBuilder summary = new StringBuilder();
+        summary.append("📡 Network scan complete! Captured ").append(report.getTotalPackets()).append(" packets. ");
+        summary.append("Found ").append(report.getActiveIPs().size()).append(" active IPs. ");
+        
+        if (!report.getSuspiciousFindings().isEmpty()) {
+            summary.append("⚠️ ").append(report.getSuspiciousFindings().size()).append(" finding(s) detected. ");
+        } else {
+            summary.append("✅ No suspicious activity. ");
+        }
+        summary.append("Check console for full report.");
+        
+        return summary.toString();
+    }
+}
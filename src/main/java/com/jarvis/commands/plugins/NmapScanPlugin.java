@@ -0,0 +1,39 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Port scan a host or network with nmap
+ */
+@CommandTriggers({"scan network", "nmap scan", "check open ports", "check ports"})
+public class NmapScanPlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        String target = command.replace("scan network", "")
+                              .replace("nmap scan", "")
+                              .trim();
+        
+        if (target.isEmpty()) {
+            return "Please specify a target. Example: scan network 192.168.1.0/24";
+        }
+        
+        // Determine scan type
+        if (command.contains("full")) {
+            return pentestingTools.nmapFullScan(target);
+        } else if (command.contains("os")) {
+            return pentestingTools.nmapOSDetection(target);
+        } else {
+            return pentestingTools.nmapQuickScan(target);
+        }
+    }
+}
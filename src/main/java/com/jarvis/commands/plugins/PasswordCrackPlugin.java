@@ -0,0 +1,44 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Crack a hash file with John the Ripper
+ */
+@CommandTriggers({"crack password"})
+public class PasswordCrackPlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        // Parse: "crack password hashes.txt with rockyou"
+        String[] parts = command.split("\\s+");
+        
+        String hashFile = null;
+        String wordlist = null;
+        
+        // Find hash file
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i].contains(".txt") || parts[i].contains("/")) {
+                hashFile = parts[i];
+            }
+            if (parts[i].equals("with") && i + 1 < parts.length) {
+                wordlist = "/usr/share/wordlists/" + parts[i + 1] + ".txt";
+            }
+        }
+        
+        if (hashFile == null) {
+            return "Please specify a hash file. Example: crack password /tmp/hashes.txt with rockyou";
+        }
+        
+        return pentestingTools.crackPassword(hashFile, wordlist);
+    }
+}
@@ -0,0 +1,57 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Generate a msfvenom payload
+ */
+@CommandTriggers({"create payload", "generate payload"})
+public class PayloadPlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        // Parse: "create payload windows reverse shell 192.168.1.10 4444"
+        String[] parts = command.split("\\s+");
+        
+        String platform = "windows";
+        String type = "reverse shell";
+        String lhost = "127.0.0.1";
+        String lport = "4444";
+        
+        // Extract platform
+        if (command.contains("windows")) {
+            platform = "windows";
+        } else if (command.contains("linux")) {
+            platform = "linux";
+        } else if (command.contains("android")) {
+            platform = "android";
+        }
+        
+        // Extract type
+        if (command.contains("reverse")) {
+            type = "reverse";
+        } else if (command.contains("bind")) {
+            type = "bind";
+        }
+        
+        // Extract IP and port (last two numbers in command)
+        for (int i = parts.length - 1; i >= 0; i--) {
+            if (parts[i].matches("\\d+") && lport.equals("4444")) {
+                lport = parts[i];
+            } else if (parts[i].matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
+                lhost = parts[i];
+            }
+        }
+        
+        return pentestingTools.generatePayload(platform, type, lhost, lport);
+    }
+}
@@ -0,0 +1,36 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.security.PentestingTools;
+
+/**
+ * Test a URL for SQL injection with sqlmap
+ */
+@CommandTriggers({"test sql injection", "sqlmap"})
+public class SqlInjectionPlugin implements CommandPlugin {
+    private PentestingTools pentestingTools;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.pentestingTools = context.getShared(PentestingTools.class, PentestingTools::new);
+    }
+    
+    @Override
+    public String handle(String command) {
+        String url = command.replace("test sql injection on", "")
+                           .replace("sqlmap", "")
+                           .trim();
+        
+        if (url.isEmpty()) {
+            return "Please specify a URL. Example: test sql injection on https://example.com/login?id=1";
+        }
+        
+        if (!url.startsWith("http")) {
+            url = "https://" + url;
+        }
+        
+        return pentestingTools.sqlmap(url);
+    }
+}
@@ -0,0 +1,34 @@
+package com.jarvis.commands.plugins;
+
+import com.jarvis.commands.CommandContext;
+import com.jarvis.commands.CommandPlugin;
+import com.jarvis.commands.CommandTriggers;
+import com.jarvis.services.WeatherService;
+
+/**
+ * Current weather, for a named city or the configured default location
+ */
+@CommandTriggers(value = {"weather"}, priority = CommandPlugin.PRIORITY_KEYWORD)
+public class WeatherPlugin implements CommandPlugin {
+    private WeatherService weatherService;
+    
+    @Override
+    public void init(CommandContext context) {
+        this.weatherService = new WeatherService(context.getHttpClientProvider());
+    }
+    
+    @Override
+    public String handle(String command) {
+        String city = command.replace("weather", "")
+                            .replace("in", "")
+                            .replace("what's the", "")
+                            .replace("what is the", "")
+                            .trim();
+        
+        if (city.isEmpty()) {
+            return weatherService.getCurrentWeather();
+        } else {
+            return weatherService.getWeather(city);
+        }
+    }
+}
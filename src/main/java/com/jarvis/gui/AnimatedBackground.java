@@ -3,51 +3,123 @@ package com.jarvis.gui;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 /**
  * Animated background with floating particles (Gemini-style)
+ *
+ * Each frame allocates nothing: particles are blitted from glow sprites
+ * rendered once per color and size, nearby pairs are found through a uniform
+ * grid (cells as wide as the link distance, so only neighboring cells are
+ * compared) using squared distances, and the scene is drawn into a reused
+ * VolatileImage back buffer. Each particle draws at most MAX_LINKS lines, so
+ * many more particles can be shown without the line count exploding.
  */
 public class AnimatedBackground extends JPanel {
-    private List<Particle> particles;
-    private Timer animationTimer;
     private static final int PARTICLE_COUNT = 80; // Reduced for better performance
+    private static final int MAX_SIZE = 3;
+    private static final int LINK_DISTANCE = 150;
+    private static final int LINK_DISTANCE_SQ = LINK_DISTANCE * LINK_DISTANCE;
+    private static final int LINK_MAX_ALPHA = 30;
+    private static final int MAX_LINKS = 12; // Per particle, so dense scenes stay linear in line count
+    
+    // Green/emerald tones (JARVIS theme)
+    private static final Color[] PALETTE = {
+        new Color(16, 185, 129, 80),    // Emerald-500 (#10B981)
+        new Color(52, 211, 153, 100),   // Emerald-400 (#34D399)
+        new Color(5, 150, 105, 90),     // Emerald-600 (#059669)
+        new Color(4, 120, 87, 70),      // Emerald-700 (#047857)
+        new Color(110, 231, 183, 110)   // Emerald-300 (#6EE7B7)
+    };
+    // Connection colors by alpha, so drawing a line never creates a Color
+    private static final Color[] LINK_COLORS = new Color[LINK_MAX_ALPHA + 1];
+    static {
+        for (int alpha = 0; alpha <= LINK_MAX_ALPHA; alpha++) {
+            LINK_COLORS[alpha] = new Color(16, 185, 129, alpha); // Green with varying alpha
+        }
+    }
+    
+    private final List<Particle> particles;
+    private final BufferedImage[][] sprites = new BufferedImage[PALETTE.length][MAX_SIZE + 1];
+    private Timer animationTimer;
+    private VolatileImage backBuffer;
+    
+    // Spatial grid as linked lists in arrays: cellHead[cell] is the first particle
+    // in the cell and nextInCell[i] the one after particle i (-1 ends a list)
+    private int gridColumns;
+    private int gridRows;
+    private int[] cellHead = new int[0];
+    private final int[] nextInCell;
     
     public AnimatedBackground() {
+        this(PARTICLE_COUNT);
+    }
+    
+    /**
+     * @param particleCount Number of particles to animate
+     */
+    public AnimatedBackground(int particleCount) {
         setOpaque(false);
-        particles = new ArrayList<>();
-        initializeParticles();
+        particles = new ArrayList<>(particleCount);
+        nextInCell = new int[particleCount];
+        createSprites();
+        initializeParticles(particleCount);
         startAnimation();
     }
     
-    private void initializeParticles() {
+    /**
+     * Render the glow and core of every color and size once
+     */
+    private void createSprites() {
+        float[] fractions = {0.0f, 0.5f, 1.0f};
+        for (int c = 0; c < PALETTE.length; c++) {
+            Color color = PALETTE[c];
+            Color clear = new Color(color.getRed(), color.getGreen(), color.getBlue(), 0);
+            for (int size = 1; size <= MAX_SIZE; size++) {
+                int extent = size * 4 + 2;
+                float center = extent / 2f;
+                BufferedImage sprite = new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g2d = sprite.createGraphics();
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                
+                // Glow effect
+                g2d.setPaint(new RadialGradientPaint(center, center, size * 2,
+                    fractions, new Color[] {clear, color, clear}));
+                g2d.fill(new Ellipse2D.Float(center - size * 2, center - size * 2, size * 4, size * 4));
+                
+                // Core circle
+                g2d.setColor(color);
+                g2d.fill(new Ellipse2D.Float(center - size / 2f, center - size / 2f, size, size));
+                g2d.dispose();
+                sprites[c][size] = sprite;
+            }
+        }
+    }
+    
+    private void initializeParticles(int count) {
         Random random = new Random();
         
-        for (int i = 0; i < PARTICLE_COUNT; i++) {
+        for (int i = 0; i < count; i++) {
             int x = random.nextInt(getWidth() > 0 ? getWidth() : 800);
             int y = random.nextInt(getHeight() > 0 ? getHeight() : 600);
-            int size = random.nextInt(3) + 1; // 1-4px (smaller particles)
+            int size = random.nextInt(MAX_SIZE) + 1; // 1-4px (smaller particles)
             float speed = random.nextFloat() * 0.8f + 0.3f; // 0.3-1.1 (slightly faster)
             float angle = 270 + (random.nextFloat() * 40 - 20); // Mostly upward (250-290 degrees)
+            BufferedImage sprite = sprites[random.nextInt(PALETTE.length)][size];
             
-            // Random color - green/emerald tones (JARVIS theme)
-            Color[] colors = {
-                new Color(16, 185, 129, 80),    // Emerald-500 (#10B981)
-                new Color(52, 211, 153, 100),   // Emerald-400 (#34D399)
-                new Color(5, 150, 105, 90),     // Emerald-600 (#059669)
-                new Color(4, 120, 87, 70),      // Emerald-700 (#047857)
-                new Color(110, 231, 183, 110)   // Emerald-300 (#6EE7B7)
-            };
-            Color color = colors[random.nextInt(colors.length)];
-            
-            particles.add(new Particle(x, y, size, speed, angle, color));
+            particles.add(new Particle(x, y, size, speed, angle, sprite));
         }
     }
     
     private void startAnimation() {
         animationTimer = new Timer(16, e -> { // ~60 FPS
+            // Nothing to animate while hidden or minimized
+            if (!isShowing()) return;
             updateParticles();
             repaint();
         });
@@ -62,8 +134,9 @@ public class AnimatedBackground extends JPanel {
         
         for (Particle p : particles) {
             // Update position
-            p.x += Math.cos(Math.toRadians(p.angle)) * p.speed;
-            p.y += Math.sin(Math.toRadians(p.angle)) * p.speed;
+            double radians = Math.toRadians(p.angle);
+            p.x += Math.cos(radians) * p.speed;
+            p.y += Math.sin(radians) * p.speed;
             
             // Wrap around edges
             if (p.x < -p.size) p.x = width + p.size;
@@ -79,60 +152,106 @@ public class AnimatedBackground extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        int width = getWidth();
+        int height = getHeight();
+        if (width == 0 || height == 0) return;
         
-        // Enable anti-aliasing
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) {
+            drawScene((Graphics2D) g, width, height);
+            return;
+        }
         
+        // Redraw if the accelerated buffer's contents were lost (e.g. display mode change)
+        do {
+            if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height
+                    || backBuffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (backBuffer != null) {
+                    backBuffer.flush();
+                }
+                backBuffer = gc.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+            }
+            Graphics2D buffer = backBuffer.createGraphics();
+            buffer.setComposite(AlphaComposite.Clear);
+            buffer.fillRect(0, 0, width, height);
+            buffer.setComposite(AlphaComposite.SrcOver);
+            drawScene(buffer, width, height);
+            buffer.dispose();
+            g.drawImage(backBuffer, 0, 0, null);
+        } while (backBuffer.contentsLost());
+    }
+    
+    private void drawScene(Graphics2D g2d, int width, int height) {
         // Draw particles
         for (Particle p : particles) {
-            // Glow effect
-            float[] fractions = {0.0f, 0.5f, 1.0f};
-            Color[] colors = {
-                new Color(p.color.getRed(), p.color.getGreen(), p.color.getBlue(), 0),
-                new Color(p.color.getRed(), p.color.getGreen(), p.color.getBlue(), p.color.getAlpha()),
-                new Color(p.color.getRed(), p.color.getGreen(), p.color.getBlue(), 0)
-            };
-            
-            RadialGradientPaint gradient = new RadialGradientPaint(
-                (float) p.x, (float) p.y, p.size * 2,
-                fractions, colors
-            );
-            
-            g2d.setPaint(gradient);
-            g2d.fill(new Ellipse2D.Double(
-                p.x - p.size * 2,
-                p.y - p.size * 2,
-                p.size * 4,
-                p.size * 4
-            ));
-            
-            // Core circle
-            g2d.setColor(p.color);
-            g2d.fill(new Ellipse2D.Double(
-                p.x - p.size / 2.0,
-                p.y - p.size / 2.0,
-                p.size,
-                p.size
-            ));
+            BufferedImage sprite = p.sprite;
+            g2d.drawImage(sprite, (int) (p.x - sprite.getWidth() / 2.0), (int) (p.y - sprite.getHeight() / 2.0), null);
         }
         
         // Draw connections between nearby particles
-        g2d.setColor(new Color(16, 185, 129, 30)); // Green connections
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        buildGrid(width, height);
         for (int i = 0; i < particles.size(); i++) {
-            for (int j = i + 1; j < particles.size(); j++) {
-                Particle p1 = particles.get(i);
-                Particle p2 = particles.get(j);
-                
-                double distance = Math.sqrt(
-                    Math.pow(p1.x - p2.x, 2) + Math.pow(p1.y - p2.y, 2)
-                );
-                
-                if (distance < 150) {
-                    int alpha = (int) (30 * (1 - distance / 150));
-                    g2d.setColor(new Color(16, 185, 129, alpha)); // Green with varying alpha
-                    g2d.drawLine((int) p1.x, (int) p1.y, (int) p2.x, (int) p2.y);
-                }
+            Particle p1 = particles.get(i);
+            int column = p1.column;
+            int row = p1.row;
+            // Later particles in the same cell, then the four neighbor cells not yet
+            // visited from this side, so each pair is checked exactly once
+            linkTo(g2d, p1, nextInCell[i]);
+            linkToCell(g2d, p1, column + 1, row);
+            linkToCell(g2d, p1, column - 1, row + 1);
+            linkToCell(g2d, p1, column, row + 1);
+            linkToCell(g2d, p1, column + 1, row + 1);
+        }
+    }
+    
+    /**
+     * Put every particle in the grid cell it falls in
+     */
+    private void buildGrid(int width, int height) {
+        int columns = width / LINK_DISTANCE + 1;
+        int rows = height / LINK_DISTANCE + 1;
+        if (columns * rows != cellHead.length) {
+            cellHead = new int[columns * rows];
+        }
+        gridColumns = columns;
+        gridRows = rows;
+        Arrays.fill(cellHead, -1);
+        
+        for (int i = 0; i < particles.size(); i++) {
+            Particle p = particles.get(i);
+            // Particles just past an edge belong to the edge cell
+            p.column = Math.max(0, Math.min(columns - 1, (int) p.x / LINK_DISTANCE));
+            p.row = Math.max(0, Math.min(rows - 1, (int) p.y / LINK_DISTANCE));
+            p.links = 0;
+            int cell = p.row * columns + p.column;
+            nextInCell[i] = cellHead[cell];
+            cellHead[cell] = i;
+        }
+    }
+    
+    private void linkToCell(Graphics2D g2d, Particle p1, int column, int row) {
+        if (column < 0 || column >= gridColumns || row >= gridRows) return;
+        linkTo(g2d, p1, cellHead[row * gridColumns + column]);
+    }
+    
+    /**
+     * Draw lines from p1 to the particles of a cell list that are close enough
+     */
+    private void linkTo(Graphics2D g2d, Particle p1, int first) {
+        for (int j = first; j >= 0 && p1.links < MAX_LINKS; j = nextInCell[j]) {
+            Particle p2 = particles.get(j);
+            if (p2.links >= MAX_LINKS) continue;
+            double dx = p1.x - p2.x;
+            double dy = p1.y - p2.y;
+            double distanceSq = dx * dx + dy * dy;
+            
+            if (distanceSq < LINK_DISTANCE_SQ) {
+                int alpha = (int) (LINK_MAX_ALPHA * (1 - Math.sqrt(distanceSq) / LINK_DISTANCE));
+                g2d.setColor(LINK_COLORS[alpha]);
+                g2d.drawLine((int) p1.x, (int) p1.y, (int) p2.x, (int) p2.y);
+                p1.links++;
+                p2.links++;
             }
         }
     }
@@ -141,6 +260,10 @@ public class AnimatedBackground extends JPanel {
         if (animationTimer != null) {
             animationTimer.stop();
         }
+        if (backBuffer != null) {
+            backBuffer.flush();
+            backBuffer = null;
+        }
     }
     
     private static class Particle {
@@ -148,15 +271,17 @@ public class AnimatedBackground extends JPanel {
         int size;
         float speed;
         float angle;
-        Color color;
+        BufferedImage sprite;
+        int column, row; // Grid cell for the current frame
+        int links; // Lines drawn this frame
         
-        Particle(double x, double y, int size, float speed, float angle, Color color) {
+        Particle(double x, double y, int size, float speed, float angle, BufferedImage sprite) {
             this.x = x;
             this.y = y;
             this.size = size;
             this.speed = speed;
             this.angle = angle;
-            this.color = color;
+            this.sprite = sprite;
         }
     }
 }
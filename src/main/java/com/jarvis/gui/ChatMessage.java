@@ -0,0 +1,81 @@
+package com.jarvis.gui;
+
+import java.awt.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * One entry of the chat transcript. The text can still grow while an answer
+ * streams in. The wrapped lines and height computed for the last width are
+ * kept here, so the list does not lay out the text again until it changes.
+ * Used on the event dispatch thread only.
+ */
+class ChatMessage {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    final String sender;
+    final Color color;
+    final String timestamp;
+    private final StringBuilder text;
+    private boolean expanded = false;
+    private int version = 0;
+
+    // Layout cache, owned by ChatMessageRenderer
+    int layoutWidth = -1;
+    int layoutVersion = -1;
+    List<String> lines;
+    int height;
+
+    ChatMessage(String sender, String text, Color color) {
+        this.sender = sender;
+        this.color = color;
+        this.timestamp = LocalDateTime.now().format(TIME_FORMAT);
+        this.text = new StringBuilder(text);
+    }
+
+    /**
+     * Add streamed text
+     */
+    void append(String more) {
+        text.append(more);
+        version++;
+    }
+
+    String getText() {
+        return text.toString();
+    }
+
+    int length() {
+        return text.length();
+    }
+
+    /**
+     * Show all of a long message instead of its beginning
+     */
+    void expand() {
+        if (!expanded) {
+            expanded = true;
+            version++;
+        }
+    }
+
+    boolean isExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Changes whenever the rendered text does
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Used when messages are copied from the list
+     */
+    @Override
+    public String toString() {
+        return "[" + timestamp + "] " + sender + ": " + text;
+    }
+}
@@ -0,0 +1,175 @@
+package com.jarvis.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paints one chat message: "[time] Sender: text", word-wrapped to the list
+ * width. Wrapping is computed once per message, width and text version and
+ * cached on the message, so measuring the whole list stays cheap. Messages
+ * longer than the collapse limit show only their beginning until clicked.
+ */
+class ChatMessageRenderer extends JComponent implements ListCellRenderer<ChatMessage> {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_WIDTH = 600;
+    private static final int PADDING = 4;
+
+    private final Font timeFont;
+    private final Font senderFont;
+    private final Font bodyFont;
+    private final Color textColor;
+    private final Color hintColor;
+    private final Color selectionColor;
+    private final int collapseChars;
+
+    private ChatMessage message;
+    private boolean selected;
+
+    /**
+     * @param collapseChars Longer messages show only this many characters until expanded
+     */
+    ChatMessageRenderer(Font font, Color textColor, Color hintColor, Color selectionColor, int collapseChars) {
+        this.timeFont = font.deriveFont(Font.PLAIN, 12f);
+        this.senderFont = font.deriveFont(Font.BOLD, 14f);
+        this.bodyFont = font.deriveFont(Font.PLAIN, 14f);
+        this.textColor = textColor;
+        this.hintColor = hintColor;
+        this.selectionColor = selectionColor;
+        this.collapseChars = Math.max(1, collapseChars);
+        setOpaque(false);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends ChatMessage> list, ChatMessage value,
+                                                  int index, boolean isSelected, boolean cellHasFocus) {
+        this.message = value;
+        this.selected = isSelected;
+        Insets insets = list.getInsets();
+        int width = list.getWidth() - insets.left - insets.right;
+        layout(value, width > 0 ? width : DEFAULT_WIDTH);
+        return this;
+    }
+
+    /**
+     * Whether the message shows only its beginning
+     */
+    boolean isCollapsed(ChatMessage value) {
+        return value.length() > collapseChars && !value.isExpanded();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(message != null ? message.layoutWidth : 0, message != null ? message.height : 0);
+    }
+
+    private void layout(ChatMessage value, int width) {
+        if (value.layoutWidth == width && value.layoutVersion == value.getVersion()) {
+            return;
+        }
+        FontMetrics body = getFontMetrics(bodyFont);
+        int prefix = prefixWidth(value);
+        String text = isCollapsed(value) ? value.getText().substring(0, collapseChars) + " …" : value.getText();
+
+        value.lines = wrap(text.replace("\t", "    ").stripTrailing(), body, width - prefix, width);
+        int rows = value.lines.size() + (isCollapsed(value) ? 1 : 0);
+        // One blank line separates messages
+        value.height = PADDING + (rows + 1) * body.getHeight();
+        value.layoutWidth = width;
+        value.layoutVersion = value.getVersion();
+    }
+
+    private int prefixWidth(ChatMessage value) {
+        return getFontMetrics(timeFont).stringWidth("[" + value.timestamp + "] ")
+            + getFontMetrics(senderFont).stringWidth(value.sender + ": ");
+    }
+
+    /**
+     * Greedy word wrap; the first line starts after the sender prefix
+     */
+    private static List<String> wrap(String text, FontMetrics metrics, int firstWidth, int width) {
+        List<String> lines = new ArrayList<>();
+        int available = firstWidth;
+        for (String paragraph : text.split("\n", -1)) {
+            int start = 0;
+            do {
+                int end = fit(paragraph, start, metrics, available, available < width);
+                lines.add(paragraph.substring(start, end));
+                start = end;
+                while (start < paragraph.length() && paragraph.charAt(start) == ' ') {
+                    start++;
+                }
+                available = width;
+            } while (start < paragraph.length());
+        }
+        return lines;
+    }
+
+    /**
+     * End of the longest run from start that fits, broken after a space if possible
+     * @param mayBeEmpty Allow fitting nothing (a word too long for a short first line moves down)
+     */
+    private static int fit(String paragraph, int start, FontMetrics metrics, int available, boolean mayBeEmpty) {
+        int width = 0;
+        int lastSpace = -1;
+        int i = start;
+        for (; i < paragraph.length(); i++) {
+            char c = paragraph.charAt(i);
+            width += metrics.charWidth(c);
+            if (width > available) {
+                break;
+            }
+            if (c == ' ') {
+                lastSpace = i;
+            }
+        }
+        if (i == paragraph.length()) {
+            return i;
+        }
+        if (lastSpace >= start) {
+            return lastSpace + 1;
+        }
+        return mayBeEmpty ? start : Math.max(i, start + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (message == null || message.lines == null) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (selected) {
+            g2d.setColor(selectionColor);
+            g2d.fillRoundRect(0, 0, getWidth(), getHeight() - getFontMetrics(bodyFont).getHeight() / 2, 10, 10);
+        }
+
+        FontMetrics body = getFontMetrics(bodyFont);
+        int lineHeight = body.getHeight();
+        int y = PADDING + body.getAscent();
+
+        String time = "[" + message.timestamp + "] ";
+        g2d.setFont(timeFont);
+        g2d.setColor(hintColor);
+        g2d.drawString(time, 0, y);
+        int x = getFontMetrics(timeFont).stringWidth(time);
+        g2d.setFont(senderFont);
+        g2d.setColor(message.color);
+        g2d.drawString(message.sender + ": ", x, y);
+        x += getFontMetrics(senderFont).stringWidth(message.sender + ": ");
+
+        g2d.setFont(bodyFont);
+        g2d.setColor(textColor);
+        for (String line : message.lines) {
+            g2d.drawString(line, x, y);
+            x = 0;
+            y += lineHeight;
+        }
+        if (isCollapsed(message)) {
+            g2d.setColor(hintColor);
+            g2d.drawString("▼ Click to show all " + message.length() + " characters", 0, y);
+        }
+        g2d.dispose();
+    }
+}
@@ -0,0 +1,55 @@
+package com.jarvis.gui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List model of the chat, capped at a number of messages: once full, the
+ * oldest message is dropped for each new one, so an all-day session keeps
+ * memory and layout cost flat. Used on the event dispatch thread only.
+ */
+class ChatTranscript extends AbstractListModel<ChatMessage> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<ChatMessage> messages = new ArrayList<>();
+    private final int maxMessages;
+
+    /**
+     * @param maxMessages Most messages kept
+     */
+    ChatTranscript(int maxMessages) {
+        this.maxMessages = Math.max(1, maxMessages);
+    }
+
+    void add(ChatMessage message) {
+        if (messages.size() >= maxMessages) {
+            int dropped = messages.size() - maxMessages + 1;
+            messages.subList(0, dropped).clear();
+            fireIntervalRemoved(this, 0, dropped - 1);
+        }
+        messages.add(message);
+        fireIntervalAdded(this, messages.size() - 1, messages.size() - 1);
+    }
+
+    /**
+     * Tell the list a message's text changed
+     */
+    void update(ChatMessage message) {
+        // Streamed messages are almost always the last one
+        int index = messages.lastIndexOf(message);
+        if (index >= 0) {
+            fireContentsChanged(this, index, index);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return messages.size();
+    }
+
+    @Override
+    public ChatMessage getElementAt(int index) {
+        return messages.get(index);
+    }
+}
@@ -2,8 +2,10 @@ package com.jarvis.gui;
 
 import com.jarvis.commands.CommandHandler;
 import com.jarvis.ai.AIProcessor;
+import com.jarvis.config.Config;
 import com.jarvis.speech.TextToSpeech;
 import com.jarvis.speech.SpeechRecognizer;
+import com.jarvis.utils.Bootstrap;
 
 import javax.swing.*;
 import javax.swing.border.*;
@@ -13,6 +15,9 @@ import java.awt.event.*;
 import java.awt.geom.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Premium Modern GUI for I.R.I.S Voice Assistant
@@ -20,11 +25,25 @@ import java.time.format.DateTimeFormatter;
  */
 public class JarvisGUI extends JFrame {
     private final CommandHandler commandHandler;
-    private final TextToSpeech tts;
-    private final SpeechRecognizer speechRecognizer;
     private final AIProcessor aiProcessor;
     
-    private JTextPane chatArea;
+    // Periodic network probes ping hosts, so they stay off the event thread
+    private final ExecutorService networkExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "network-status");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Slow to create (voice allocation, Vosk model load), so loaded after the window shows
+    private final Bootstrap boot = new Bootstrap("GUI");
+    private final CompletableFuture<TextToSpeech> tts;
+    private final CompletableFuture<SpeechRecognizer> speechRecognizer;
+    private volatile String networkStatus = "Checking network...";
+    
+    // The transcript only lays out and paints the messages in view
+    private ChatTranscript transcript;
+    private JList<ChatMessage> chatList;
+    private ChatMessage streamingMessage;
     private JTextField inputField;
     private JButton sendButton;
     private JButton voiceButton;
@@ -33,6 +52,7 @@ public class JarvisGUI extends JFrame {
     private JButton ollamaButton;    // Ollama AI button (tertiary)
     private JLabel statusLabel;
     private JLabel networkStatusLabel;
+    private JLabel ollamaStatusLabel;
     private JPanel statusIndicatorPanel;
     private JProgressBar audioLevelBar;
     private volatile boolean isListening = false;
@@ -62,19 +82,33 @@ public class JarvisGUI extends JFrame {
     private static final Color STATUS_OFFLINE = new Color(255, 100, 100); // Red
     private static final Color STATUS_SLOW = new Color(255, 200, 50);     // Yellow
     
+    // Long responses are only read out this far; the rest stays on screen
+    private static final int SPOKEN_CHARS = 200;
+    private static final String GREETING =
+        "Hello! I am I.R.I.S, your Intelligent Responsive Integrated System. How may I help you?";
+    private static final String FAREWELL = "Goodbye! Shutting down.";
+    
     public JarvisGUI() {
-        this.tts = new TextToSpeech();
-        this.speechRecognizer = new SpeechRecognizer();
-        this.commandHandler = new CommandHandler(tts);
+        this.tts = boot.stage("tts", TextToSpeech::new).future();
+        this.speechRecognizer = boot.stage("speech", SpeechRecognizer::new).future();
+        boot.stage("network", this::probeNetwork);
+        // Plugins are created on first use, so the handler itself is cheap
+        this.commandHandler = new CommandHandler(tts::join);
         this.aiProcessor = commandHandler.getAIProcessor();
         
         initializeUI();
         addWelcomeMessage();
         setupKeyboardShortcuts();
         startNetworkStatusUpdater();
-        
-        // Welcome speech
-        tts.speak("Hello! I am I.R.I.S, your Intelligent Responsive Integrated System. How may I help you?");
+        startOllamaWarmup();
+        watchVoiceReadiness();
+        boot.start().thenRun(() -> System.out.println(boot.getReport()));
+        
+        // Welcome speech once the voice is loaded
+        tts.thenAccept(voice -> {
+            voice.preload(GREETING, FAREWELL, CommandHandler.NOT_HEARD, AIProcessor.NO_RESPONSE);
+            voice.speak(GREETING);
+        });
     }
     
     private void initializeUI() {
@@ -149,6 +183,11 @@ public class JarvisGUI extends JFrame {
                     inputField.requestFocusInWindow();
                 });
             }
+            
+            @Override
+            public void windowClosing(WindowEvent e) {
+                aiProcessor.shutdown();
+            }
         });
     }
     
@@ -223,8 +262,8 @@ public class JarvisGUI extends JFrame {
         ollamaButton.setPreferredSize(new Dimension(90, 32));
         ollamaButton.addActionListener(e -> switchToOllama());
         
-        // Update button appearances based on current mode
-        updateAIButtonStates();
+        // Auto mode is only marked once probeNetwork knows the network
+        updateAIButtonStates(aiProcessor.getManualSelection());
         
         aiButtonPanel.add(grokButton);
         aiButtonPanel.add(geminiButton);
@@ -255,7 +294,7 @@ public class JarvisGUI extends JFrame {
         statusIndicatorPanel.setPreferredSize(new Dimension(12, 12));
         statusIndicatorPanel.setOpaque(false);
         
-        networkStatusLabel = new JLabel(aiProcessor.getNetworkStatus());
+        networkStatusLabel = new JLabel(networkStatus);
         networkStatusLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         networkStatusLabel.setForeground(TEXT_SECONDARY);
         
@@ -274,7 +313,7 @@ public class JarvisGUI extends JFrame {
     }
     
     private Color getStatusColor() {
-        String status = aiProcessor.getNetworkStatus();
+        String status = networkStatus;
         if (status.contains("Fast")) return STATUS_ONLINE;
         if (status.contains("Slow")) return STATUS_SLOW;
         return STATUS_OFFLINE;
@@ -302,18 +341,51 @@ public class JarvisGUI extends JFrame {
         panel.setOpaque(false);
         panel.setBorder(new EmptyBorder(20, 20, 20, 20));
         
-        // Use JTextPane for styled text
-        chatArea = new JTextPane();
-        chatArea.setEditable(false);
-        chatArea.setOpaque(false);
-        chatArea.setFont(new Font("Consolas", Font.PLAIN, 15));
-        chatArea.setForeground(TEXT_PRIMARY);
-        chatArea.setCaretColor(NEON_CYAN);
-        
-        // Styled document for colored messages
-        StyledDocument doc = chatArea.getStyledDocument();
+        // Virtualized message list with a retention cap; Ctrl+C copies selected messages
+        Config config = Config.getInstance();
+        transcript = new ChatTranscript(Integer.parseInt(config.getProperty("gui.chat.max.messages", "500")));
+        ChatMessageRenderer renderer = new ChatMessageRenderer(new Font("Consolas", Font.PLAIN, 15),
+            TEXT_PRIMARY, TEXT_SECONDARY, new Color(0, 200, 255, 40),
+            Integer.parseInt(config.getProperty("gui.chat.collapse.chars", "4000")));
+        chatList = new JList<>(transcript) {
+            @Override
+            public boolean getScrollableTracksViewportWidth() {
+                // Wrap messages to the visible width instead of scrolling sideways
+                return true;
+            }
+        };
+        chatList.setCellRenderer(renderer);
+        chatList.setOpaque(false);
+        chatList.setForeground(TEXT_PRIMARY);
+        chatList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = chatList.locationToIndex(e.getPoint());
+                Rectangle cell = index >= 0 ? chatList.getCellBounds(index, index) : null;
+                if (cell != null && cell.contains(e.getPoint())) {
+                    ChatMessage message = transcript.getElementAt(index);
+                    if (renderer.isCollapsed(message)) {
+                        message.expand();
+                        transcript.update(message);
+                    }
+                }
+            }
+        });
+        chatList.addComponentListener(new ComponentAdapter() {
+            private int width = -1;
+            
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (chatList.getWidth() != width) {
+                    width = chatList.getWidth();
+                    // Cell heights depend on the width; make the list measure them again
+                    chatList.setFixedCellHeight(1);
+                    chatList.setFixedCellHeight(-1);
+                }
+            }
+        });
         
-        JScrollPane scrollPane = new JScrollPane(chatArea);
+        JScrollPane scrollPane = new JScrollPane(chatList);
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
         scrollPane.setBorder(null);
@@ -383,8 +455,9 @@ public class JarvisGUI extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setOpaque(false);
         
-        voiceButton = createGlowButton("🎤 Voice", NEON_PURPLE);
+        voiceButton = createGlowButton("🎤 Loading", NEON_PURPLE);
         voiceButton.setPreferredSize(new Dimension(110, 55));
+        voiceButton.setEnabled(false);
         voiceButton.addActionListener(e -> startVoiceInput());
         
         sendButton = createGlowButton("Send →", NEON_CYAN);
@@ -504,7 +577,12 @@ public class JarvisGUI extends JFrame {
         
         JPanel leftPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
         leftPanel.setOpaque(false);
+        ollamaStatusLabel = new JLabel();
+        ollamaStatusLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        showOllamaReadiness(aiProcessor.getOllamaReadiness());
+        
         leftPanel.add(statusLabel);
+        leftPanel.add(ollamaStatusLabel);
         leftPanel.add(audioLevelBar);
         
         panel.add(leftPanel, BorderLayout.WEST);
@@ -527,10 +605,40 @@ public class JarvisGUI extends JFrame {
         
         updateStatus("Processing...", STATUS_SLOW);
         
-        SwingWorker<String, Void> worker = new SwingWorker<>() {
+        SwingWorker<String, String> worker = new SwingWorker<>() {
+            private boolean streaming = false;
+            private boolean spoken = false;
+            
             @Override
             protected String doInBackground() {
-                return commandHandler.processCommand(message);
+                // AI answers are published token by token as they are generated, and
+                // read out sentence by sentence while the rest is still coming
+                TextToSpeech voice = tts.getNow(null);
+                TextToSpeech.SpeechStream speech = voice != null ? voice.streamSpeech(SPOKEN_CHARS) : null;
+                try {
+                    return commandHandler.processCommand(message, token -> {
+                        publish(token);
+                        if (speech != null) {
+                            speech.accept(token);
+                        }
+                    });
+                } finally {
+                    if (speech != null) {
+                        // Closing flushes the last sentence, which may be the only one
+                        speech.close();
+                        spoken = speech.hasSpoken();
+                    }
+                }
+            }
+            
+            @Override
+            protected void process(java.util.List<String> tokens) {
+                if (!streaming) {
+                    streaming = true;
+                    beginStreamingMessage("I.R.I.S", NEON_CYAN);
+                    updateStatus("Responding...", STATUS_SLOW);
+                }
+                appendStreamingText(String.join("", tokens));
             }
             
             @Override
@@ -540,18 +648,30 @@ public class JarvisGUI extends JFrame {
                     
                     if (response.equals("exit")) {
                         appendMessage("I.R.I.S", "Goodbye! Shutting down...", NEON_CYAN);
-                        speakResponse("Goodbye! Shutting down.");
+                        speakResponse(FAREWELL);
                         updateStatus("Shutting down...", STATUS_OFFLINE);
-                        Timer timer = new Timer(2000, e -> System.exit(0));
+                        Timer timer = new Timer(2000, e -> {
+                            aiProcessor.shutdown();
+                            System.exit(0);
+                        });
                         timer.setRepeats(false);
                         timer.start();
                     } else {
-                        appendMessage("I.R.I.S", response, NEON_CYAN);
-                        // Speak the response (truncate if too long)
-                        speakResponse(response);
+                        if (streaming) {
+                            endStreamingMessage();
+                        } else {
+                            appendMessage("I.R.I.S", response, NEON_CYAN);
+                        }
+                        // Speak the response (truncate if too long) unless it was streamed
+                        if (!spoken) {
+                            speakResponse(response);
+                        }
                         updateStatus("Ready", STATUS_ONLINE);
                     }
                 } catch (Exception e) {
+                    if (streaming) {
+                        endStreamingMessage();
+                    }
                     appendMessage("ERROR", "Failed: " + e.getMessage(), STATUS_OFFLINE);
                     updateStatus("Error", STATUS_OFFLINE);
                 }
@@ -566,60 +686,62 @@ public class JarvisGUI extends JFrame {
      */
     private void speakResponse(String response) {
         // Clean up the response for speech (remove emojis and special characters)
-        String cleanResponse = response
-            .replaceAll("[\\p{So}\\p{Cn}]", "") // Remove emojis and symbols
-            .replaceAll("\\n+", ". ")           // Replace newlines with periods
-            .replaceAll("\\s+", " ")            // Normalize whitespace
-            .replaceAll("[=\\-_]{3,}", "")      // Remove separator lines
-            .trim();
+        String cleanResponse = TextToSpeech.cleanForSpeech(response);
         
         // Truncate if too long (only speak first 200 characters for long responses)
-        if (cleanResponse.length() > 200) {
-            int cutPoint = cleanResponse.lastIndexOf('.', 200);
+        if (cleanResponse.length() > SPOKEN_CHARS) {
+            int cutPoint = cleanResponse.lastIndexOf('.', SPOKEN_CHARS);
             if (cutPoint > 50) {
                 cleanResponse = cleanResponse.substring(0, cutPoint + 1);
             } else {
-                cleanResponse = cleanResponse.substring(0, 200) + "...";
+                cleanResponse = cleanResponse.substring(0, SPOKEN_CHARS) + "...";
             }
         }
         
-        // Speak if there's meaningful content
+        // Speak if there's meaningful content (skipped if the voice failed to load)
         if (cleanResponse.length() > 5) {
-            tts.speak(cleanResponse);
+            String speech = cleanResponse;
+            tts.thenAccept(voice -> voice.speak(speech));
         }
     }
     
     private void appendMessage(String sender, String message, Color color) {
-        SwingUtilities.invokeLater(() -> {
-            StyledDocument doc = chatArea.getStyledDocument();
-            
-            // Create styles
-            Style timeStyle = chatArea.addStyle("time", null);
-            StyleConstants.setForeground(timeStyle, TEXT_SECONDARY);
-            StyleConstants.setFontSize(timeStyle, 12);
-            
-            Style senderStyle = chatArea.addStyle("sender", null);
-            StyleConstants.setForeground(senderStyle, color);
-            StyleConstants.setBold(senderStyle, true);
-            StyleConstants.setFontSize(senderStyle, 14);
-            
-            Style messageStyle = chatArea.addStyle("message", null);
-            StyleConstants.setForeground(messageStyle, TEXT_PRIMARY);
-            StyleConstants.setFontSize(messageStyle, 14);
-            
-            try {
-                LocalDateTime now = LocalDateTime.now();
-                String timestamp = now.format(DateTimeFormatter.ofPattern("HH:mm"));
-                
-                doc.insertString(doc.getLength(), "[" + timestamp + "] ", timeStyle);
-                doc.insertString(doc.getLength(), sender + ": ", senderStyle);
-                doc.insertString(doc.getLength(), message + "\n\n", messageStyle);
-                
-                chatArea.setCaretPosition(doc.getLength());
-            } catch (BadLocationException e) {
-                e.printStackTrace();
-            }
-        });
+        SwingUtilities.invokeLater(() -> addChatMessage(new ChatMessage(sender, message, color)));
+    }
+    
+    /**
+     * Add a message to the transcript and scroll to it (EDT only)
+     */
+    private void addChatMessage(ChatMessage message) {
+        transcript.add(message);
+        chatList.ensureIndexIsVisible(transcript.getSize() - 1);
+    }
+    
+    /**
+     * Start a chat entry whose body is filled in as tokens stream in (EDT only)
+     */
+    private void beginStreamingMessage(String sender, Color color) {
+        streamingMessage = new ChatMessage(sender, "", color);
+        addChatMessage(streamingMessage);
+    }
+    
+    /**
+     * Append streamed text to the entry opened by beginStreamingMessage (EDT only)
+     */
+    private void appendStreamingText(String text) {
+        if (streamingMessage == null) {
+            return;
+        }
+        streamingMessage.append(text);
+        transcript.update(streamingMessage);
+        chatList.ensureIndexIsVisible(transcript.getSize() - 1);
+    }
+    
+    /**
+     * Close the streaming entry (EDT only)
+     */
+    private void endStreamingMessage() {
+        streamingMessage = null;
     }
     
     private void updateStatus(String status, Color color) {
@@ -643,7 +765,7 @@ public class JarvisGUI extends JFrame {
     }
     
     private void startVoiceInput() {
-        if (isListening) return;
+        if (isListening || !voiceButton.isEnabled()) return;
         
         isListening = true;
         voiceButton.setText("🔴 Listening...");
@@ -653,13 +775,27 @@ public class JarvisGUI extends JFrame {
         SwingWorker<String, Float> worker = new SwingWorker<>() {
             @Override
             protected String doInBackground() {
-                return speechRecognizer.listenWithCallback(10, new SpeechRecognizer.AudioLevelCallback() {
+                return speechRecognizer.join().listenWithCallback(10, new SpeechRecognizer.AudioLevelCallback() {
                     @Override
                     public void onAudioLevel(float level) {
                         publish(level);
                     }
                     @Override
                     public void onTranscript(String text) {}
+                    @Override
+                    public void onPartialTranscript(String text) {
+                        SwingUtilities.invokeLater(() -> inputField.setText(text));
+                    }
+                    @Override
+                    public void onStablePartial(String text) {
+                        // Load whatever will handle the command while the user finishes speaking
+                        commandHandler.prewarm(text);
+                    }
+                    @Override
+                    public void onSpeechStart() {
+                        // Stop reading out the last answer once the user talks
+                        tts.thenAccept(TextToSpeech::bargeIn);
+                    }
                 });
             }
             
@@ -703,52 +839,112 @@ public class JarvisGUI extends JFrame {
     private void switchToGrok() {
         aiProcessor.setManualMode(true, "grok");
         appendMessage("SYSTEM", "🎯 Switched to GROK (primary AI)", new Color(255, 100, 50));
-        updateAIButtonStates();
+        updateAIButtonStates("grok");
     }
     
     private void switchToGemini() {
         aiProcessor.setManualMode(true, "gemini");
         appendMessage("SYSTEM", "🌐 Switched to GEMINI (secondary AI)", NEON_BLUE);
-        updateAIButtonStates();
+        updateAIButtonStates("gemini");
     }
     
     private void switchToOllama() {
         aiProcessor.setManualMode(true, "ollama");
+        aiProcessor.warmUp();
         appendMessage("SYSTEM", "🤖 Switched to OLLAMA (offline AI)", new Color(50, 200, 100));
-        updateAIButtonStates();
+        updateAIButtonStates("ollama");
     }
     
-    private void updateAIButtonStates() {
-        String mode = aiProcessor.getCurrentMode();
-        SwingUtilities.invokeLater(() -> {
-            // Reset all buttons
-            grokButton.setText("🎯 Grok");
-            geminiButton.setText("🌐 Gemini");
-            ollamaButton.setText("🤖 Ollama");
-            
-            // Highlight the active one
-            if (mode.equals("grok")) {
-                grokButton.setText("✓ Grok");
-            } else if (mode.equals("gemini")) {
-                geminiButton.setText("✓ Gemini");
-            } else if (mode.equals("ollama")) {
-                ollamaButton.setText("✓ Ollama");
+    /**
+     * Mark the button of the given mode; on the event thread
+     */
+    private void updateAIButtonStates(String mode) {
+        // Reset all buttons
+        grokButton.setText("🎯 Grok");
+        geminiButton.setText("🌐 Gemini");
+        ollamaButton.setText("🤖 Ollama");
+        
+        // Highlight the active one
+        if (mode.equals("grok")) {
+            grokButton.setText("✓ Grok");
+        } else if (mode.equals("gemini")) {
+            geminiButton.setText("✓ Gemini");
+        } else if (mode.equals("ollama")) {
+            ollamaButton.setText("✓ Ollama");
+        }
+    }
+    
+    /**
+     * Reflect the local model's state in the status bar. The model itself is
+     * loaded by probeNetwork once the network (and so the auto mode) is known.
+     */
+    private void startOllamaWarmup() {
+        aiProcessor.addReadinessListener(readiness ->
+            SwingUtilities.invokeLater(() -> showOllamaReadiness(readiness)));
+    }
+    
+    private void showOllamaReadiness(AIProcessor.Readiness readiness) {
+        switch (readiness) {
+            case WARMING:
+                ollamaStatusLabel.setText("🤖 Ollama loading...");
+                ollamaStatusLabel.setForeground(STATUS_SLOW);
+                break;
+            case READY:
+                ollamaStatusLabel.setText("🤖 Ollama ready");
+                ollamaStatusLabel.setForeground(STATUS_ONLINE);
+                break;
+            case UNAVAILABLE:
+                ollamaStatusLabel.setText("🤖 Ollama offline");
+                ollamaStatusLabel.setForeground(STATUS_OFFLINE);
+                break;
+            default:
+                ollamaStatusLabel.setText("🤖 Ollama idle");
+                ollamaStatusLabel.setForeground(TEXT_SECONDARY);
+                break;
+        }
+    }
+    
+    /**
+     * Enable the voice button once the speech model has loaded
+     */
+    private void watchVoiceReadiness() {
+        speechRecognizer.whenComplete((recognizer, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                voiceButton.setText("🎤 Off");
+                appendMessage("SYSTEM", "Voice input unavailable: " + cause.getMessage(), STATUS_OFFLINE);
+            } else {
+                voiceButton.setText("🎤 Voice");
+                voiceButton.setEnabled(true);
             }
-        });
+        }));
     }
     
+    /**
+     * Re-probe the network every 30 seconds; the first probe is a startup stage
+     */
     private void startNetworkStatusUpdater() {
-        Timer timer = new Timer(30000, e -> {
-            aiProcessor.refreshNetworkStatus();
-            SwingUtilities.invokeLater(() -> {
-                networkStatusLabel.setText(aiProcessor.getNetworkStatus());
-                statusIndicatorPanel.repaint();
-                updateAIButtonStates();
-            });
-        });
+        Timer timer = new Timer(30000, e -> networkExecutor.execute(this::probeNetwork));
         timer.start();
     }
     
+    /**
+     * Check the network (blocking) and show the result
+     */
+    private String probeNetwork() {
+        aiProcessor.refreshNetworkStatus();
+        networkStatus = aiProcessor.getNetworkStatus();
+        // Auto mode falls back to Ollama when the network drops
+        aiProcessor.warmUpIfUsed();
+        String mode = aiProcessor.getCurrentMode();
+        SwingUtilities.invokeLater(() -> {
+            networkStatusLabel.setText(networkStatus);
+            statusIndicatorPanel.repaint();
+            updateAIButtonStates(mode);
+        });
+        return networkStatus;
+    }
+    
     // Custom scrollbar UI
     private static class ModernScrollBarUI extends javax.swing.plaf.basic.BasicScrollBarUI {
         @Override
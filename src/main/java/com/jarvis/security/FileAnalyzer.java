@@ -40,7 +40,14 @@ public class FileAnalyzer {
     }
     
     public FileAnalyzer() {
-        this.aiProcessor = new AIProcessor();
+        this(new AIProcessor());
+    }
+    
+    /**
+     * Create an analyzer that shares an existing AI processor for summaries
+     */
+    public FileAnalyzer(AIProcessor aiProcessor) {
+        this.aiProcessor = aiProcessor;
     }
     
     /**
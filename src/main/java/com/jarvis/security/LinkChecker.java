@@ -1,5 +1,11 @@
 package com.jarvis.security;
 
+import com.jarvis.utils.HttpClientProvider;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
 import java.io.*;
 import java.net.*;
 import java.security.cert.Certificate;
@@ -12,6 +18,7 @@ import java.util.regex.Pattern;
  * URL safety checker with phishing detection and SSL validation
  */
 public class LinkChecker {
+    private final OkHttpClient httpClient;
     
     // Known malicious TLDs and patterns
     private static final Set<String> SUSPICIOUS_TLDS = new HashSet<>(Arrays.asList(
@@ -29,6 +36,15 @@ public class LinkChecker {
         Pattern.compile("suspended.*account", Pattern.CASE_INSENSITIVE)
     };
     
+    public LinkChecker() {
+        this(HttpClientProvider.getInstance());
+    }
+    
+    public LinkChecker(HttpClientProvider httpClientProvider) {
+        // Probe profile: short timeouts, redirects handled manually below
+        this.httpClient = httpClientProvider.getProbeClient();
+    }
+    
     /**
      * Check if a URL is safe
      */
@@ -105,15 +121,16 @@ public class LinkChecker {
      * Check SSL certificate validity
      */
     private void checkSSLCertificate(URL url, LinkAnalysisReport report) {
-        try {
-            HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            connection.connect();
-            
-            Certificate[] certs = connection.getServerCertificates();
-            if (certs.length > 0 && certs[0] instanceof X509Certificate) {
-                X509Certificate cert = (X509Certificate) certs[0];
+        Request request = new Request.Builder()
+            .url(url)
+            .head()
+            .build();
+        
+        try (Response response = httpClient.newCall(request).execute()) {
+            List<Certificate> certs = response.handshake() != null ?
+                response.handshake().peerCertificates() : Collections.emptyList();
+            if (!certs.isEmpty() && certs.get(0) instanceof X509Certificate) {
+                X509Certificate cert = (X509Certificate) certs.get(0);
                 
                 // Check expiration
                 try {
@@ -130,8 +147,6 @@ public class LinkChecker {
                 report.setCertificateIssuer(cert.getIssuerDN().getName());
             }
             
-            connection.disconnect();
-            
         } catch (SSLException e) {
             report.setThreatLevel(ThreatLevel.HIGH);
             report.addThreat("SSL certificate error: " + e.getMessage());
@@ -146,38 +161,33 @@ public class LinkChecker {
      */
     private void checkRedirects(URL url, LinkAnalysisReport report) {
         try {
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setInstanceFollowRedirects(false);
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            connection.setRequestMethod("HEAD");
-            
             int redirectCount = 0;
-            String currentUrl = url.toString();
+            HttpUrl currentUrl = HttpUrl.get(url.toString());
             List<String> redirectChain = new ArrayList<>();
-            redirectChain.add(currentUrl);
+            redirectChain.add(currentUrl.toString());
             
             while (redirectCount < 10) {
-                connection = (HttpURLConnection) new URL(currentUrl).openConnection();
-                connection.setInstanceFollowRedirects(false);
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                connection.setRequestMethod("HEAD");
+                Request request = new Request.Builder()
+                    .url(currentUrl)
+                    .head()
+                    .build();
                 
-                int responseCode = connection.getResponseCode();
-                
-                if (responseCode >= 300 && responseCode < 400) {
-                    String location = connection.getHeaderField("Location");
+                try (Response response = httpClient.newCall(request).execute()) {
+                    if (!response.isRedirect()) {
+                        break;
+                    }
+                    
+                    String location = response.header("Location");
                     if (location == null) break;
                     
-                    redirectChain.add(location);
-                    currentUrl = location;
+                    // Location may be relative to the current URL
+                    HttpUrl next = currentUrl.resolve(location);
+                    if (next == null) break;
+                    
+                    redirectChain.add(next.toString());
+                    currentUrl = next;
                     redirectCount++;
-                } else {
-                    break;
                 }
-                
-                connection.disconnect();
             }
             
             if (redirectCount > 0) {
@@ -192,7 +202,7 @@ public class LinkChecker {
                 }
             }
             
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             report.addWarning("Could not check redirects: " + e.getMessage());
         }
     }
@@ -1,6 +1,7 @@
 package com.jarvis.services;
 
 import com.jarvis.config.Config;
+import com.jarvis.utils.HttpClientProvider;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -19,8 +20,12 @@ public class WeatherService {
     private static final String WEATHER_API_URL = "https://api.openweathermap.org/data/2.5/weather";
     
     public WeatherService() {
+        this(HttpClientProvider.getInstance());
+    }
+    
+    public WeatherService(HttpClientProvider httpClientProvider) {
         this.config = Config.getInstance();
-        this.httpClient = new OkHttpClient();
+        this.httpClient = httpClientProvider.getServiceClient();
         this.apiKey = config.getOpenWeatherApiKey();
     }
     
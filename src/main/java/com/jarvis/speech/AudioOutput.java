@@ -0,0 +1,95 @@
+package com.jarvis.speech;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Long-lived speaker output. The SourceDataLine is opened on first use and kept
+ * open, so consecutive sentences play back to back without reopening the device.
+ * Audio is written in short chunks, so playback can be cut off quickly.
+ * Played from one thread at a time; stop() may be called from any thread.
+ */
+final class AudioOutput implements AutoCloseable {
+    private static final int CHUNK_MILLIS = 50;
+
+    private volatile SourceDataLine line;
+    private boolean reportedFailure = false;
+
+    /**
+     * Write a clip to the line, returning once it is queued for playback
+     * @param cancelled Checked between chunks; playback stops when it returns true
+     * @return false if cut off or no output device is available
+     */
+    boolean play(PcmClip clip, BooleanSupplier cancelled) {
+        SourceDataLine output = open(clip.format);
+        if (output == null) {
+            return false;
+        }
+        int chunk = Math.max(clip.format.getFrameSize(),
+            (int) (clip.format.getSampleRate() * clip.format.getFrameSize() * CHUNK_MILLIS / 1000)
+                / clip.format.getFrameSize() * clip.format.getFrameSize());
+        for (int offset = 0; offset < clip.pcm.length; offset += chunk) {
+            if (cancelled.getAsBoolean()) {
+                return false;
+            }
+            output.write(clip.pcm, offset, Math.min(chunk, clip.pcm.length - offset));
+        }
+        return true;
+    }
+
+    /**
+     * Wait until everything written has been heard
+     */
+    void drain() {
+        SourceDataLine output = line;
+        if (output != null) {
+            output.drain();
+        }
+    }
+
+    /**
+     * Discard audio written but not yet heard
+     */
+    void stop() {
+        SourceDataLine output = line;
+        if (output != null) {
+            output.flush();
+        }
+    }
+
+    private SourceDataLine open(AudioFormat format) {
+        SourceDataLine output = line;
+        if (output != null && output.isOpen() && output.getFormat().matches(format)) {
+            return output;
+        }
+        close();
+        try {
+            output = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, format));
+            output.open(format);
+            output.start();
+            line = output;
+            reportedFailure = false;
+            return output;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            if (!reportedFailure) {
+                System.err.println("❌ Could not open audio output: " + e.getMessage());
+                reportedFailure = true;
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        SourceDataLine output = line;
+        line = null;
+        if (output != null) {
+            output.stop();
+            output.close();
+        }
+    }
+}
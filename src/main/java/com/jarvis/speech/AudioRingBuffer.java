@@ -0,0 +1,162 @@
+package com.jarvis.speech;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated single-producer/single-consumer ring buffer for PCM audio. The
+ * capture thread writes and one reader consumes; positions are published through
+ * atomics, so neither side takes a lock and nothing is allocated per frame.
+ * The most recently consumed bytes are kept as pre-roll: the reader can re-read
+ * audio from just before its read position, such as the start of a word that was
+ * only recognized as speech a few frames in.
+ */
+public final class AudioRingBuffer {
+    private final int capacity;
+    private final int preRoll;
+    // One view per side, so each can position it without allocating or locking
+    private final ByteBuffer writeView;
+    private final ByteBuffer readView;
+
+    // Absolute byte positions; each is only advanced by its own side
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+    private volatile Thread waitingReader;
+    private volatile boolean closed = false;
+    private volatile long overruns = 0; // written by the producer only
+
+    /**
+     * @param capacity Total size in bytes
+     * @param preRoll Bytes behind the read position the writer must not overwrite
+     * @param direct Allocate outside the Java heap
+     */
+    public AudioRingBuffer(int capacity, int preRoll, boolean direct) {
+        if (preRoll < 0 || preRoll >= capacity) {
+            throw new IllegalArgumentException("Pre-roll must be smaller than the capacity");
+        }
+        this.capacity = capacity;
+        this.preRoll = preRoll;
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        this.writeView = buffer.duplicate();
+        this.readView = buffer.duplicate();
+    }
+
+    /**
+     * Producer: append audio, or drop it whole if the reader has fallen too far behind
+     * @return false if the audio was dropped
+     */
+    public boolean write(byte[] src, int offset, int length) {
+        long write = writePosition.get();
+        if (write + length - readPosition.get() > capacity - preRoll) {
+            overruns++;
+            return false;
+        }
+        copy(writeView, write, length, true, src, offset);
+        writePosition.set(write + length);
+
+        Thread reader = waitingReader;
+        if (reader != null) {
+            LockSupport.unpark(reader);
+        }
+        return true;
+    }
+
+    /**
+     * Consumer: read exactly length bytes, waiting for the producer if needed
+     * @return false if they did not arrive in time, or the buffer was closed first
+     */
+    public boolean read(byte[] dst, int offset, int length, long timeoutMillis) throws InterruptedException {
+        long read = readPosition.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (writePosition.get() - read < length) {
+            long remaining = deadline - System.nanoTime();
+            if (closed || remaining <= 0) {
+                return false;
+            }
+            waitingReader = Thread.currentThread();
+            // Re-check after announcing ourselves, or a write in between would go unnoticed
+            if (writePosition.get() - read < length && !closed) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waitingReader = null;
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        copy(readView, read, length, false, dst, offset);
+        readPosition.set(read + length);
+        return true;
+    }
+
+    /**
+     * Consumer: re-read audio that was already consumed
+     * @param back How many bytes behind the read position to start
+     * @return false if that audio is not kept (more than the pre-roll, or never written)
+     */
+    public boolean readBehind(int back, byte[] dst, int offset, int length) {
+        long start = readPosition.get() - back;
+        if (back > preRoll || start < 0 || length > back) {
+            return false;
+        }
+        copy(readView, start, length, false, dst, offset);
+        return true;
+    }
+
+    /**
+     * Bytes written but not yet read
+     */
+    public int available() {
+        return (int) (writePosition.get() - readPosition.get());
+    }
+
+    /**
+     * Bytes that readBehind can currently go back
+     */
+    public int getPreRollAvailable() {
+        return (int) Math.min(preRoll, readPosition.get());
+    }
+
+    /**
+     * Number of writes dropped because the reader fell behind
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * No more audio will be written; the reader can still drain what is left
+     */
+    public void close() {
+        closed = true;
+        Thread reader = waitingReader;
+        if (reader != null) {
+            LockSupport.unpark(reader);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void copy(ByteBuffer view, long position, int length, boolean in, byte[] array, int offset) {
+        int index = (int) (position % capacity);
+        int first = Math.min(length, capacity - index);
+        view.position(index);
+        if (in) {
+            view.put(array, offset, first);
+        } else {
+            view.get(array, offset, first);
+        }
+        if (first < length) {
+            // Wrapped around
+            view.position(0);
+            if (in) {
+                view.put(array, offset + first, length - first);
+            } else {
+                view.get(array, offset + first, length - first);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.jarvis.speech;
+
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * FreeTTS audio player that keeps the synthesized audio in memory instead of
+ * playing it, so synthesis can run ahead of playback on its own thread.
+ * 16-bit audio is stored little-endian, the byte order of WAV files, so clips
+ * saved and loaded again keep the same format. Used by one synthesis thread at a time.
+ */
+final class CapturingAudioPlayer implements AudioPlayer {
+    private final ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+    private AudioFormat format = new AudioFormat(16000, 16, 1, true, true);
+    private volatile float volume = 1.0f;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Everything synthesized since the last call
+     */
+    PcmClip take() {
+        AudioFormat stored = format.getSampleSizeInBits() != 16 ? format
+            : new AudioFormat(format.getEncoding(), format.getSampleRate(), 16, format.getChannels(),
+                format.getFrameSize(), format.getFrameRate(), false);
+        PcmClip clip = new PcmClip(pcm.toByteArray(), stored);
+        pcm.reset();
+        cancelled = false;
+        return clip;
+    }
+
+    @Override
+    public void setAudioFormat(AudioFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public AudioFormat getAudioFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean write(byte[] audio) {
+        return write(audio, 0, audio.length);
+    }
+
+    @Override
+    public boolean write(byte[] audio, int offset, int length) {
+        if (cancelled) {
+            // Tells FreeTTS to stop synthesizing
+            return false;
+        }
+        if (format.getSampleSizeInBits() != 16 || (volume >= 1.0f && !format.isBigEndian())) {
+            pcm.write(audio, offset, length);
+            return true;
+        }
+        // Scale and reorder 16-bit samples into a copy; FreeTTS may reuse its array
+        byte[] samples = new byte[length - length % 2];
+        boolean bigEndian = format.isBigEndian();
+        for (int i = 0; i < samples.length; i += 2) {
+            int hi = offset + (bigEndian ? i : i + 1);
+            int lo = offset + (bigEndian ? i + 1 : i);
+            int sample = (short) ((audio[hi] << 8) | (audio[lo] & 0xFF));
+            sample = Math.round(sample * volume);
+            samples[i] = (byte) sample;
+            samples[i + 1] = (byte) (sample >> 8);
+        }
+        pcm.write(samples, 0, samples.length);
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public void reset() {
+        cancelled = false;
+    }
+
+    @Override
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        this.volume = Math.max(0f, Math.min(1f, volume));
+    }
+
+    @Override
+    public void begin(int size) {}
+
+    @Override
+    public boolean end() {
+        return !cancelled;
+    }
+
+    @Override
+    public boolean drain() {
+        return true;
+    }
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public long getTime() {
+        return 0;
+    }
+
+    @Override
+    public void resetTime() {}
+
+    @Override
+    public void startFirstSampleTimer() {}
+
+    @Override
+    public void showMetrics() {}
+}
@@ -0,0 +1,326 @@
+package com.jarvis.speech;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.TargetDataLine;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Long-lived microphone capture. One TargetDataLine is opened on first use and
+ * kept open, so listening no longer pays tens to hundreds of milliseconds (and
+ * sometimes the first syllable) to open the device each time. A single capture
+ * thread reads fixed-size frames and copies each into the ring buffer of every
+ * subscribed {@link MicrophoneStream}.
+ *
+ * The line is stopped while paused or after sitting idle with no subscribers,
+ * and restarted on demand. If the device disappears or stops delivering audio,
+ * the line is closed and reopened, on the configured device or the system default.
+ */
+public class MicrophoneService implements AutoCloseable {
+    private static final long WAIT_MILLIS = 1000;
+    // A running line that delivers nothing for this long is treated as lost
+    private static final long STALL_MILLIS = 2000;
+
+    private final AudioFormat format;
+    private final int frameBytes;
+    private final int bufferBytes;
+    private final boolean direct;
+    private final long idleStopMillis;
+    private final LineSource lineSource;
+
+    private final List<MicrophoneStream> subscribers = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private volatile TargetDataLine line; // opened and closed under lock
+    private Thread captureThread; // guarded by lock
+    private volatile String deviceName;
+    private volatile String activeDevice;
+    private volatile boolean paused = false;
+    private volatile boolean reopenRequested = false;
+    private volatile boolean closed = false;
+    private volatile long idleSince = System.currentTimeMillis();
+    private volatile int reopenCount = 0;
+
+    /**
+     * @param frameBytes Size of each frame handed to subscribers
+     * @param bufferSeconds How far a subscriber may fall behind before its audio is dropped
+     * @param direct Keep subscriber ring buffers outside the Java heap
+     * @param deviceName Part of the capture device's name, or empty for the system default
+     * @param idleStopMillis How long the line keeps running with no subscribers
+     */
+    public MicrophoneService(AudioFormat format, int frameBytes, int bufferSeconds, boolean direct,
+                             String deviceName, long idleStopMillis) {
+        this(format, frameBytes, bufferSeconds, direct, deviceName, idleStopMillis, null);
+    }
+
+    MicrophoneService(AudioFormat format, int frameBytes, int bufferSeconds, boolean direct,
+                      String deviceName, long idleStopMillis, LineSource lineSource) {
+        this.lineSource = lineSource != null ? lineSource : this::findLine;
+        this.format = format;
+        this.frameBytes = frameBytes;
+        int bytesPerSecond = (int) (format.getSampleRate() * format.getFrameSize());
+        this.bufferBytes = Math.max(4 * frameBytes, bufferSeconds * bytesPerSecond);
+        this.direct = direct;
+        this.deviceName = deviceName == null ? "" : deviceName.trim();
+        this.idleStopMillis = idleStopMillis;
+    }
+
+    /**
+     * Start receiving audio; close the stream to stop
+     * @param preRollBytes Consumed audio the stream keeps for readBehind
+     * @throws LineUnavailableException If no microphone could be opened
+     */
+    MicrophoneStream subscribe(int preRollBytes) throws LineUnavailableException {
+        synchronized (lock) {
+            if (closed) {
+                throw new LineUnavailableException("Microphone service is shut down");
+            }
+            if (line == null) {
+                openLine();
+            }
+            MicrophoneStream stream = new MicrophoneStream(this,
+                new AudioRingBuffer(bufferBytes + preRollBytes, preRollBytes, direct));
+            subscribers.add(stream);
+            if (captureThread == null) {
+                captureThread = new Thread(this::captureLoop, "mic-capture");
+                captureThread.setDaemon(true);
+                captureThread.start();
+            }
+            lock.notifyAll();
+            return stream;
+        }
+    }
+
+    void unsubscribe(MicrophoneStream stream) {
+        if (subscribers.remove(stream) && subscribers.isEmpty()) {
+            idleSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Stop capturing without closing the device; subscribers get no audio until resumed
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    /**
+     * Restart capturing after pause()
+     */
+    public void resume() {
+        synchronized (lock) {
+            paused = false;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Move capture to another device
+     * @param name Part of the device's name, or empty for the system default
+     */
+    public void switchDevice(String name) {
+        synchronized (lock) {
+            deviceName = name == null ? "" : name.trim();
+            reopenRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Name of the device currently capturing, or null if none is open
+     */
+    public String getActiveDevice() {
+        return line == null ? null : activeDevice;
+    }
+
+    /**
+     * Number of times the line was reopened after a failure or device switch
+     */
+    public int getReopenCount() {
+        return reopenCount;
+    }
+
+    private void captureLoop() {
+        byte[] frame = new byte[frameBytes];
+        boolean running = false;
+        long lastAudio = System.currentTimeMillis();
+
+        while (!closed) {
+            if (reopenRequested) {
+                running = false;
+                reopen();
+                continue;
+            }
+            TargetDataLine current = line;
+            if (current == null || !hasDemand()) {
+                if (running && current != null) {
+                    current.stop();
+                    current.flush();
+                }
+                running = false;
+                waitForDemand();
+                continue;
+            }
+            if (!running) {
+                current.start();
+                running = true;
+                lastAudio = System.currentTimeMillis();
+            }
+
+            int filled = 0;
+            while (filled < frameBytes && !closed) {
+                int read = current.read(frame, filled, frameBytes - filled);
+                if (read <= 0) {
+                    // A vanished device can return nothing at once; do not spin on it
+                    sleepQuietly(10);
+                    break;
+                }
+                filled += read;
+            }
+            if (filled == frameBytes) {
+                lastAudio = System.currentTimeMillis();
+                for (MicrophoneStream stream : subscribers) {
+                    stream.ring.write(frame, 0, frameBytes);
+                }
+            } else if (!closed && hasDemand()
+                    && (!current.isOpen() || System.currentTimeMillis() - lastAudio > STALL_MILLIS)) {
+                System.err.println("⚠️  Microphone stopped delivering audio, reopening...");
+                reopenRequested = true;
+            }
+        }
+
+        synchronized (lock) {
+            closeLine();
+        }
+    }
+
+    private boolean hasDemand() {
+        if (paused) {
+            return false;
+        }
+        return !subscribers.isEmpty() || System.currentTimeMillis() - idleSince < idleStopMillis;
+    }
+
+    private void waitForDemand() {
+        synchronized (lock) {
+            while (!closed && !reopenRequested && (line == null || !hasDemand())) {
+                try {
+                    lock.wait(WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Close the current line and open one on the selected device. If that fails,
+     * subscribers are told their stream ended and the next subscribe tries again.
+     */
+    private void reopen() {
+        synchronized (lock) {
+            reopenRequested = false;
+            closeLine();
+            try {
+                openLine();
+                reopenCount++;
+                System.out.println("🎤 Microphone reopened: " + getActiveDevice());
+            } catch (LineUnavailableException | RuntimeException e) {
+                System.err.println("❌ Could not open microphone: " + e.getMessage());
+                for (MicrophoneStream stream : subscribers) {
+                    stream.ring.close();
+                }
+                subscribers.clear();
+            }
+        }
+    }
+
+    private void openLine() throws LineUnavailableException {
+        DataLine.Info info = new DataLine.Info(TargetDataLine.class, format);
+        TargetDataLine opened = lineSource.getLine(info);
+        opened.open(format);
+        line = opened;
+    }
+
+    /**
+     * A line on the device whose name contains the configured name, else the system default
+     */
+    private TargetDataLine findLine(DataLine.Info info) throws LineUnavailableException {
+        String wanted = deviceName.toLowerCase();
+        if (!wanted.isEmpty()) {
+            for (Mixer.Info mixerInfo : AudioSystem.getMixerInfo()) {
+                Mixer mixer = AudioSystem.getMixer(mixerInfo);
+                if (mixerInfo.getName().toLowerCase().contains(wanted) && mixer.isLineSupported(info)) {
+                    activeDevice = mixerInfo.getName();
+                    return (TargetDataLine) mixer.getLine(info);
+                }
+            }
+            System.err.println("⚠️  Microphone '" + deviceName + "' not found, using the default device");
+        }
+        if (!AudioSystem.isLineSupported(info)) {
+            throw new LineUnavailableException("Audio line not supported");
+        }
+        activeDevice = "default";
+        return (TargetDataLine) AudioSystem.getLine(info);
+    }
+
+    /**
+     * Finds the capture line to open
+     */
+    interface LineSource {
+        TargetDataLine getLine(DataLine.Info info) throws LineUnavailableException;
+    }
+
+    private void closeLine() {
+        TargetDataLine current = line;
+        line = null;
+        if (current != null) {
+            current.stop();
+            current.close();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop capturing and release the device
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (lock) {
+            closed = true;
+            thread = captureThread;
+            lock.notifyAll();
+        }
+        for (MicrophoneStream stream : subscribers) {
+            stream.ring.close();
+        }
+        subscribers.clear();
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            synchronized (lock) {
+                closeLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.jarvis.speech;
+
+/**
+ * One subscriber's view of the microphone. The capture thread of
+ * {@link MicrophoneService} copies every frame into this stream's preallocated
+ * ring buffer, so a slow recognizer never stalls capture and the all-day capture
+ * path allocates nothing per frame. If the reader falls far behind, new frames
+ * are dropped. Closing the stream unsubscribes; the microphone stays open.
+ */
+final class MicrophoneStream implements AutoCloseable {
+    private final MicrophoneService service;
+    final AudioRingBuffer ring;
+
+    MicrophoneStream(MicrophoneService service, AudioRingBuffer ring) {
+        this.service = service;
+        this.ring = ring;
+    }
+
+    /**
+     * Fill the frame with the next captured audio
+     * @return false if not enough arrived within the timeout
+     */
+    boolean read(byte[] frame, long timeoutMillis) throws InterruptedException {
+        return ring.read(frame, 0, frame.length, timeoutMillis);
+    }
+
+    /**
+     * Re-read consumed audio
+     * @see AudioRingBuffer#readBehind
+     */
+    boolean readBehind(int back, byte[] dst, int length) {
+        return ring.readBehind(back, dst, 0, length);
+    }
+
+    /**
+     * Consumed audio still available to readBehind
+     */
+    int getPreRollAvailable() {
+        return ring.getPreRollAvailable();
+    }
+
+    /**
+     * Whether more frames can still arrive
+     */
+    boolean isOpen() {
+        return !ring.isClosed() || ring.available() > 0;
+    }
+
+    @Override
+    public void close() {
+        service.unsubscribe(this);
+        ring.close();
+        if (ring.getOverruns() > 0) {
+            System.err.println("⚠️  Speech recognition fell behind; dropped " + ring.getOverruns() + " audio frames");
+        }
+    }
+}
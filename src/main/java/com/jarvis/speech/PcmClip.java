@@ -0,0 +1,23 @@
+package com.jarvis.speech;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Synthesized audio, ready to write to an output line
+ */
+final class PcmClip {
+    final byte[] pcm;
+    final AudioFormat format;
+
+    PcmClip(byte[] pcm, AudioFormat format) {
+        this.pcm = pcm;
+        this.format = format;
+    }
+
+    /**
+     * Playing time in milliseconds
+     */
+    long getDurationMillis() {
+        return (long) (pcm.length / (format.getSampleRate() * format.getFrameSize()) * 1000);
+    }
+}
@@ -0,0 +1,148 @@
+package com.jarvis.speech;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthesized audio of fixed phrases ("Yes?", greetings, canned errors), so
+ * they play at once instead of waiting for synthesis. Only registered phrases
+ * are kept. Clips can also be saved as WAV files, keyed by the voice settings
+ * and the text, so a restart does not have to render them again.
+ */
+final class PhraseCache {
+    private final Set<String> phrases = ConcurrentHashMap.newKeySet();
+    private final Map<String, PcmClip> clips = new ConcurrentHashMap<>();
+    private final Path directory;
+    private volatile String voiceKey;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory Where clips are saved, or null to keep them in memory only
+     * @param voiceKey Voice name and settings the clips are rendered with
+     */
+    PhraseCache(Path directory, String voiceKey) {
+        this.directory = directory;
+        this.voiceKey = voiceKey;
+    }
+
+    /**
+     * Mark a sentence as a fixed phrase worth keeping
+     */
+    void register(String phrase) {
+        phrases.add(phrase);
+    }
+
+    /**
+     * The clip of a registered phrase, from memory or disk
+     * @return null if it has not been rendered yet (or is not a phrase)
+     */
+    PcmClip get(String text) {
+        if (!phrases.contains(text)) {
+            return null;
+        }
+        PcmClip clip = peek(text);
+        if (clip != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return clip;
+    }
+
+    /**
+     * Like get, without counting a hit or miss
+     */
+    PcmClip peek(String text) {
+        if (!phrases.contains(text)) {
+            return null;
+        }
+        return clips.computeIfAbsent(text, this::load);
+    }
+
+    /**
+     * Keep a freshly rendered clip if its text is a registered phrase
+     */
+    void put(String text, PcmClip clip) {
+        if (!phrases.contains(text) || clip.pcm.length == 0) {
+            return;
+        }
+        clips.put(text, clip);
+        save(text, clip);
+    }
+
+    /**
+     * The voice settings changed: clips rendered before no longer match
+     */
+    void setVoiceKey(String voiceKey) {
+        if (!voiceKey.equals(this.voiceKey)) {
+            this.voiceKey = voiceKey;
+            clips.clear();
+        }
+    }
+
+    /**
+     * Phrases, hits and misses on one line
+     */
+    String getStats() {
+        return String.format("phrase cache: %d phrases, %d rendered, %d hits, %d misses",
+            phrases.size(), clips.size(), hits.get(), misses.get());
+    }
+
+    private PcmClip load(String text) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(text);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile())) {
+            return new PcmClip(in.readAllBytes(), in.getFormat());
+        } catch (IOException | UnsupportedAudioFileException e) {
+            System.err.println("⚠️  Could not read cached phrase " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(String text, PcmClip clip) {
+        if (directory == null) {
+            return;
+        }
+        long frames = clip.pcm.length / clip.format.getFrameSize();
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(clip.pcm), clip.format, frames)) {
+            Files.createDirectories(directory);
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, fileFor(text).toFile());
+        } catch (IOException e) {
+            System.err.println("⚠️  Could not save cached phrase: " + e.getMessage());
+        }
+    }
+
+    private Path fileFor(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                .digest((voiceKey + "\n" + text).getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return directory.resolve(name + ".wav");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.jarvis.speech;
+
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Small pool of long-lived recognizers. Building a Vosk recognizer allocates
+ * native decoder state and sets up the graph, which is a measurable part of a
+ * command's latency on large models; pooled instances are reset between
+ * utterances instead. Instances are created on demand up to the pool size (or
+ * ahead of time with prewarm), and callers wait when all are in use.
+ */
+public class RecognizerPool<R extends AutoCloseable> implements AutoCloseable {
+    private final String name;
+    private final int size;
+    private final Callable<R> factory;
+    private final Consumer<R> reset;
+    private final Semaphore permits;
+    private final Deque<R> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed = false;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param name Shown in errors and statistics
+     * @param size Most instances in use at once
+     * @param factory Builds a new instance
+     * @param reset Clears an instance's state before it is reused
+     */
+    public RecognizerPool(String name, int size, Callable<R> factory, Consumer<R> reset) {
+        this.name = name;
+        this.size = Math.max(1, size);
+        this.factory = factory;
+        this.reset = reset;
+        this.permits = new Semaphore(this.size, true);
+    }
+
+    /**
+     * Build instances ahead of time, so the first utterances do not pay for it
+     * @param count How many to have ready (at most the pool size)
+     */
+    public void prewarm(int count) {
+        // Never more instances than the pool size, counting those leased out
+        int missing = Math.min(count, permits.availablePermits()) - idle.size();
+        for (int i = 0; i < missing; i++) {
+            idle.push(create());
+        }
+    }
+
+    /**
+     * Borrow an instance; close the lease to return it
+     * @throws IllegalStateException If none became free within the timeout, or one could not be built
+     */
+    public Lease acquire(long timeoutMillis) throws InterruptedException {
+        long start = System.nanoTime();
+        if (closed || !permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No " + name + " recognizer free after " + timeoutMillis + " ms");
+        }
+        long waited = System.nanoTime() - start;
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        R instance = idle.poll();
+        if (instance == null) {
+            try {
+                instance = create();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        return new Lease(instance);
+    }
+
+    private R create() {
+        try {
+            R instance = factory.call();
+            created.incrementAndGet();
+            return instance;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create " + name + " recognizer: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Instances ready for use without waiting or building
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Number of instances built so far
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Average time callers waited for an instance, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        long count = acquisitions.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Longest time a caller waited for an instance, in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Acquisitions, instances built and wait times on one line
+     */
+    public String getStats() {
+        return String.format("%s pool: %d acquisitions, %d built, %.1f ms average wait, %.1f ms max wait",
+            name, acquisitions.get(), created.get(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    /**
+     * Close idle instances; those still leased are closed when returned
+     */
+    @Override
+    public void close() {
+        closed = true;
+        R instance;
+        while ((instance = idle.poll()) != null) {
+            closeQuietly(instance);
+        }
+    }
+
+    private void closeQuietly(R instance) {
+        try {
+            instance.close();
+        } catch (Exception e) {
+            System.err.println("⚠️  Could not close " + name + " recognizer: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One borrowed instance
+     */
+    public final class Lease implements AutoCloseable {
+        private R instance;
+
+        private Lease(R instance) {
+            this.instance = instance;
+        }
+
+        public R get() {
+            if (instance == null) {
+                throw new IllegalStateException("Lease already returned");
+            }
+            return instance;
+        }
+
+        /**
+         * Reset the instance and return it to the pool; one that fails to reset is discarded
+         */
+        @Override
+        public void close() {
+            if (instance == null) {
+                return;
+            }
+            R returned = instance;
+            instance = null;
+            try {
+                reset.accept(returned);
+                if (closed) {
+                    closeQuietly(returned);
+                } else {
+                    idle.push(returned);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("⚠️  Discarding " + name + " recognizer: " + e.getMessage());
+                closeQuietly(returned);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.jarvis.speech;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text arriving in arbitrary chunks (such as streamed LLM tokens) into
+ * sentences as soon as each one is complete, so speech can start before the
+ * whole answer exists. A sentence ends at '.', '!' or '?' followed by
+ * whitespace, or at a line break. Very short pieces ("Dr.", "e.g.") are joined
+ * to what follows, and a run-on sentence is broken at a comma or space once it
+ * grows too long to wait for.
+ */
+final class SentenceSplitter {
+    private static final int MIN_CHARS = 12;
+    private static final int MAX_CHARS = 200;
+
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * Add more text
+     * @return Sentences completed by it, in order (often none)
+     */
+    List<String> append(CharSequence chunk) {
+        pending.append(chunk);
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < pending.length(); i++) {
+            char c = pending.charAt(i);
+            boolean end = c == '\n'
+                || ((c == '.' || c == '!' || c == '?') && i + 1 < pending.length()
+                    && Character.isWhitespace(pending.charAt(i + 1)));
+            if (end && i + 1 - start >= MIN_CHARS) {
+                add(sentences, pending.substring(start, i + 1));
+                start = i + 1;
+            } else if (i + 1 - start >= MAX_CHARS) {
+                int cut = breakPoint(start, i + 1);
+                add(sentences, pending.substring(start, cut));
+                start = cut;
+            }
+        }
+        pending.delete(0, start);
+        return sentences;
+    }
+
+    /**
+     * The text is complete: whatever is left is the last sentence
+     * @return The remaining text, or null if there is none
+     */
+    String flush() {
+        String rest = pending.toString().trim();
+        pending.setLength(0);
+        return rest.isEmpty() ? null : rest;
+    }
+
+    /**
+     * Where to break a run-on sentence: after the last comma, else the last space
+     */
+    private int breakPoint(int start, int end) {
+        int space = -1;
+        for (int i = end - 1; i > start + MIN_CHARS; i--) {
+            char c = pending.charAt(i);
+            if (c == ',' || c == ';' || c == ':') {
+                return i + 1;
+            }
+            if (space < 0 && c == ' ') {
+                space = i + 1;
+            }
+        }
+        return space > 0 ? space : end;
+    }
+
+    private static void add(List<String> sentences, String sentence) {
+        String trimmed = sentence.trim();
+        if (!trimmed.isEmpty()) {
+            sentences.add(trimmed);
+        }
+    }
+}
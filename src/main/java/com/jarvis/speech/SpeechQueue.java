@@ -0,0 +1,284 @@
+package com.jarvis.speech;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Ordered queue of speech, drained by one worker thread. A synthesizer
+ * voice cannot speak two things at once, so every response goes through here
+ * instead of its own thread. Interrupt-level items (short acknowledgements)
+ * jump the queue and cut off the answer being spoken; barge-in drops the answers
+ * but never the acknowledgements, which the microphone may pick up.
+ * The queue is bounded: when answers arrive faster than they can be spoken, the
+ * oldest waiting answer is dropped.
+ */
+public class SpeechQueue<T> implements AutoCloseable {
+    /**
+     * How urgently an item should be spoken
+     */
+    public enum Priority { INTERRUPT, NORMAL }
+
+    private final Consumer<T> speaker;
+    private final Consumer<T> stopper;
+    private final int capacity;
+
+    private final Object lock = new Object();
+    private final Deque<Item<T>> urgent = new ArrayDeque<>(); // guarded by lock
+    private final Deque<Item<T>> normal = new ArrayDeque<>(); // guarded by lock
+    private Item<T> current; // guarded by lock
+    private boolean closed = false; // guarded by lock
+    private final Thread worker;
+
+    // Back-pressure statistics, guarded by lock
+    private long submitted = 0;
+    private long spoken = 0;
+    private long dropped = 0;
+    private long interrupted = 0;
+    private int maxDepth = 0;
+    private long totalWaitNanos = 0;
+
+    /**
+     * @param speaker Speaks one item, returning when done
+     * @param stopper Cuts off the item the speaker is currently speaking
+     * @param capacity Most items waiting at once
+     */
+    public SpeechQueue(Consumer<T> speaker, Consumer<T> stopper, int capacity) {
+        this.speaker = speaker;
+        this.stopper = stopper;
+        this.capacity = Math.max(1, capacity);
+        this.worker = new Thread(this::run, "tts-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queue something to speak
+     * @return Completes with true once spoken, or false if it was dropped or cut off
+     */
+    public CompletableFuture<Boolean> submit(T speech, Priority priority) {
+        Item<T> item = new Item<>(speech, priority);
+        synchronized (lock) {
+            if (closed) {
+                item.done.complete(false);
+                return item.done;
+            }
+            submitted++;
+            if (priority == Priority.INTERRUPT) {
+                urgent.add(item);
+                if (current != null && current.priority == Priority.NORMAL) {
+                    stopCurrent();
+                }
+            } else {
+                if (urgent.size() + normal.size() >= capacity) {
+                    Item<T> oldest = normal.poll();
+                    if (oldest == null) {
+                        // Only acknowledgements are waiting; they win
+                        dropped++;
+                        item.done.complete(false);
+                        return item.done;
+                    }
+                    dropped++;
+                    oldest.done.complete(false);
+                }
+                normal.add(item);
+            }
+            maxDepth = Math.max(maxDepth, urgent.size() + normal.size());
+            lock.notifyAll();
+        }
+        return item.done;
+    }
+
+    /**
+     * The user started speaking: stop the answer being spoken and forget the
+     * answers queued. Interrupt-level items are kept, so an acknowledgement heard
+     * through the microphone does not cut itself off.
+     * @return Number of items cut off or dropped
+     */
+    public int bargeIn() {
+        synchronized (lock) {
+            int count = discard(normal);
+            if (current != null && current.priority == Priority.NORMAL) {
+                stopCurrent();
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Wait until everything queued has been spoken
+     * @return false if the timeout passed first
+     */
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (current != null || !urgent.isEmpty() || !normal.isEmpty()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Items waiting to be spoken
+     */
+    public int getDepth() {
+        synchronized (lock) {
+            return urgent.size() + normal.size();
+        }
+    }
+
+    /**
+     * Most items that were ever waiting at once
+     */
+    public int getMaxDepth() {
+        synchronized (lock) {
+            return maxDepth;
+        }
+    }
+
+    /**
+     * Items dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Items cut off or discarded by an interruption or barge-in
+     */
+    public long getInterruptedCount() {
+        synchronized (lock) {
+            return interrupted;
+        }
+    }
+
+    /**
+     * Average time an item waited before it started playing, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        synchronized (lock) {
+            long started = spoken + interrupted;
+            return started == 0 ? 0 : totalWaitNanos / 1_000_000.0 / started;
+        }
+    }
+
+    /**
+     * Queue statistics on one line
+     */
+    public String getStats() {
+        synchronized (lock) {
+            return String.format("speech queue: %d submitted, %d spoken, %d dropped, %d interrupted, "
+                    + "max depth %d, %.1f ms average wait",
+                submitted, spoken, dropped, interrupted, maxDepth, getAverageWaitMillis());
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Item<T> item;
+            synchronized (lock) {
+                while (!closed && urgent.isEmpty() && normal.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                item = urgent.isEmpty() ? normal.poll() : urgent.poll();
+                current = item;
+                totalWaitNanos += System.nanoTime() - item.enqueuedNanos;
+            }
+
+            try {
+                speaker.accept(item.speech);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️  Could not speak: " + e.getMessage());
+            }
+
+            synchronized (lock) {
+                current = null;
+                if (item.stopped) {
+                    item.done.complete(false);
+                } else {
+                    spoken++;
+                    item.done.complete(true);
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void stopCurrent() {
+        if (!current.stopped) {
+            current.stopped = true;
+            interrupted++;
+            stopper.accept(current.speech);
+        }
+    }
+
+    private int discardPending() {
+        return discard(urgent) + discard(normal);
+    }
+
+    private int discard(Deque<Item<T>> items) {
+        int count = items.size();
+        for (Item<T> item : items) {
+            item.done.complete(false);
+        }
+        items.clear();
+        interrupted += count;
+        lock.notifyAll();
+        return count;
+    }
+
+    /**
+     * Stop speaking and discard what is still queued
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            discardPending();
+            if (current != null) {
+                stopCurrent();
+            }
+            lock.notifyAll();
+        }
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One queued entry
+     */
+    private static final class Item<T> {
+        final T speech;
+        final Priority priority;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        boolean stopped = false; // guarded by the queue's lock
+
+        Item(T speech, Priority priority) {
+            this.speech = speech;
+            this.priority = priority;
+        }
+    }
+}
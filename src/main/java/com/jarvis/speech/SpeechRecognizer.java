@@ -1,6 +1,7 @@
 package com.jarvis.speech;
 
 import com.google.cloud.speech.v1.*;
+import com.google.gson.Gson;
 import com.google.protobuf.ByteString;
 import com.jarvis.config.Config;
 import org.vosk.Model;
@@ -11,6 +12,7 @@ import javax.sound.sampled.*;
 import java.io.*;
 import java.net.URL;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -20,6 +22,8 @@ import java.util.zip.ZipInputStream;
  * Supports automatic model download and fallback mechanisms
  */
 public class SpeechRecognizer {
+    private static final int SAMPLE_RATE = 16000;
+    
     private final Config config;
     private SpeechClient speechClient;
     private Model voskModel;
@@ -27,16 +31,69 @@ public class SpeechRecognizer {
     private volatile float currentAudioLevel = 0.0f;
     private volatile boolean isListening = false;
     
+    // Streaming capture with voice activity detection
+    private final boolean vadEnabled;
+    private final int frameBytes;
+    private final int preRollBytes;
+    private final int maxUtteranceSeconds;
+    private final MicrophoneService microphone;
+    
+    // Long-lived Vosk recognizers, reset between utterances
+    private RecognizerPool<Recognizer> commandRecognizers;
+    private RecognizerPool<Recognizer> wakeWordRecognizers;
+    private final long recognizerTimeoutMillis;
+    private final boolean partialsEnabled;
+    private final long partialStableMillis;
+    
     // Callback interface for real-time audio level updates
     public interface AudioLevelCallback {
         void onAudioLevel(float level);
         void onTranscript(String text);
+        
+        /**
+         * Interim transcript while the user is still speaking (Vosk only)
+         */
+        default void onPartialTranscript(String text) {}
+        
+        /**
+         * Interim transcript that has stopped changing, a good guess at the command
+         */
+        default void onStablePartial(String text) {}
+        
+        /**
+         * The user started speaking (voice activity detected), e.g. to stop talking over them
+         */
+        default void onSpeechStart() {}
+        
+        /**
+         * While true, captured audio is read and discarded instead of checked for
+         * speech, e.g. while the assistant's own acknowledgement is playing
+         */
+        default boolean isSpeechHeld() {
+            return false;
+        }
     }
     
     public SpeechRecognizer() {
         this.config = Config.getInstance();
         setupAudioFormat();
         
+        vadEnabled = Boolean.parseBoolean(config.getProperty("speech.vad.enabled", "true"));
+        // 10-30 ms frames: short enough to react quickly, long enough to measure energy
+        int frameMillis = Math.min(30, Math.max(10, Integer.parseInt(config.getProperty("speech.vad.frame.ms", "30"))));
+        frameBytes = SAMPLE_RATE / 1000 * frameMillis * audioFormat.getFrameSize();
+        int preRollMillis = Integer.parseInt(config.getProperty("speech.vad.preroll.ms", "300"));
+        preRollBytes = SAMPLE_RATE / 1000 * preRollMillis * audioFormat.getFrameSize();
+        maxUtteranceSeconds = Integer.parseInt(config.getProperty("speech.vad.max.utterance.seconds", "15"));
+        microphone = new MicrophoneService(audioFormat, frameBytes,
+            Integer.parseInt(config.getProperty("speech.capture.buffer.seconds", "2")),
+            Boolean.parseBoolean(config.getProperty("speech.capture.direct", "true")),
+            config.getProperty("speech.mic.device", ""),
+            Long.parseLong(config.getProperty("speech.mic.idle.stop.seconds", "30")) * 1000L);
+        recognizerTimeoutMillis = Long.parseLong(config.getProperty("speech.recognizer.acquire.timeout.ms", "5000"));
+        partialsEnabled = Boolean.parseBoolean(config.getProperty("speech.partial.enabled", "true"));
+        partialStableMillis = Long.parseLong(config.getProperty("speech.partial.stable.ms", "150"));
+        
         // Initialize based on offline mode setting
         if (config.isSpeechOfflineMode()) {
             System.out.println("🎤 Speech Recognition: OFFLINE mode (Vosk)");
@@ -63,6 +120,7 @@ public class SpeechRecognizer {
             
             voskModel = new Model(modelPath);
             System.out.println("✅ Vosk model loaded successfully from: " + modelPath);
+            initializeRecognizerPools();
         } catch (Exception e) {
             System.err.println("❌ Warning: Could not initialize Vosk model: " + e.getMessage());
             System.err.println("Falling back to Google Cloud Speech API if available...");
@@ -70,6 +128,23 @@ public class SpeechRecognizer {
         }
     }
     
+    /**
+     * Create the recognizer pools and, unless disabled, build one of each up
+     * front so the first utterance does not pay for it
+     */
+    private void initializeRecognizerPools() {
+        int size = Integer.parseInt(config.getProperty("speech.recognizer.pool.size", "2"));
+        commandRecognizers = new RecognizerPool<>("command", size,
+            () -> new Recognizer(voskModel, SAMPLE_RATE), Recognizer::reset);
+        // One always-on listener needs only one
+        wakeWordRecognizers = new RecognizerPool<>("wake word", 1, this::createWakeWordRecognizer, Recognizer::reset);
+        
+        if (Boolean.parseBoolean(config.getProperty("speech.recognizer.prewarm", "true"))) {
+            commandRecognizers.prewarm(1);
+            wakeWordRecognizers.prewarm(1);
+        }
+    }
+    
     /**
      * Download and extract Vosk model
      */
@@ -175,7 +250,7 @@ public class SpeechRecognizer {
     
     private void setupAudioFormat() {
         audioFormat = new AudioFormat(
-            16000.0f,  // Sample rate
+            SAMPLE_RATE,  // Sample rate
             16,        // Sample size in bits
             1,         // Channels (mono)
             true,      // Signed
@@ -184,14 +259,16 @@ public class SpeechRecognizer {
     }
     
     /**
-     * Listen for audio input and convert to text
-     * @param durationSeconds How long to listen
+     * Listen for one utterance and convert it to text
+     * @param durationSeconds How long to wait for speech to start
      * @return Recognized text
      */
     public String listen(int durationSeconds) {
         try {
-            byte[] audioData = captureAudio(durationSeconds);
-            return recognizeSpeech(audioData);
+            return recognizeUtterance(durationSeconds, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
         } catch (Exception e) {
             System.err.println("Error during speech recognition: " + e.getMessage());
             return "";
@@ -199,91 +276,352 @@ public class SpeechRecognizer {
     }
     
     /**
-     * Capture audio from microphone
+     * Open the microphone and recognize one utterance
+     * @param waitSeconds How long to wait for speech to start
      */
-    private byte[] captureAudio(int durationSeconds) throws LineUnavailableException {
-        DataLine.Info info = new DataLine.Info(TargetDataLine.class, audioFormat);
-        
-        if (!AudioSystem.isLineSupported(info)) {
-            System.err.println("Audio line not supported");
-            return new byte[0];
+    private String recognizeUtterance(int waitSeconds, AudioLevelCallback callback)
+            throws LineUnavailableException, InterruptedException {
+        if (voskModel == null && speechClient == null) {
+            System.err.println("No speech recognition engine available!");
+            return "";
         }
         
-        TargetDataLine targetLine = (TargetDataLine) AudioSystem.getLine(info);
-        targetLine.open(audioFormat);
-        targetLine.start();
-        
-        System.out.println("Listening...");
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        
-        long endTime = System.currentTimeMillis() + (durationSeconds * 1000);
+        try (MicrophoneStream mic = openMicrophone()) {
+            System.out.println("🎤 Listening...");
+            return captureUtterance(mic, waitSeconds, callback, newDetector());
+        }
+    }
+    
+    /**
+     * Stream one utterance from the microphone into the recognizer. Frames go
+     * through voice activity detection as they are captured: nothing is recognized
+     * until speech starts, and the utterance ends on trailing silence rather than
+     * after a fixed window. With VAD disabled the whole window is recognized.
+     * @param waitSeconds How long to wait for speech to start
+     * @param vad Detector to use, or null with VAD disabled
+     */
+    private String captureUtterance(MicrophoneStream mic, int waitSeconds, AudioLevelCallback callback,
+            VoiceActivityDetector vad) throws InterruptedException {
+        byte[] frame = new byte[frameBytes];
+        // Taken before speech starts, so a busy pool never delays the utterance itself
+        try (RecognizerPool<Recognizer>.Lease lease = voskModel != null
+                ? commandRecognizers.acquire(recognizerTimeoutMillis) : null) {
+            Utterance utterance = new Utterance(lease != null ? lease.get() : null, callback);
+            return captureUtterance(mic, waitSeconds, callback, vad, frame, utterance);
+        }
+    }
+    
+    private String captureUtterance(MicrophoneStream mic, int waitSeconds, AudioLevelCallback callback,
+            VoiceActivityDetector vad, byte[] frame, Utterance utterance) throws InterruptedException {
+        boolean speaking = vad == null;
+        long started = System.currentTimeMillis();
+        long deadline = started + waitSeconds * 1000L;
+        // Audio read since the last held frame; only that may be replayed as pre-roll
+        int freshBytes = Integer.MAX_VALUE;
         
-        while (System.currentTimeMillis() < endTime) {
-            int bytesRead = targetLine.read(buffer, 0, buffer.length);
-            out.write(buffer, 0, bytesRead);
+        while (mic.isOpen()) {
+            long now = System.currentTimeMillis();
+            if (now >= deadline) {
+                break;
+            }
+            if (!mic.read(frame, 100)) {
+                continue;
+            }
+            if (callback != null) {
+                float level = calculateAudioLevel(frame, frame.length);
+                currentAudioLevel = level;
+                callback.onAudioLevel(level);
+            }
+            if (vad == null) {
+                utterance.accept(frame, frame.length);
+                continue;
+            }
+            if (!speaking && callback != null && callback.isSpeechHeld()) {
+                // Neither detected nor learned as noise
+                vad.reset();
+                freshBytes = 0;
+                continue;
+            }
+            freshBytes = freshBytes == Integer.MAX_VALUE ? freshBytes : freshBytes + frame.length;
+            
+            VoiceActivityDetector.Event event = vad.accept(frame, 0, frame.length);
+            if (!speaking) {
+                if (event == VoiceActivityDetector.Event.SPEECH_START) {
+                    speaking = true;
+                    deadline = now + maxUtteranceSeconds * 1000L;
+                    if (callback != null) {
+                        callback.onSpeechStart();
+                    }
+                    // Include what was said before the detector was sure, so the first syllable is kept
+                    replayPreRoll(mic, frame, freshBytes, utterance::accept);
+                }
+            } else {
+                utterance.accept(frame, frame.length);
+                if (event == VoiceActivityDetector.Event.SPEECH_END) {
+                    break;
+                }
+            }
         }
         
-        targetLine.stop();
-        targetLine.close();
+        if (!speaking) {
+            return "";
+        }
+        System.out.println("✅ Recording complete (" + (System.currentTimeMillis() - started) + " ms)");
+        return utterance.finish();
+    }
+    
+    /**
+     * Wait for a wake word, then recognize the command that follows it. While idle
+     * only voice activity detection runs; detected speech goes to a small Vosk
+     * recognizer restricted to the wake words, and the full recognizer only gets
+     * the audio after a wake word, from the same open microphone.
+     * @param waitSeconds How long to wait for the wake word
+     * @param commandSeconds How long to wait for the command to start
+     * @param onWake Runs as soon as the wake word is heard (e.g. to acknowledge it)
+     * @return The command, empty if none followed, or null if no wake word was heard
+     * @throws LineUnavailableException If the microphone cannot be opened
+     */
+    public String listenForWakeWord(int waitSeconds, int commandSeconds, Runnable onWake)
+            throws LineUnavailableException {
+        return listenForWakeWord(waitSeconds, commandSeconds, onWake, null);
+    }
+    
+    /**
+     * Wait for a wake word, then recognize the command that follows it
+     * @param callback Receives audio levels and interim transcripts of the command (may be null)
+     * @see #listenForWakeWord(int, int, Runnable)
+     */
+    public String listenForWakeWord(int waitSeconds, int commandSeconds, Runnable onWake,
+            AudioLevelCallback callback) throws LineUnavailableException {
+        try {
+            if (voskModel == null) {
+                // Google has no grammar mode: transcribe and look for the wake word
+                String heard = listen(waitSeconds);
+                if (!containsWakeWord(heard)) {
+                    return null;
+                }
+                onWake.run();
+                String command = removeWakeWord(heard);
+                return command.isEmpty() ? listen(commandSeconds) : command;
+            }
+            
+            try (MicrophoneStream mic = openMicrophone()) {
+                // One detector for both stages, so the command starts with the noise floor
+                // learned while waiting instead of re-learning it from scratch
+                VoiceActivityDetector vad = newDetector();
+                if (!awaitWakeWord(mic, waitSeconds, vad)) {
+                    return null;
+                }
+                onWake.run();
+                if (vad != null) {
+                    vad.reset();
+                }
+                return removeWakeWord(captureUtterance(mic, commandSeconds, callback, vad));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    /**
+     * Feed speech to the wake-word recognizer until it hears a wake word
+     * @param vad Detector to use, or null with VAD disabled
+     * @return false if none was heard before the timeout
+     */
+    private boolean awaitWakeWord(MicrophoneStream mic, int waitSeconds, VoiceActivityDetector vad)
+            throws InterruptedException {
+        byte[] frame = new byte[frameBytes];
+        long deadline = System.currentTimeMillis() + waitSeconds * 1000L;
         
-        return out.toByteArray();
+        try (RecognizerPool<Recognizer>.Lease lease = wakeWordRecognizers.acquire(recognizerTimeoutMillis)) {
+            Recognizer spotter = lease.get();
+            while (mic.isOpen() && System.currentTimeMillis() < deadline) {
+                if (!mic.read(frame, 100)) {
+                    continue;
+                }
+                VoiceActivityDetector.Event event = vad == null
+                    ? VoiceActivityDetector.Event.SPEECH : vad.accept(frame, 0, frame.length);
+                if (event == VoiceActivityDetector.Event.SILENCE) {
+                    // Silence costs no decoding at all
+                    continue;
+                }
+                
+                boolean endpoint;
+                if (event == VoiceActivityDetector.Event.SPEECH_START) {
+                    boolean[] found = new boolean[1];
+                    replayPreRoll(mic, frame, Integer.MAX_VALUE,
+                        (pcm, length) -> found[0] |= spotter.acceptWaveForm(pcm, length));
+                    endpoint = found[0];
+                } else {
+                    endpoint = spotter.acceptWaveForm(frame, frame.length);
+                }
+                // Partial results let the hit land while the wake word is still being said
+                String heard = endpoint
+                    ? extractVoskField(spotter.getResult(), "text")
+                    : extractVoskField(spotter.getPartialResult(), "partial");
+                if (containsWakeWord(heard)) {
+                    return true;
+                }
+                if (event == VoiceActivityDetector.Event.SPEECH_END
+                        && containsWakeWord(extractVoskField(spotter.getFinalResult(), "text"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
     
     /**
-     * Recognize speech from audio data
-     * Uses Vosk if available and offline mode is enabled, otherwise uses Google Cloud API
+     * A detector with the configured thresholds, or null if VAD is disabled
      */
-    private String recognizeSpeech(byte[] audioData) {
-        if (audioData.length == 0) {
-            return "";
+    private VoiceActivityDetector newDetector() {
+        return vadEnabled ? VoiceActivityDetector.fromConfig(config, SAMPLE_RATE) : null;
+    }
+    
+    /**
+     * Subscribe to the shared microphone, keeping enough consumed audio to replay
+     * the pre-roll plus the current frame
+     */
+    private MicrophoneStream openMicrophone() throws LineUnavailableException {
+        return microphone.subscribe(preRollBytes + frameBytes);
+    }
+    
+    /**
+     * The long-lived microphone capture, for pausing it or switching devices
+     */
+    public MicrophoneService getMicrophone() {
+        return microphone;
+    }
+    
+    /**
+     * Receives captured audio; the array is reused, so it must not be kept
+     */
+    private interface PcmSink {
+        void accept(byte[] pcm, int length);
+    }
+    
+    /**
+     * Replay the pre-roll and the frame just read from the ring buffer, in
+     * frame-sized chunks through the given scratch array
+     * @param maxBytes Replay at most this much (audio before it was held)
+     */
+    private void replayPreRoll(MicrophoneStream mic, byte[] scratch, int maxBytes, PcmSink sink) {
+        int back = Math.min(Math.min(mic.getPreRollAvailable(), preRollBytes + frameBytes), maxBytes);
+        while (back > 0) {
+            int length = Math.min(back, scratch.length);
+            if (!mic.readBehind(back, scratch, length)) {
+                return;
+            }
+            sink.accept(scratch, length);
+            back -= length;
         }
+    }
+    
+    /**
+     * Audio of one utterance on its way to the recognizer: Vosk decodes frame by
+     * frame as they arrive, Google needs the whole clip at the end
+     */
+    private class Utterance {
+        private final Recognizer recognizer;
+        private final AudioLevelCallback callback;
+        // Collected straight into a ByteString, so the clip is not copied again for the request
+        private final ByteString.Output clip;
+        private final StringBuilder text = new StringBuilder();
         
-        // Try Vosk first if available
-        if (voskModel != null) {
-            return recognizeSpeechVosk(audioData);
+        // Interim transcript last reported, and when it last changed
+        private String partial = "";
+        private long partialSince = 0;
+        private boolean stableReported = false;
+        
+        /**
+         * @param recognizer Vosk recognizer to decode with, or null to collect the clip for Google
+         * @param callback Receives interim transcripts (may be null)
+         */
+        Utterance(Recognizer recognizer, AudioLevelCallback callback) {
+            this.recognizer = recognizer;
+            this.callback = partialsEnabled ? callback : null;
+            this.clip = recognizer == null ? ByteString.newOutput(SAMPLE_RATE * 2) : null;
         }
         
-        // Fallback to Google Cloud API
-        if (speechClient != null) {
-            return recognizeSpeechGoogle(audioData);
+        void accept(byte[] pcm, int length) {
+            if (clip != null) {
+                clip.write(pcm, 0, length);
+                return;
+            }
+            // True when Vosk finds an endpoint inside the utterance; keep that segment
+            if (recognizer.acceptWaveForm(pcm, length)) {
+                appendSegment(recognizer.getResult());
+                reportPartial("");
+            } else if (callback != null) {
+                reportPartial(extractVoskField(recognizer.getPartialResult(), "partial"));
+            }
         }
         
-        System.err.println("No speech recognition engine available!");
-        return "";
+        /**
+         * Report the words so far whenever they change, and once more when they
+         * have stayed the same for the stability window
+         */
+        private void reportPartial(String pending) {
+            if (callback == null) {
+                return;
+            }
+            String current = (text + pending).trim();
+            long now = System.currentTimeMillis();
+            if (!current.equals(partial)) {
+                partial = current;
+                partialSince = now;
+                stableReported = false;
+                if (!current.isEmpty()) {
+                    callback.onPartialTranscript(current);
+                }
+            } else if (!stableReported && !current.isEmpty() && now - partialSince >= partialStableMillis) {
+                stableReported = true;
+                callback.onStablePartial(current);
+            }
+        }
+        
+        String finish() {
+            if (clip != null) {
+                return recognizeSpeechGoogle(clip.toByteString());
+            }
+            appendSegment(recognizer.getFinalResult());
+            String result = text.toString().trim();
+            if (!result.isEmpty()) {
+                System.out.println("You said: " + result);
+            }
+            return result.toLowerCase();
+        }
+        
+        private void appendSegment(String json) {
+            String segment = extractVoskField(json, "text");
+            if (!segment.isEmpty()) {
+                text.append(segment).append(' ');
+            }
+        }
     }
     
     /**
-     * Recognize speech using Vosk (offline)
+     * Vosk recognizer restricted to the wake words, so idle listening decodes
+     * against a handful of phrases instead of the full vocabulary
      */
-    private String recognizeSpeechVosk(byte[] audioData) {
-        try (Recognizer recognizer = new Recognizer(voskModel, 16000)) {
-            recognizer.acceptWaveForm(audioData, audioData.length);
-            String result = recognizer.getFinalResult();
-            
-            // Parse JSON result
-            // Vosk returns: {"text":"hello world"}
-            String text = extractTextFromVoskResult(result);
-            
-            if (!text.isEmpty()) {
-                System.out.println("You said: " + text);
-                return text.toLowerCase();
-            }
-        } catch (Exception e) {
-            System.err.println("Error in Vosk recognition: " + e.getMessage());
+    private Recognizer createWakeWordRecognizer() throws IOException {
+        List<String> phrases = new ArrayList<>();
+        for (String wakeWord : config.getWakeWords()) {
+            phrases.add(wakeWord.toLowerCase().trim());
         }
-        
-        return "";
+        // Anything else maps to [unk] instead of being forced onto a wake word
+        phrases.add("[unk]");
+        return new Recognizer(voskModel, SAMPLE_RATE, new Gson().toJson(phrases));
     }
     
     /**
-     * Extract text from Vosk JSON result
+     * Extract a field from a Vosk JSON result
      */
-    private String extractTextFromVoskResult(String jsonResult) {
+    private String extractVoskField(String jsonResult, String field) {
         try {
-            // Simple JSON parsing for {"text":"..."}
-            int textStart = jsonResult.indexOf("\"text\"");
+            // Simple JSON parsing for {"text":"..."} and {"partial":"..."}
+            int textStart = jsonResult.indexOf("\"" + field + "\"");
             if (textStart == -1) return "";
             
             int colonIndex = jsonResult.indexOf(":", textStart);
@@ -302,10 +640,8 @@ public class SpeechRecognizer {
     /**
      * Recognize speech using Google Cloud Speech API (online)
      */
-    private String recognizeSpeechGoogle(byte[] audioData) {
+    private String recognizeSpeechGoogle(ByteString audioBytes) {
         try {
-            ByteString audioBytes = ByteString.copyFrom(audioData);
-            
             RecognitionConfig config = RecognitionConfig.newBuilder()
                 .setEncoding(RecognitionConfig.AudioEncoding.LINEAR16)
                 .setSampleRateHertz(16000)
@@ -364,7 +700,7 @@ public class SpeechRecognizer {
     
     /**
      * Listen once without wake word (push-to-talk mode)
-     * @param durationSeconds How long to listen
+     * @param durationSeconds How long to wait for speech to start
      * @return Recognized text
      */
     public String listenOnce(int durationSeconds) {
@@ -373,69 +709,29 @@ public class SpeechRecognizer {
     
     /**
      * Listen with real-time callback for audio level and transcription
-     * @param durationSeconds How long to listen
+     * @param durationSeconds How long to wait for speech to start
      * @param callback Callback for audio level updates
      * @return Final recognized text
      */
     public String listenWithCallback(int durationSeconds, AudioLevelCallback callback) {
         try {
             isListening = true;
-            byte[] audioData = captureAudioWithCallback(durationSeconds, callback);
-            String result = recognizeSpeech(audioData);
+            String result = recognizeUtterance(durationSeconds, callback);
             if (callback != null && result != null && !result.isEmpty()) {
                 callback.onTranscript(result);
             }
-            isListening = false;
             return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
         } catch (Exception e) {
-            isListening = false;
             System.err.println("Error during speech recognition: " + e.getMessage());
             return "";
+        } finally {
+            isListening = false;
         }
     }
     
-    /**
-     * Capture audio with real-time level callback
-     */
-    private byte[] captureAudioWithCallback(int durationSeconds, AudioLevelCallback callback) throws LineUnavailableException {
-        DataLine.Info info = new DataLine.Info(TargetDataLine.class, audioFormat);
-        
-        if (!AudioSystem.isLineSupported(info)) {
-            System.err.println("Audio line not supported");
-            return new byte[0];
-        }
-        
-        TargetDataLine targetLine = (TargetDataLine) AudioSystem.getLine(info);
-        targetLine.open(audioFormat);
-        targetLine.start();
-        
-        System.out.println("🎤 Listening...");
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        
-        long endTime = System.currentTimeMillis() + (durationSeconds * 1000);
-        
-        while (System.currentTimeMillis() < endTime) {
-            int bytesRead = targetLine.read(buffer, 0, buffer.length);
-            out.write(buffer, 0, bytesRead);
-            
-            // Calculate audio level
-            if (callback != null) {
-                float level = calculateAudioLevel(buffer, bytesRead);
-                currentAudioLevel = level;
-                callback.onAudioLevel(level);
-            }
-        }
-        
-        targetLine.stop();
-        targetLine.close();
-        
-        System.out.println("✅ Recording complete");
-        
-        return out.toByteArray();
-    }
-    
     /**
      * Calculate audio level from buffer (0.0 to 1.0)
      */
@@ -494,29 +790,23 @@ public class SpeechRecognizer {
                 System.out.println("  " + (i+1) + ". " + mixers[i].getName());
             }
             
-            // Try to open and test the line
-            TargetDataLine line = (TargetDataLine) AudioSystem.getLine(info);
-            line.open(audioFormat);
-            line.start();
-            
-            System.out.println("\n🎤 Recording test (2 seconds)...");
-            System.out.println("Please make some noise...");
-            
-            byte[] buffer = new byte[4096];
+            // Record from the shared line, which then stays open for listening
             long totalBytes = 0;
             float maxLevel = 0.0f;
-            long endTime = System.currentTimeMillis() + 2000;
-            
-            while (System.currentTimeMillis() < endTime) {
-                int bytesRead = line.read(buffer, 0, buffer.length);
-                totalBytes += bytesRead;
-                float level = calculateAudioLevel(buffer, bytesRead);
-                maxLevel = Math.max(maxLevel, level);
+            try (MicrophoneStream mic = openMicrophone()) {
+                System.out.println("\n🎤 Recording test (2 seconds) on " + microphone.getActiveDevice() + "...");
+                System.out.println("Please make some noise...");
+                
+                byte[] frame = new byte[frameBytes];
+                long endTime = System.currentTimeMillis() + 2000;
+                while (System.currentTimeMillis() < endTime && mic.isOpen()) {
+                    if (mic.read(frame, 100)) {
+                        totalBytes += frame.length;
+                        maxLevel = Math.max(maxLevel, calculateAudioLevel(frame, frame.length));
+                    }
+                }
             }
             
-            line.stop();
-            line.close();
-            
             System.out.println("\n📊 Test Results:");
             System.out.println("   Total bytes captured: " + totalBytes);
             System.out.println("   Max audio level: " + String.format("%.2f%%", maxLevel * 100));
@@ -547,9 +837,16 @@ public class SpeechRecognizer {
      */
     public void shutdown() {
         isListening = false;
+        microphone.close();
         if (speechClient != null) {
             speechClient.close();
         }
+        if (commandRecognizers != null) {
+            System.out.println("🎙️ " + commandRecognizers.getStats());
+            System.out.println("🎙️ " + wakeWordRecognizers.getStats());
+            commandRecognizers.close();
+            wakeWordRecognizers.close();
+        }
         if (voskModel != null) {
             voskModel.close();
         }
@@ -4,16 +4,51 @@ import com.jarvis.config.Config;
 import com.sun.speech.freetts.Voice;
 import com.sun.speech.freetts.VoiceManager;
 
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 /**
- * Text-to-Speech engine using FreeTTS
+ * Text-to-Speech engine using FreeTTS. Everything is spoken in order by the
+ * single worker of a {@link SpeechQueue}, never by two threads on one voice.
+ *
+ * Responses are split into sentences. Each sentence is synthesized to memory on
+ * a dedicated thread as soon as it is known and played through a long-lived
+ * output line, so sentence N+1 is synthesized while sentence N plays, and a
+ * streamed answer starts playing after its first sentence instead of its last.
+ * Fixed phrases registered with {@link #preload} are rendered once and replayed
+ * from a {@link PhraseCache}.
  */
 public class TextToSpeech {
+    private static final CompletableFuture<PcmClip> END = CompletableFuture.completedFuture(null);
+    
     private Voice voice;
     private final Config config;
+    private final SpeechQueue<Speech> queue;
+    private final CapturingAudioPlayer capture = new CapturingAudioPlayer();
+    private final AudioOutput output = new AudioOutput();
+    private final PhraseCache phrases;
+    // The voice is only used from this thread once initialized
+    private final ExecutorService synthesizer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "tts-synth");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     public TextToSpeech() {
         this.config = Config.getInstance();
         initializeVoice();
+        String cacheDir = config.getProperty("tts.phrase.cache.dir", "").trim();
+        this.phrases = new PhraseCache(cacheDir.isEmpty() ? null : Paths.get(cacheDir), voiceKey());
+        int capacity = Integer.parseInt(config.getProperty("tts.queue.capacity", "8"));
+        this.queue = new SpeechQueue<>(this::play, this::stop, capacity);
     }
     
     private void initializeVoice() {
@@ -29,6 +64,7 @@ public class TextToSpeech {
         }
         
         if (voice != null) {
+            voice.setAudioPlayer(capture);
             voice.allocate();
             voice.setRate(config.getSpeechRate());
             voice.setVolume(config.getSpeechVolume());
@@ -38,15 +74,48 @@ public class TextToSpeech {
     }
     
     /**
-     * Speak the given text
+     * Queue the given text behind anything already being said
      * @param text Text to speak
+     * @return Completes with true once spoken, or false if it was dropped or cut off
+     */
+    public CompletableFuture<Boolean> speak(String text) {
+        return speak(text, SpeechQueue.Priority.NORMAL);
+    }
+    
+    /**
+     * Speak the given text; INTERRUPT cuts off the answer being spoken and goes first
+     * @param text Text to speak
+     * @param priority How urgently to speak it
+     */
+    public CompletableFuture<Boolean> speak(String text, SpeechQueue.Priority priority) {
+        if (voice == null || text == null || text.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        System.out.println("I.R.I.S: " + text);
+        Speech speech = new Speech();
+        sentences(text).forEach(speech::add);
+        speech.end();
+        return submit(speech, priority);
+    }
+    
+    /**
+     * Render fixed phrases (acknowledgements, greetings, canned errors) in the
+     * background, so they play without waiting for synthesis when spoken
      */
-    public void speak(String text) {
-        if (voice != null && text != null && !text.isEmpty()) {
-            System.out.println("I.R.I.S: " + text);
-            new Thread(() -> {
-                voice.speak(text);
-            }).start();
+    public void preload(String... texts) {
+        if (voice == null) {
+            return;
+        }
+        for (String text : texts) {
+            for (String sentence : sentences(text)) {
+                phrases.register(sentence);
+                synthesizer.execute(() -> {
+                    if (phrases.peek(sentence) == null) {
+                        voice.speak(sentence);
+                        phrases.put(sentence, capture.take());
+                    }
+                });
+            }
         }
     }
     
@@ -55,19 +124,163 @@ public class TextToSpeech {
      * @param text Text to speak
      */
     public void speakSync(String text) {
-        if (voice != null && text != null && !text.isEmpty()) {
-            System.out.println("I.R.I.S: " + text);
-            voice.speak(text);
+        speak(text).join();
+    }
+    
+    /**
+     * Speak a response while it is still being generated: pass text to the
+     * returned stream as it arrives and close it at the end. Each sentence starts
+     * synthesizing as soon as it is complete. However slowly the answer is
+     * generated, the stream keeps its turn in the queue until it is closed or
+     * cut off, so it must always be closed.
+     * @param maxChars Stop after about this many characters (0 for no limit)
+     */
+    public SpeechStream streamSpeech(int maxChars) {
+        Speech speech = new Speech();
+        if (voice == null) {
+            speech.cancel();
+        } else {
+            submit(speech, SpeechQueue.Priority.NORMAL);
+        }
+        return new SpeechStream(speech, maxChars);
+    }
+    
+    /**
+     * Strip what should not be read aloud (emoji, separator lines, extra whitespace)
+     */
+    public static String cleanForSpeech(String text) {
+        return text
+            .replaceAll("[\\p{So}\\p{Cn}]", "") // Remove emojis and symbols
+            .replaceAll("\\n+", ". ")           // Replace newlines with periods
+            .replaceAll("\\s+", " ")            // Normalize whitespace
+            .replaceAll("[=\\-_]{3,}", "")      // Remove separator lines
+            .trim();
+    }
+    
+    /**
+     * Stop the answer being spoken and drop the answers queued, e.g. because the
+     * user started speaking; interrupt-level acknowledgements finish
+     */
+    public void bargeIn() {
+        int stopped = queue.bargeIn();
+        if (stopped > 0) {
+            System.out.println("🔇 Stopped speaking (" + stopped + " interrupted)");
+        }
+    }
+    
+    /**
+     * Whether anything is being said or waiting to be said
+     */
+    public boolean isSpeaking() {
+        try {
+            return !queue.awaitIdle(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
         }
     }
     
+    /**
+     * The speech queue, for its statistics
+     */
+    public SpeechQueue<?> getQueue() {
+        return queue;
+    }
+    
+    private static List<String> sentences(String text) {
+        SentenceSplitter splitter = new SentenceSplitter();
+        List<String> sentences = splitter.append(text);
+        String rest = splitter.flush();
+        if (rest != null) {
+            sentences.add(rest);
+        }
+        return sentences;
+    }
+    
+    private CompletableFuture<Boolean> submit(Speech speech, SpeechQueue.Priority priority) {
+        CompletableFuture<Boolean> done = queue.submit(speech, priority);
+        // A dropped or cut off response stops synthesizing its remaining sentences
+        done.thenRun(speech::cancel);
+        return done;
+    }
+    
+    /**
+     * Synthesize one sentence to memory on the synthesis thread, unless it is a cached phrase
+     */
+    private CompletableFuture<PcmClip> render(String sentence, Speech speech) {
+        PcmClip cached = phrases.get(sentence);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<PcmClip> clip = new CompletableFuture<>();
+        synthesizer.execute(() -> {
+            if (speech.cancelled) {
+                clip.complete(null);
+                return;
+            }
+            // A phrase may have been rendered by preload while this waited
+            PcmClip rendered = phrases.peek(sentence);
+            if (rendered != null) {
+                clip.complete(rendered);
+                return;
+            }
+            try {
+                voice.speak(sentence);
+                rendered = capture.take();
+                phrases.put(sentence, rendered);
+                clip.complete(rendered);
+            } catch (RuntimeException e) {
+                capture.take();
+                clip.completeExceptionally(e);
+            }
+        });
+        return clip;
+    }
+    
+    /**
+     * Queue worker: play a response's sentences in order as they are synthesized
+     */
+    private void play(Speech speech) {
+        try {
+            while (!speech.cancelled) {
+                // A streamed answer may take a minute to produce its next sentence
+                CompletableFuture<PcmClip> next = speech.clips.take();
+                if (next == END) {
+                    break;
+                }
+                PcmClip clip = next.join();
+                if (clip != null) {
+                    output.play(clip, () -> speech.cancelled);
+                }
+            }
+            if (!speech.cancelled) {
+                output.drain();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CompletionException e) {
+            System.err.println("⚠️  Could not synthesize speech: " + e.getCause().getMessage());
+        }
+    }
+    
+    /**
+     * Cut off a response: no more of it is synthesized, and what was sent to the speaker is discarded
+     */
+    private void stop(Speech speech) {
+        speech.cancel();
+        output.stop();
+    }
+    
     /**
      * Set speech rate
      * @param rate Words per minute
      */
     public void setRate(int rate) {
         if (voice != null) {
-            voice.setRate(rate);
+            synthesizer.execute(() -> {
+                voice.setRate(rate);
+                phrases.setVoiceKey(voiceKey());
+            });
         }
     }
     
@@ -77,7 +290,11 @@ public class TextToSpeech {
      */
     public void setVolume(float volume) {
         if (voice != null) {
-            voice.setVolume(volume);
+            // FreeTTS hands the voice's volume to the audio player for every utterance
+            synthesizer.execute(() -> {
+                voice.setVolume(volume);
+                phrases.setVoiceKey(voiceKey());
+            });
         }
     }
     
@@ -85,8 +302,120 @@ public class TextToSpeech {
      * Clean up resources
      */
     public void shutdown() {
+        // Let a farewell finish, but do not hang on a long answer
+        try {
+            queue.awaitIdle(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.close();
+        System.out.println("📊 " + queue.getStats());
+        System.out.println("📊 " + phrases.getStats());
+        synthesizer.shutdown();
+        try {
+            synthesizer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        output.close();
         if (voice != null) {
             voice.deallocate();
         }
     }
+    
+    /**
+     * What cached phrase audio depends on
+     */
+    private String voiceKey() {
+        return voice == null ? "none" : voice.getName() + "-" + voice.getRate() + "-" + voice.getVolume();
+    }
+    
+    /**
+     * One response: its sentences are synthesized as they arrive and played in order
+     */
+    private final class Speech {
+        final BlockingQueue<CompletableFuture<PcmClip>> clips = new LinkedBlockingQueue<>();
+        volatile boolean cancelled = false;
+        
+        /**
+         * @return false if the response was already cut off or dropped
+         */
+        boolean add(String sentence) {
+            if (cancelled) {
+                return false;
+            }
+            clips.add(render(sentence, this));
+            return true;
+        }
+        
+        void end() {
+            clips.add(END);
+        }
+        
+        void cancel() {
+            cancelled = true;
+            clips.add(END);
+        }
+    }
+    
+    /**
+     * Text of a response as it is generated; see {@link #streamSpeech(int)}
+     */
+    public static final class SpeechStream implements Consumer<String>, AutoCloseable {
+        private final Speech speech;
+        private final SentenceSplitter splitter = new SentenceSplitter();
+        private final int maxChars;
+        private int spokenChars = 0;
+        private boolean full = false;
+        
+        private SpeechStream(Speech speech, int maxChars) {
+            this.speech = speech;
+            this.maxChars = maxChars;
+        }
+        
+        /**
+         * Add the next piece of the response
+         */
+        @Override
+        public void accept(String text) {
+            if (text != null) {
+                splitter.append(text).forEach(this::say);
+            }
+        }
+        
+        /**
+         * Whether any of the response was accepted to be spoken, i.e. it was not
+         * dropped or cut off before its first sentence
+         */
+        public boolean hasSpoken() {
+            return spokenChars > 0;
+        }
+        
+        private void say(String sentence) {
+            String clean = cleanForSpeech(sentence);
+            if (full || clean.isEmpty()) {
+                return;
+            }
+            if (maxChars > 0 && spokenChars > 0 && spokenChars + clean.length() > maxChars) {
+                // Long answers are only read out in part; the rest is on screen
+                full = true;
+                return;
+            }
+            if (speech.add(clean)) {
+                spokenChars += clean.length();
+            }
+        }
+        
+        /**
+         * The response is complete
+         */
+        @Override
+        public void close() {
+            String rest = splitter.flush();
+            if (rest != null) {
+                say(rest);
+            }
+            speech.end();
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.jarvis.speech;
+
+import com.jarvis.config.Config;
+
+/**
+ * Energy and zero-crossing voice activity detection over short PCM frames
+ * (16-bit signed little-endian mono). A frame counts as speech when it is well
+ * above the adaptive noise floor, or moderately above it with a high zero-crossing
+ * rate (unvoiced consonants such as "s" and "f" are quiet but noisy). An
+ * utterance starts after a short run of speech frames and ends after a run of
+ * trailing silence.
+ */
+public class VoiceActivityDetector {
+    // Speech must be this many times louder than the background noise
+    private static final double NOISE_RATIO = 3.0;
+    // Unvoiced consonants: at least half the threshold with this zero-crossing rate
+    private static final double UNVOICED_ZCR = 0.25;
+    // The noise floor follows quieter frames quickly and louder ones very slowly,
+    // so a steady hum is learned within seconds but speech barely moves it
+    private static final double NOISE_ALPHA = 0.05;
+    private static final double NOISE_FALL_ALPHA = 0.2;
+    private static final double NOISE_RISE_ALPHA = 0.001;
+
+    /**
+     * What a frame meant for the current utterance
+     */
+    public enum Event { SILENCE, SPEECH_START, SPEECH, SPEECH_END }
+
+    private final int sampleRate;
+    private final double minEnergy;
+    private final int startMillis;
+    private final int endMillis;
+
+    private double noiseFloor;
+    private boolean inSpeech = false;
+    private int speechRunMillis = 0;
+    private int silenceRunMillis = 0;
+
+    /**
+     * @param sampleRate Samples per second of the frames
+     * @param minEnergy RMS level (0-1) below which a frame is never speech
+     * @param startMillis Speech needed before an utterance starts (filters clicks)
+     * @param endMillis Trailing silence that ends an utterance
+     */
+    public VoiceActivityDetector(int sampleRate, double minEnergy, int startMillis, int endMillis) {
+        this.sampleRate = sampleRate;
+        this.minEnergy = minEnergy;
+        this.startMillis = Math.max(0, startMillis);
+        this.endMillis = Math.max(1, endMillis);
+        this.noiseFloor = minEnergy / NOISE_RATIO;
+    }
+
+    /**
+     * Build a detector from the speech.vad.* settings in config.properties
+     */
+    public static VoiceActivityDetector fromConfig(Config config, int sampleRate) {
+        double energy = Double.parseDouble(config.getProperty("speech.vad.energy.threshold", "0.01"));
+        int start = Integer.parseInt(config.getProperty("speech.vad.start.ms", "90"));
+        int end = Integer.parseInt(config.getProperty("speech.vad.end.silence.ms", "300"));
+        return new VoiceActivityDetector(sampleRate, energy, start, end);
+    }
+
+    /**
+     * Classify the next frame
+     */
+    public Event accept(byte[] pcm, int offset, int length) {
+        int samples = length / 2;
+        if (samples == 0) {
+            return inSpeech ? Event.SPEECH : Event.SILENCE;
+        }
+        int frameMillis = Math.max(1, samples * 1000 / sampleRate);
+        double energy = rms(pcm, offset, length);
+        double threshold = Math.max(minEnergy, noiseFloor * NOISE_RATIO);
+        boolean speech = energy >= threshold
+            || (energy >= threshold / 2 && zeroCrossingRate(pcm, offset, length) >= UNVOICED_ZCR);
+        double alpha = energy < noiseFloor ? NOISE_FALL_ALPHA : speech ? NOISE_RISE_ALPHA : NOISE_ALPHA;
+        noiseFloor += alpha * (energy - noiseFloor);
+
+        if (!inSpeech) {
+            if (!speech) {
+                speechRunMillis = 0;
+                return Event.SILENCE;
+            }
+            speechRunMillis += frameMillis;
+            if (speechRunMillis < startMillis) {
+                return Event.SILENCE;
+            }
+            inSpeech = true;
+            silenceRunMillis = 0;
+            return Event.SPEECH_START;
+        }
+
+        silenceRunMillis = speech ? 0 : silenceRunMillis + frameMillis;
+        if (silenceRunMillis >= endMillis) {
+            inSpeech = false;
+            speechRunMillis = 0;
+            return Event.SPEECH_END;
+        }
+        return Event.SPEECH;
+    }
+
+    /**
+     * Whether an utterance is in progress
+     */
+    public boolean isSpeech() {
+        return inSpeech;
+    }
+
+    /**
+     * Current estimate of the background noise level (RMS, 0-1)
+     */
+    public double getNoiseFloor() {
+        return noiseFloor;
+    }
+
+    /**
+     * Forget the current utterance but keep the learned noise floor
+     */
+    public void reset() {
+        inSpeech = false;
+        speechRunMillis = 0;
+        silenceRunMillis = 0;
+    }
+
+    /**
+     * Root mean square level of a frame (0-1)
+     */
+    static double rms(byte[] pcm, int offset, int length) {
+        int samples = length / 2;
+        if (samples == 0) return 0;
+        double sum = 0;
+        for (int i = offset; i < offset + samples * 2; i += 2) {
+            double sample = sample(pcm, i) / 32768.0;
+            sum += sample * sample;
+        }
+        return Math.sqrt(sum / samples);
+    }
+
+    /**
+     * Fraction of adjacent samples whose sign differs (0-1)
+     */
+    static double zeroCrossingRate(byte[] pcm, int offset, int length) {
+        int samples = length / 2;
+        if (samples < 2) return 0;
+        int crossings = 0;
+        boolean previous = sample(pcm, offset) >= 0;
+        for (int i = offset + 2; i < offset + samples * 2; i += 2) {
+            boolean current = sample(pcm, i) >= 0;
+            if (current != previous) {
+                crossings++;
+            }
+            previous = current;
+        }
+        return (double) crossings / (samples - 1);
+    }
+
+    private static int sample(byte[] pcm, int i) {
+        return (pcm[i + 1] << 8) | (pcm[i] & 0xFF);
+    }
+}
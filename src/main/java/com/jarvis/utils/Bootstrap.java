@@ -0,0 +1,180 @@
+package com.jarvis.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Startup graph: each component is a stage that declares the stages it depends
+ * on. Once started, every stage runs on a fork-join pool as soon as its
+ * dependencies are done, so independent components (the TTS voice, the speech
+ * model, the network probe) initialise concurrently. A timing report per stage
+ * shows where startup time goes.
+ */
+public class Bootstrap {
+    private final String name;
+    private ForkJoinPool pool; // created at start() unless supplied
+    private final List<Stage<?>> stages = new ArrayList<>();
+    private volatile long startNanos = -1;
+    private CompletableFuture<Void> done;
+
+    /**
+     * @param name Shown in the timing report
+     */
+    public Bootstrap(String name) {
+        this(name, null);
+    }
+
+    Bootstrap(String name, ForkJoinPool pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    /**
+     * Declare a component
+     * @param stageName Name shown in the timing report
+     * @param init Creates the component; runs once all dependencies are done
+     * @param dependsOn Stages that must finish first
+     */
+    public synchronized <T> Stage<T> stage(String stageName, Supplier<T> init, Stage<?>... dependsOn) {
+        if (startNanos >= 0) {
+            throw new IllegalStateException("Stages must be declared before start()");
+        }
+        Stage<T> stage = new Stage<>(stageName, init, dependsOn);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Start every stage whose dependencies allow it; returns immediately
+     * @return Completes when every stage has finished, successfully or not
+     */
+    public synchronized CompletableFuture<Void> start() {
+        if (done != null) {
+            return done;
+        }
+        if (pool == null) {
+            // Stages mostly block on I/O (model files, pings), so give each its own worker
+            pool = new ForkJoinPool(Math.max(stages.size(), Runtime.getRuntime().availableProcessors()));
+        }
+        startNanos = System.nanoTime();
+        // Stages can only depend on earlier ones, so this order is topological
+        for (Stage<?> stage : stages) {
+            stage.launch();
+        }
+        CompletableFuture<?>[] all = new CompletableFuture<?>[stages.size()];
+        for (int i = 0; i < all.length; i++) {
+            // Failures are reported per stage; the overall future only tracks completion
+            all[i] = stages.get(i).future.handle((value, error) -> null);
+        }
+        done = CompletableFuture.allOf(all);
+        ForkJoinPool workers = pool;
+        done.whenComplete((ignored, error) -> workers.shutdown());
+        return done;
+    }
+
+    /**
+     * Start (if needed) and wait for the given stages only; the rest keep running
+     */
+    public void await(Stage<?>... required) {
+        start();
+        for (Stage<?> stage : required) {
+            stage.future.handle((value, error) -> null).join();
+        }
+    }
+
+    /**
+     * Per-stage start offset, duration and outcome
+     */
+    public synchronized String getReport() {
+        StringBuilder sb = new StringBuilder();
+        long end = startNanos;
+        for (Stage<?> stage : stages) {
+            end = Math.max(end, stage.endNanos);
+        }
+        sb.append(String.format("⏱️ %s startup: %d ms%n", name, Math.max(0, toMillis(end - startNanos))));
+        for (Stage<?> stage : stages) {
+            sb.append(String.format("   %-12s %s%n", stage.name, stage.describe()));
+        }
+        return sb.toString().trim();
+    }
+
+    private long toMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    /**
+     * One component of the startup graph
+     */
+    public final class Stage<T> {
+        private final String name;
+        private final Supplier<T> init;
+        private final Stage<?>[] dependsOn;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile long beginNanos = -1;
+        private volatile long endNanos = -1;
+
+        private Stage(String name, Supplier<T> init, Stage<?>[] dependsOn) {
+            this.name = name;
+            this.init = init;
+            this.dependsOn = dependsOn.clone();
+        }
+
+        private void launch() {
+            CompletableFuture<?>[] deps = new CompletableFuture<?>[dependsOn.length];
+            for (int i = 0; i < deps.length; i++) {
+                deps[i] = dependsOn[i].future;
+            }
+            CompletableFuture.allOf(deps).whenCompleteAsync((ignored, depError) -> {
+                beginNanos = System.nanoTime();
+                try {
+                    if (depError != null) {
+                        throw depError instanceof CompletionException ? (CompletionException) depError
+                            : new CompletionException(depError);
+                    }
+                    T value = init.get();
+                    endNanos = System.nanoTime();
+                    future.complete(value);
+                } catch (Throwable e) {
+                    endNanos = System.nanoTime();
+                    future.completeExceptionally(e);
+                }
+            }, pool);
+        }
+
+        /**
+         * The component once initialised; fails if it or a dependency failed
+         */
+        public CompletableFuture<T> future() {
+            return future;
+        }
+
+        /**
+         * Wait for the component
+         */
+        public T get() {
+            return future.join();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private String describe() {
+            if (endNanos < 0) {
+                return beginNanos < 0 ? "waiting" : "running";
+            }
+            String outcome = "";
+            if (future.isCompletedExceptionally()) {
+                Throwable error = future.handle((value, e) -> e).join();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                outcome = "  ❌ " + cause;
+            }
+            return String.format("%6d ms → %6d ms  (%d ms)%s", toMillis(beginNanos - startNanos),
+                toMillis(endNanos - startNanos), toMillis(endNanos - beginNanos), outcome);
+        }
+    }
+}
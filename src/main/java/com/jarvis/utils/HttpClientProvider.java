@@ -0,0 +1,114 @@
+package com.jarvis.utils;
+
+import com.jarvis.config.Config;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide HTTP transport shared by the AI backends, services and analyzers.
+ * All profiles are derived from one base client, so they share a single connection
+ * pool (keeping TLS sessions to the LLM APIs warm) and a single dispatcher thread pool.
+ */
+public class HttpClientProvider {
+    private static HttpClientProvider instance;
+
+    // Timeout profiles (in seconds)
+    private static final int CONNECT_TIMEOUT = 15;
+    private static final int READ_TIMEOUT_ONLINE = 30;
+    private static final int READ_TIMEOUT_OLLAMA = 120; // Ollama can be slow
+    private static final int READ_TIMEOUT_SERVICE = 10;
+    private static final int READ_TIMEOUT_PROBE = 5;
+
+    private final OkHttpClient baseClient;
+    private final OkHttpClient onlineAIClient;
+    private final OkHttpClient ollamaClient;
+    private final OkHttpClient serviceClient;
+    private final OkHttpClient probeClient;
+
+    private HttpClientProvider() {
+        Config config = Config.getInstance();
+
+        int maxIdle = Integer.parseInt(config.getProperty("http.pool.max.idle", "8"));
+        int keepAlive = Integer.parseInt(config.getProperty("http.pool.keepalive.seconds", "300"));
+        int maxRequests = Integer.parseInt(config.getProperty("http.max.requests", "32"));
+        int maxPerHost = Integer.parseInt(config.getProperty("http.max.requests.per.host", "4"));
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxPerHost);
+
+        this.baseClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(maxIdle, keepAlive, TimeUnit.SECONDS))
+            .dispatcher(dispatcher)
+            // HTTP/2 is negotiated via ALPN where the server supports it
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
+            .writeTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
+            .readTimeout(READ_TIMEOUT_ONLINE, TimeUnit.SECONDS)
+            .retryOnConnectionFailure(true)
+            .build();
+
+        // newBuilder() keeps the pool and dispatcher, only the timeouts differ
+        this.onlineAIClient = baseClient;
+        this.ollamaClient = baseClient.newBuilder()
+            .readTimeout(READ_TIMEOUT_OLLAMA, TimeUnit.SECONDS)
+            .build();
+        this.serviceClient = baseClient.newBuilder()
+            .readTimeout(READ_TIMEOUT_SERVICE, TimeUnit.SECONDS)
+            .build();
+        this.probeClient = baseClient.newBuilder()
+            .connectTimeout(READ_TIMEOUT_PROBE, TimeUnit.SECONDS)
+            .readTimeout(READ_TIMEOUT_PROBE, TimeUnit.SECONDS)
+            .followRedirects(false)
+            .followSslRedirects(false)
+            .build();
+    }
+
+    public static synchronized HttpClientProvider getInstance() {
+        if (instance == null) {
+            instance = new HttpClientProvider();
+        }
+        return instance;
+    }
+
+    /**
+     * Client for online LLM APIs (Gemini, Grok)
+     */
+    public OkHttpClient getOnlineAIClient() {
+        return onlineAIClient;
+    }
+
+    /**
+     * Client for the local Ollama server, with a long read timeout for large models
+     */
+    public OkHttpClient getOllamaClient() {
+        return ollamaClient;
+    }
+
+    /**
+     * Client for small REST services such as the weather API
+     */
+    public OkHttpClient getServiceClient() {
+        return serviceClient;
+    }
+
+    /**
+     * Client for short security probes; redirects are not followed automatically
+     */
+    public OkHttpClient getProbeClient() {
+        return probeClient;
+    }
+
+    /**
+     * Release pooled connections and stop idle dispatcher threads
+     */
+    public void shutdown() {
+        baseClient.dispatcher().executorService().shutdown();
+        baseClient.connectionPool().evictAll();
+    }
+}
@@ -0,0 +1,296 @@
+package com.jarvis.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Routes an utterance to an intent by trigger phrases. All phrases are compiled
+ * once into an Aho-Corasick automaton, so an utterance is scanned in a single pass
+ * however many phrases are registered. Phrases only match whole words ("time"
+ * does not match inside "runtime"); a trailing '*' matches any word starting with
+ * the phrase ("hack*" also matches "hacking"). When several intents match, the
+ * highest priority wins, and among equal priorities the one registered first.
+ */
+public final class IntentRouter<T> {
+    private static final int ROOT = 0;
+
+    // Automaton: sorted transition labels and targets per state, failure links,
+    // and the phrases ending at each state (including those reached via failure links)
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    private final Phrase[] phrases;
+    private final Rule<T>[] rules;
+
+    private IntentRouter(Builder<T> builder) {
+        this.phrases = builder.phrases.toArray(new Phrase[0]);
+        @SuppressWarnings({"unchecked", "rawtypes"}) // generic arrays cannot be created directly
+        Rule<T>[] ruleArray = builder.rules.toArray(new Rule[0]);
+        this.rules = ruleArray;
+
+        // Trie of all phrases
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int id = 0; id < phrases.length; id++) {
+            int state = ROOT;
+            for (char c : phrases[id].text.toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.get(state).add(id);
+        }
+
+        int stateCount = trie.size();
+        labels = new char[stateCount][];
+        targets = new int[stateCount][];
+        failure = new int[stateCount];
+        outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            labels[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i++] = edge.getValue();
+            }
+        }
+
+        // Failure links breadth first, so a state's link is resolved before its children's
+        Queue<Integer> queue = new ArrayDeque<>();
+        outputs[ROOT] = new int[0];
+        for (int child : targets[ROOT]) {
+            failure[child] = ROOT;
+            outputs[child] = toArray(ends.get(child));
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int fallback = failure[state];
+                while (fallback != ROOT && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int link = next(fallback, c);
+                failure[child] = link >= 0 ? link : ROOT;
+
+                int[] own = toArray(ends.get(child));
+                int[] inherited = outputs[failure[child]];
+                outputs[child] = Arrays.copyOf(own, own.length + inherited.length);
+                System.arraycopy(inherited, 0, outputs[child], own.length, inherited.length);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Start building a router
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Find the intent for an utterance
+     * @return The highest priority matching intent, or null if none matches
+     */
+    public T route(String text) {
+        int best = -1;
+        int[] matched = scan(text);
+        for (int r = 0; r < rules.length; r++) {
+            if (matched[r] == rules[r].allGroups && (best < 0 || rules[r].priority > rules[best].priority)) {
+                best = r;
+            }
+        }
+        return best >= 0 ? rules[best].intent : null;
+    }
+
+    /**
+     * All intents matching an utterance, best first
+     */
+    public List<T> matches(String text) {
+        int[] matched = scan(text);
+        List<Rule<T>> hits = new ArrayList<>();
+        for (int r = 0; r < rules.length; r++) {
+            if (matched[r] == rules[r].allGroups) {
+                hits.add(rules[r]);
+            }
+        }
+        hits.sort(Comparator.comparingInt((Rule<T> rule) -> -rule.priority).thenComparingInt(rule -> rule.order));
+
+        List<T> intents = new ArrayList<>();
+        for (Rule<T> rule : hits) {
+            if (!intents.contains(rule.intent)) {
+                intents.add(rule.intent);
+            }
+        }
+        return intents;
+    }
+
+    /**
+     * Number of registered trigger phrases
+     */
+    public int getPhraseCount() {
+        return phrases.length;
+    }
+
+    /**
+     * Single pass over the text
+     * @return Per rule, a bit for each of its phrase groups that matched
+     */
+    private int[] scan(String text) {
+        int[] matched = new int[rules.length];
+        if (text == null) {
+            return matched;
+        }
+
+        int state = ROOT;
+        for (int end = 0; end < text.length(); end++) {
+            char c = Character.toLowerCase(text.charAt(end));
+            int next;
+            while ((next = next(state, c)) < 0 && state != ROOT) {
+                state = failure[state];
+            }
+            state = next >= 0 ? next : ROOT;
+
+            for (int id : outputs[state]) {
+                Phrase phrase = phrases[id];
+                if (isWholeMatch(text, phrase, end)) {
+                    matched[phrase.rule] |= 1 << phrase.group;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private int next(int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    private static boolean isWholeMatch(String text, Phrase phrase, int end) {
+        int start = end - phrase.text.length() + 1;
+        boolean startsWord = start == 0 || !isWordChar(phrase.text.charAt(0)) || !isWordChar(text.charAt(start - 1));
+        boolean endsWord = phrase.prefix || end == text.length() - 1
+            || !isWordChar(phrase.text.charAt(phrase.text.length() - 1)) || !isWordChar(text.charAt(end + 1));
+        return startsWord && endsWord;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Registers trigger phrases and compiles them into a router
+     */
+    public static final class Builder<T> {
+        private static final int MAX_GROUPS = 31;
+
+        private final List<Phrase> phrases = new ArrayList<>();
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Route to an intent when any of the phrases occurs
+         */
+        public Builder<T> add(T intent, int priority, String... phrases) {
+            return addAll(intent, priority, phrases);
+        }
+
+        /**
+         * Route to an intent only when a phrase from every group occurs, in any order
+         * (e.g. {"run"} and {"terminal"})
+         */
+        public Builder<T> addAll(T intent, int priority, String[]... groups) {
+            if (intent == null || groups.length == 0 || groups.length > MAX_GROUPS) {
+                throw new IllegalArgumentException("An intent needs between 1 and " + MAX_GROUPS + " phrase groups");
+            }
+            int rule = rules.size();
+            for (int group = 0; group < groups.length; group++) {
+                for (String phrase : groups[group]) {
+                    this.phrases.add(Phrase.parse(phrase, rule, group));
+                }
+            }
+            rules.add(new Rule<>(intent, priority, rule, (1 << groups.length) - 1));
+            return this;
+        }
+
+        public IntentRouter<T> build() {
+            return new IntentRouter<>(this);
+        }
+    }
+
+    /**
+     * One trigger phrase and the rule group it belongs to
+     */
+    private static final class Phrase {
+        final String text;
+        final boolean prefix;
+        final int rule;
+        final int group;
+
+        private Phrase(String text, boolean prefix, int rule, int group) {
+            this.text = text;
+            this.prefix = prefix;
+            this.rule = rule;
+            this.group = group;
+        }
+
+        static Phrase parse(String phrase, int rule, int group) {
+            String text = phrase.toLowerCase();
+            boolean prefix = text.endsWith("*");
+            if (prefix) {
+                text = text.substring(0, text.length() - 1);
+            }
+            if (text.isEmpty()) {
+                throw new IllegalArgumentException("Empty trigger phrase");
+            }
+            return new Phrase(text, prefix, rule, group);
+        }
+    }
+
+    /**
+     * An intent and the phrase groups that must all match for it
+     */
+    private static final class Rule<T> {
+        final T intent;
+        final int priority;
+        final int order;
+        final int allGroups;
+
+        Rule(T intent, int priority, int order, int allGroups) {
+            this.intent = intent;
+            this.priority = priority;
+            this.order = order;
+            this.allGroups = allGroups;
+        }
+    }
+}
@@ -70,6 +70,17 @@ public class NetworkChecker {
         return fast;
     }
     
+    /**
+     * Last checked result of isOnline() && isFastNetwork() without checking again,
+     * or null if there is no recent check
+     */
+    public Boolean getCachedFastOnline() {
+        if (!isCacheValid() || cachedOnlineStatus == null) {
+            return null;
+        }
+        return cachedOnlineStatus && Boolean.TRUE.equals(cachedFastStatus);
+    }
+    
     /**
      * Force refresh of network status
      */
@@ -0,0 +1,126 @@
+package com.jarvis.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for BackendRouter class
+ */
+class BackendRouterTest {
+
+    private static final List<String> BACKENDS = Arrays.asList("grok", "gemini", "ollama");
+    private static final String ANSWER = "x".repeat(400); // ~100 tokens
+
+    private long now;
+    private BackendRouter router;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000_000L;
+        router = new BackendRouter(0.5, 4000, 3, 30_000, () -> now);
+    }
+
+    @Test
+    void testPrefersFirstCandidateWithoutHistory() {
+        assertEquals("grok", router.choose(BACKENDS, "hello"));
+    }
+
+    @Test
+    void testPicksFastestBackend() {
+        router.recordSuccess("grok", 800, 5000, ANSWER);
+        router.recordSuccess("gemini", 300, 1300, ANSWER);
+        router.recordSuccess("ollama", 2000, 12000, ANSWER);
+
+        assertEquals("gemini", router.choose(BACKENDS, "what is nmap"));
+    }
+
+    @Test
+    void testLongQueriesPenalizeSlowGeneration() {
+        router.recordSuccess("grok", 100, 600, ANSWER);   // 200 tok/s, quick first token
+        router.recordSuccess("gemini", 600, 650, ANSWER); // 2000 tok/s, slower first token
+
+        String longQuery = "x".repeat(40_000);
+        assertTrue(router.expectedMillis("grok", 10) < router.expectedMillis("gemini", 10));
+        assertEquals("gemini", router.choose(BACKENDS, longQuery));
+    }
+
+    @Test
+    void testErrorsInflateExpectedTime() {
+        router.recordSuccess("grok", 500, 1500, ANSWER);
+        double healthy = router.expectedMillis("grok", 10);
+        router.recordFailure("grok");
+
+        assertTrue(router.expectedMillis("grok", 10) > healthy);
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailures() {
+        router.recordFailure("grok");
+        router.recordFailure("grok");
+        assertEquals(BackendRouter.Circuit.CLOSED, router.getCircuit("grok"));
+
+        router.recordFailure("grok");
+        assertEquals(BackendRouter.Circuit.OPEN, router.getCircuit("grok"));
+        assertEquals("gemini", router.choose(BACKENDS, "hello"));
+    }
+
+    @Test
+    void testCircuitHalfOpensAfterCooldownAndClosesOnSuccess() {
+        for (int i = 0; i < 3; i++) router.recordFailure("grok");
+        now += 30_000;
+
+        assertEquals(BackendRouter.Circuit.HALF_OPEN, router.getCircuit("grok"));
+        assertTrue(router.allowsRequest("grok"));
+
+        router.recordSuccess("grok", 100, 500, ANSWER);
+        assertEquals(BackendRouter.Circuit.CLOSED, router.getCircuit("grok"));
+    }
+
+    @Test
+    void testFailedTrialReopensCircuit() {
+        for (int i = 0; i < 3; i++) router.recordFailure("grok");
+        now += 30_000;
+        router.recordFailure("grok");
+
+        assertEquals(BackendRouter.Circuit.OPEN, router.getCircuit("grok"));
+    }
+
+    @Test
+    void testHalfOpenCircuitAdmitsSingleTrial() {
+        for (int i = 0; i < 3; i++) router.recordFailure("grok");
+        now += 30_000;
+
+        assertEquals("grok", router.peek(BACKENDS, "hello"));
+        assertEquals("grok", router.choose(BACKENDS, "hello"));
+        // The trial is still in flight, so other queries go elsewhere
+        assertFalse(router.allowsRequest("grok"));
+        assertEquals("gemini", router.choose(BACKENDS, "hello"));
+
+        router.recordSuccess("grok", 100, 500, ANSWER);
+        assertTrue(router.tryAcquire("grok"));
+        assertTrue(router.tryAcquire("grok"));
+    }
+
+    @Test
+    void testUnreportedTrialExpiresAfterCooldown() {
+        for (int i = 0; i < 3; i++) router.recordFailure("grok");
+        now += 30_000;
+        assertTrue(router.tryAcquire("grok"));
+        assertFalse(router.tryAcquire("grok"));
+
+        now += 30_000;
+        assertTrue(router.tryAcquire("grok"));
+    }
+
+    @Test
+    void testReturnsNullWhenAllCircuitsOpen() {
+        for (String backend : BACKENDS) {
+            for (int i = 0; i < 3; i++) router.recordFailure(backend);
+        }
+        assertNull(router.choose(BACKENDS, "hello"));
+    }
+}
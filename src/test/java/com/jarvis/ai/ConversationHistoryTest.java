@@ -0,0 +1,87 @@
+package com.jarvis.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for ConversationHistory class
+ */
+class ConversationHistoryTest {
+
+    private ConversationHistory history;
+
+    @BeforeEach
+    void setUp() {
+        history = new ConversationHistory(3);
+    }
+
+    @Test
+    void testRecentReturnsOldestFirst() {
+        history.add("q1", "a1");
+        history.add("q2", "a2");
+
+        List<ConversationHistory.Exchange> recent = history.recent(1000);
+        assertEquals(2, recent.size());
+        assertEquals("q1", recent.get(0).getUser());
+        assertEquals("a2", recent.get(1).getAssistant());
+    }
+
+    @Test
+    void testOverwritesOldestWhenFull() {
+        history.add("q1", "a1");
+        history.add("q2", "a2");
+        history.add("q3", "a3");
+        history.add("q4", "a4");
+
+        List<ConversationHistory.Exchange> recent = history.recent(1000);
+        assertEquals(3, history.size());
+        assertEquals("q2", recent.get(0).getUser());
+        assertEquals("q4", recent.get(2).getUser());
+    }
+
+    @Test
+    void testPacksNewestExchangesWithinBudget() {
+        history.add("old question", "x".repeat(400)); // ~100 tokens
+        history.add("newer question", "short answer");
+        history.add("newest question", "short answer");
+
+        List<ConversationHistory.Exchange> recent = history.recent(20);
+        assertEquals(2, recent.size());
+        assertEquals("newer question", recent.get(0).getUser());
+        assertTrue(history.recent(0).isEmpty());
+    }
+
+    @Test
+    void testVersionAndFingerprintTrackChanges() {
+        long version = history.getVersion();
+        int empty = history.fingerprint();
+
+        history.add("q1", "a1");
+        assertTrue(history.getVersion() > version);
+        assertNotEquals(empty, history.fingerprint());
+
+        history.clear();
+        assertTrue(history.isEmpty());
+        assertEquals(empty, history.fingerprint());
+    }
+
+    @Test
+    void testRefersBack() {
+        assertFalse(ConversationHistory.refersBack("What is SQL injection?"));
+        assertFalse(ConversationHistory.refersBack("explain nmap -sV"));
+        assertTrue(ConversationHistory.refersBack("Explain it in more detail"));
+        assertTrue(ConversationHistory.refersBack("What about UDP?"));
+        assertTrue(ConversationHistory.refersBack("why?"));
+        assertTrue(ConversationHistory.refersBack("and the second"));
+    }
+
+    @Test
+    void testTokenEstimate() {
+        assertEquals(0, TokenEstimator.estimate(""));
+        assertEquals(25, TokenEstimator.estimate("a".repeat(100)));
+        assertTrue(TokenEstimator.estimate("run nmap -sV 10.0.0.1") >= 8);
+    }
+}
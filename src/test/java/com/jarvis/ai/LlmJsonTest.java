@@ -0,0 +1,69 @@
+package com.jarvis.ai;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Unit tests for LlmJson class
+ */
+class LlmJsonTest {
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+
+    @Test
+    void testReadsNestedPathSkippingOtherFields() throws IOException {
+        String gemini = "{\"usageMetadata\":{\"total\":5},\"candidates\":[{\"safety\":[1,2],"
+            + "\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\"Hello \\\"world\\\"\"}]}}]}";
+        assertEquals("Hello \"world\"",
+            LlmJson.readString(reader(gemini), "candidates", 0, "content", "parts", 0, "text"));
+    }
+
+    @Test
+    void testReadsLaterArrayElement() throws IOException {
+        assertEquals("b", LlmJson.readString(reader("{\"a\":[\"x\",{\"k\":\"b\"}]}"), "a", 1, "k"));
+    }
+
+    @Test
+    void testMissingOrNullPathReturnsNull() throws IOException {
+        assertNull(LlmJson.readString(reader("{\"choices\":[]}"), "choices", 0, "message", "content"));
+        assertNull(LlmJson.readString(reader("{\"choices\":[{\"delta\":{\"content\":null}}]}"),
+            "choices", 0, "delta", "content"));
+        assertNull(LlmJson.readString(reader("{\"error\":\"bad key\"}"), "choices", 0));
+    }
+
+    @Test
+    void testReadsOllamaChunksBackToBack() throws IOException {
+        JsonReader json = reader("{\"model\":\"m\",\"response\":\"Hi\",\"done\":false}\n"
+            + "{\"model\":\"m\",\"response\":\"!\",\"done\":true,\"context\":[1,2,3],\"total_duration\":9}\n");
+        json.setLenient(true);
+
+        LlmJson.OllamaChunk first = LlmJson.readOllamaChunk(json);
+        assertEquals("Hi", first.getResponse());
+        assertFalse(first.isDone());
+        assertNull(first.getContext());
+
+        LlmJson.OllamaChunk last = LlmJson.readOllamaChunk(json);
+        assertTrue(last.isDone());
+        assertArrayEquals(new int[] {1, 2, 3}, last.getContext());
+        assertEquals(JsonToken.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    void testWritesRequestBody() throws IOException {
+        Buffer buffer = new Buffer();
+        LlmJson.body(json -> json.beginObject()
+            .name("prompt").value("say \"hi\"\n")
+            .name("stream").value(true)
+            .endObject()).writeTo(buffer);
+
+        assertEquals("{\"prompt\":\"say \\\"hi\\\"\\n\",\"stream\":true}", buffer.readUtf8());
+    }
+}
@@ -0,0 +1,37 @@
+package com.jarvis.ai;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+/**
+ * Unit tests for PromptTemplate class
+ */
+class PromptTemplateTest {
+
+    @Test
+    void testRendersPlaceholders() {
+        PromptTemplate template = PromptTemplate.compile("{system} User query: {query}");
+        assertEquals("Be brief. User query: what is nmap",
+            template.render(Map.of("system", "Be brief.", "query", "what is nmap")));
+    }
+
+    @Test
+    void testMissingValuesRenderEmpty() {
+        PromptTemplate template = PromptTemplate.compile("Intro. {history}User query: {query}");
+        assertEquals("Intro. User query: hi", template.render(Map.of("query", "hi")));
+    }
+
+    @Test
+    void testUnclosedOrEmptyBracesStayLiteral() {
+        assertEquals("a {} b { c", PromptTemplate.compile("a {} b { c").render(Map.of()));
+    }
+
+    @Test
+    void testAppendsToExistingBuilder() {
+        StringBuilder sb = new StringBuilder("> ");
+        PromptTemplate.compile("User: {user}\n").appendTo(sb, Map.of("user", "hello"));
+        assertEquals("> User: hello\n", sb.toString());
+    }
+}
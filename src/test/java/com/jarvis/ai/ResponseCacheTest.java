@@ -0,0 +1,102 @@
+package com.jarvis.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for ResponseCache class
+ */
+class ResponseCacheTest {
+
+    private long now;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000_000L;
+        cache = new ResponseCache(3, 1000, 60_000, 0, null, () -> now);
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("what is nmap", ResponseCache.normalize("  What is NMAP?? "));
+        assertEquals("explain xss", ResponseCache.normalize("Explain, XSS!"));
+        assertEquals("", ResponseCache.normalize(null));
+    }
+
+    @Test
+    void testHitAfterPut() {
+        cache.put("ollama", "llama2", "What is nmap?", "A network scanner.");
+        assertEquals("A network scanner.", cache.get("ollama", "llama2", "what is nmap"));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testMissOnDifferentBackendOrModel() {
+        cache.put("ollama", "llama2", "what is nmap", "A network scanner.");
+        assertNull(cache.get("grok", "llama2", "what is nmap"));
+        assertNull(cache.get("ollama", "codellama:13b", "what is nmap"));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        cache.put("ollama", "m", "one", "1");
+        cache.put("ollama", "m", "two", "2");
+        cache.put("ollama", "m", "three", "3");
+        cache.get("ollama", "m", "one"); // "two" is now least recently used
+        cache.put("ollama", "m", "four", "4");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("ollama", "m", "two"));
+        assertEquals("1", cache.get("ollama", "m", "one"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testEvictsToStayWithinCharacterBudget() {
+        ResponseCache small = new ResponseCache(10, 10, 0, 0, null, () -> now);
+        small.put("ollama", "m", "first", "123456");
+        small.put("ollama", "m", "second", "789012");
+
+        assertEquals(1, small.size());
+        assertNull(small.get("ollama", "m", "first"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        cache.put("ollama", "m", "what is xss", "Cross-site scripting.");
+        now += 60_001;
+        assertNull(cache.get("ollama", "m", "what is xss"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFuzzyMatchWhenEnabled() {
+        ResponseCache fuzzy = new ResponseCache(10, 1000, 0, 85, null, () -> now);
+        fuzzy.put("ollama", "m", "what is the nmap tool", "A network scanner.");
+
+        assertEquals("A network scanner.", fuzzy.get("ollama", "m", "what is the nmap tools"));
+        assertNull(fuzzy.get("ollama", "m", "explain sql injection"));
+    }
+
+    @Test
+    void testPersistsAcrossInstances() throws IOException {
+        Path file = Files.createTempFile("iris-cache", ".json");
+        try {
+            ResponseCache first = new ResponseCache(10, 1000, 0, 0, file, () -> now);
+            first.put("grok", "grok-beta", "explain xss", "Cross-site scripting.");
+            first.save();
+
+            ResponseCache second = new ResponseCache(10, 1000, 0, 0, file, () -> now);
+            assertEquals("Cross-site scripting.", second.get("grok", "grok-beta", "Explain XSS"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
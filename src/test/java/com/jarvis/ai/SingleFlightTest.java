@@ -0,0 +1,130 @@
+package com.jarvis.ai;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for SingleFlight class
+ */
+class SingleFlightTest {
+
+    private SingleFlight<String, String> flights;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        flights = new SingleFlight<>();
+        calls = new AtomicInteger();
+    }
+
+    private CompletableFuture<String> startCall(CompletableFuture<String> work) {
+        calls.incrementAndGet();
+        return work;
+    }
+
+    @Test
+    void testConcurrentCallersShareOneCall() {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("q", () -> startCall(work));
+        CompletableFuture<String> second = flights.execute("q", () -> startCall(work));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, flights.inFlight());
+        work.complete("answer");
+
+        assertEquals("answer", first.join());
+        assertEquals("answer", second.join());
+        assertEquals(1, flights.getCoalescedCount());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void testDifferentKeysRunSeparately() {
+        flights.execute("a", () -> startCall(new CompletableFuture<>()));
+        flights.execute("b", () -> startCall(new CompletableFuture<>()));
+        assertEquals(2, calls.get());
+        assertEquals(0, flights.getCoalescedCount());
+    }
+
+    @Test
+    void testFinishedCallIsNotReused() {
+        assertEquals("one", flights.execute("q", () -> startCall(CompletableFuture.completedFuture("one"))).join());
+        assertEquals("two", flights.execute("q", () -> startCall(CompletableFuture.completedFuture("two"))).join());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testSharedCallSurvivesOneCallerCancelling() {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("q", () -> startCall(work));
+        CompletableFuture<String> second = flights.execute("q", () -> startCall(work));
+
+        first.cancel(true);
+        assertFalse(work.isCancelled());
+        work.complete("answer");
+        assertEquals("answer", second.join());
+    }
+
+    @Test
+    void testSharedCallCancelledWhenEveryCallerLeaves() {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("q", () -> startCall(work));
+        CompletableFuture<String> second = flights.execute("q", () -> startCall(work));
+
+        first.cancel(true);
+        second.complete("timed out"); // e.g. the caller's deadline
+        assertTrue(work.isCancelled());
+        assertEquals(0, flights.inFlight());
+
+        // The next caller starts a fresh call
+        flights.execute("q", () -> startCall(new CompletableFuture<>()));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testFailureReachesEveryCaller() {
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("q", () -> startCall(work));
+        CompletableFuture<String> second = flights.execute("q", () -> startCall(work));
+
+        work.completeExceptionally(new IllegalStateException("boom"));
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    void testBlockingCallersWaitForFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> flights.run("q", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "answer";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> flights.run("q", () -> {
+            calls.incrementAndGet();
+            return "duplicate";
+        }));
+        while (flights.getCoalescedCount() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("answer", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("answer", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.jarvis.commands;
+
+import com.jarvis.utils.HttpClientProvider;
+import com.jarvis.utils.IntentRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.function.Function;
+
+/**
+ * Unit tests for CommandRegistry class
+ */
+class CommandRegistryTest {
+
+    private CommandRegistry registry;
+    private IntentRouter<Function<String, String>> router;
+
+    @BeforeEach
+    void setUp() {
+        CommandContext context = new CommandContext(null, HttpClientProvider.getInstance(), () -> null, null);
+        registry = new CommandRegistry(context);
+        IntentRouter.Builder<Function<String, String>> builder = IntentRouter.builder();
+        registry.addTo(builder);
+        router = builder.build();
+    }
+
+    @Test
+    void testDiscoversBundledPlugins() {
+        assertEquals(10, registry.getPluginNames().size());
+        assertTrue(registry.getPluginNames().contains("WeatherPlugin"));
+        assertTrue(registry.getPluginNames().contains("NetworkAnalysisPlugin"));
+    }
+
+    @Test
+    void testPluginsAreCreatedOnFirstUse() {
+        assertEquals(0, registry.getLoadedCount());
+
+        Function<String, String> handler = router.route("check link");
+        assertNotNull(handler);
+        assertEquals(0, registry.getLoadedCount());
+
+        assertEquals("Please specify a URL. Example: check link https://example.com", handler.apply("check link"));
+        assertEquals(1, registry.getLoadedCount());
+
+        handler.apply("check link");
+        assertEquals(1, registry.getLoadedCount());
+    }
+
+    @Test
+    void testPrewarmLoadsRoutedPluginInBackground() throws InterruptedException {
+        Function<String, String> handler = router.route("check link");
+        assertTrue(registry.prewarm(handler));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.getLoadedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, registry.getLoadedCount());
+        // Already loaded, and core commands are not plugins
+        assertFalse(registry.prewarm(handler));
+        assertFalse(registry.prewarm(command -> "core"));
+    }
+
+    @Test
+    void testRoutesByDeclaredTriggers() {
+        assertNotNull(router.route("what's the weather in paris"));
+        assertNotNull(router.route("brute force ssh on 10.0.0.5"));
+        assertNull(router.route("tell me a joke"));
+    }
+}
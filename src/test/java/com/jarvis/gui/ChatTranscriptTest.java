@@ -0,0 +1,67 @@
+package com.jarvis.gui;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ChatTranscript class
+ */
+class ChatTranscriptTest {
+
+    @Test
+    void testOldestMessagesAreDropped() {
+        ChatTranscript transcript = new ChatTranscript(3);
+        for (int i = 1; i <= 5; i++) {
+            transcript.add(new ChatMessage("You", "message " + i, Color.WHITE));
+        }
+        assertEquals(3, transcript.getSize());
+        assertEquals("message 3", transcript.getElementAt(0).getText());
+        assertEquals("message 5", transcript.getElementAt(2).getText());
+    }
+
+    @Test
+    void testStreamedTextUpdatesOnlyItsRow() {
+        ChatTranscript transcript = new ChatTranscript(10);
+        transcript.add(new ChatMessage("You", "hello", Color.WHITE));
+        ChatMessage answer = new ChatMessage("I.R.I.S", "", Color.CYAN);
+        transcript.add(answer);
+
+        List<ListDataEvent> events = new ArrayList<>();
+        transcript.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) { events.add(e); }
+            @Override
+            public void intervalRemoved(ListDataEvent e) { events.add(e); }
+            @Override
+            public void contentsChanged(ListDataEvent e) { events.add(e); }
+        });
+
+        int version = answer.getVersion();
+        answer.append("Hi there");
+        transcript.update(answer);
+
+        assertEquals(1, events.size());
+        assertEquals(ListDataEvent.CONTENTS_CHANGED, events.get(0).getType());
+        assertEquals(1, events.get(0).getIndex0());
+        assertNotEquals(version, answer.getVersion());
+        assertTrue(answer.toString().endsWith("I.R.I.S: Hi there"));
+    }
+
+    @Test
+    void testUpdateOfDroppedMessageIsIgnored() {
+        ChatTranscript transcript = new ChatTranscript(1);
+        ChatMessage first = new ChatMessage("You", "first", Color.WHITE);
+        transcript.add(first);
+        transcript.add(new ChatMessage("You", "second", Color.WHITE));
+
+        first.append(" more");
+        assertDoesNotThrow(() -> transcript.update(first));
+        assertEquals(1, transcript.getSize());
+    }
+}
@@ -0,0 +1,103 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AudioRingBuffer class
+ */
+class AudioRingBufferTest {
+
+    private AudioRingBuffer ring;
+
+    @BeforeEach
+    void setUp() {
+        ring = new AudioRingBuffer(16, 4, false);
+    }
+
+    @Test
+    void testReadsWhatWasWrittenAcrossTheWrap() throws InterruptedException {
+        byte[] frame = new byte[4];
+        for (int i = 0; i < 10; i++) {
+            assertTrue(ring.write(bytes(i * 4, 4), 0, 4));
+            assertTrue(ring.read(frame, 0, 4, 0));
+            assertArrayEquals(bytes(i * 4, 4), frame);
+        }
+        assertEquals(0, ring.available());
+    }
+
+    @Test
+    void testDropsWritesWhenReaderFallsBehind() {
+        // Capacity 16 minus 4 bytes of pre-roll leaves room for 12
+        assertTrue(ring.write(bytes(0, 8), 0, 8));
+        assertTrue(ring.write(bytes(8, 4), 0, 4));
+        assertFalse(ring.write(bytes(12, 4), 0, 4));
+        assertEquals(1, ring.getOverruns());
+        assertEquals(12, ring.available());
+    }
+
+    @Test
+    void testReadBehindReplaysPreRoll() throws InterruptedException {
+        byte[] frame = new byte[4];
+        for (int i = 0; i < 5; i++) {
+            ring.write(bytes(i * 4, 4), 0, 4);
+            ring.read(frame, 0, 4, 0);
+        }
+        assertEquals(4, ring.getPreRollAvailable());
+
+        byte[] earlier = new byte[4];
+        assertTrue(ring.readBehind(4, earlier, 0, 4));
+        assertArrayEquals(bytes(16, 4), earlier);
+        // Older audio is no longer protected from the writer
+        assertFalse(ring.readBehind(8, earlier, 0, 4));
+    }
+
+    @Test
+    void testReadWaitsForWriter() throws Exception {
+        byte[] frame = new byte[4];
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            ring.write(bytes(0, 4), 0, 4);
+        });
+        writer.start();
+        assertTrue(ring.read(frame, 0, 4, 2000));
+        assertArrayEquals(bytes(0, 4), frame);
+        writer.join();
+    }
+
+    @Test
+    void testReadFailsAfterCloseOrTimeout() throws InterruptedException {
+        byte[] frame = new byte[4];
+        assertFalse(ring.read(frame, 0, 4, 20));
+
+        ring.write(bytes(0, 4), 0, 4);
+        ring.close();
+        // What was written before closing can still be drained
+        assertTrue(ring.read(frame, 0, 4, 1000));
+        assertFalse(ring.read(frame, 0, 4, 1000));
+    }
+
+    @Test
+    void testDirectBuffer() throws InterruptedException {
+        AudioRingBuffer direct = new AudioRingBuffer(10, 2, true);
+        byte[] frame = new byte[3];
+        for (int i = 0; i < 7; i++) {
+            direct.write(bytes(i * 3, 3), 0, 3);
+            assertTrue(direct.read(frame, 0, 3, 0));
+            assertArrayEquals(bytes(i * 3, 3), frame);
+        }
+    }
+
+    private static byte[] bytes(int first, int count) {
+        byte[] data = new byte[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = (byte) (first + i);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,126 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.TargetDataLine;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for MicrophoneService class
+ */
+class MicrophoneServiceTest {
+
+    private static final int FRAME = 320; // 10 ms
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger stopped = new AtomicInteger();
+    private MicrophoneService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MicrophoneService(new AudioFormat(16000, 16, 1, true, false), FRAME, 1, false, "", 60_000,
+            info -> fakeLine());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testSubscribersShareOneLine() throws Exception {
+        try (MicrophoneStream first = service.subscribe(0);
+             MicrophoneStream second = service.subscribe(0)) {
+            byte[] frame = new byte[FRAME];
+            assertTrue(first.read(frame, 1000));
+            assertTrue(second.read(frame, 1000));
+        }
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    void testLineStaysOpenBetweenListens() throws Exception {
+        byte[] frame = new byte[FRAME];
+        for (int i = 0; i < 3; i++) {
+            try (MicrophoneStream mic = service.subscribe(0)) {
+                assertTrue(mic.read(frame, 1000));
+            }
+        }
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    void testPauseAndResume() throws Exception {
+        try (MicrophoneStream mic = service.subscribe(0)) {
+            byte[] frame = new byte[FRAME];
+            assertTrue(mic.read(frame, 1000));
+
+            service.pause();
+            Thread.sleep(50);
+            while (mic.read(frame, 0)) {
+                // drain what was captured before pausing
+            }
+            assertFalse(mic.read(frame, 100));
+            assertTrue(stopped.get() >= 1);
+
+            service.resume();
+            assertTrue(mic.read(frame, 1000));
+        }
+    }
+
+    @Test
+    void testSwitchDeviceReopensLine() throws Exception {
+        try (MicrophoneStream mic = service.subscribe(0)) {
+            service.switchDevice("usb");
+            long deadline = System.currentTimeMillis() + 2000;
+            while (service.getReopenCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, service.getReopenCount());
+            assertEquals(2, opened.get());
+
+            // The subscriber keeps receiving audio from the new line
+            byte[] frame = new byte[FRAME];
+            assertTrue(mic.read(frame, 1000));
+        }
+    }
+
+    @Test
+    void testOpenFailureIsReported() {
+        MicrophoneService broken = new MicrophoneService(new AudioFormat(16000, 16, 1, true, false), FRAME, 1, false,
+            "", 1000, info -> {
+                throw new LineUnavailableException("no device");
+            });
+        assertThrows(LineUnavailableException.class, () -> broken.subscribe(0));
+        broken.close();
+    }
+
+    /**
+     * A line that delivers a frame of silence every few milliseconds while started
+     */
+    private TargetDataLine fakeLine() {
+        opened.incrementAndGet();
+        boolean[] state = new boolean[2]; // open, running
+        return (TargetDataLine) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {TargetDataLine.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "open": state[0] = true; return null;
+                    case "close": state[0] = false; state[1] = false; return null;
+                    case "start": state[1] = true; return null;
+                    case "stop": state[1] = false; stopped.incrementAndGet(); return null;
+                    case "isOpen": return state[0];
+                    case "read":
+                        if (!state[1]) return 0;
+                        Thread.sleep(2);
+                        return args[2];
+                    default: return null;
+                }
+            });
+    }
+}
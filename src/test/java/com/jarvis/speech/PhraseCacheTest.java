@@ -0,0 +1,76 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for PhraseCache class
+ */
+class PhraseCacheTest {
+
+    private static final AudioFormat FORMAT = new AudioFormat(16000, 16, 1, true, false);
+
+    @Test
+    void testOnlyRegisteredPhrasesAreKept() {
+        PhraseCache cache = new PhraseCache(null, "kevin16-150");
+        cache.register("Yes?");
+
+        cache.put("Yes?", clip(4));
+        cache.put("The weather is sunny.", clip(4));
+
+        assertNotNull(cache.get("Yes?"));
+        assertNull(cache.get("The weather is sunny."));
+        assertTrue(cache.getStats().contains("1 hits"));
+    }
+
+    @Test
+    void testVoiceChangeDropsClips() {
+        PhraseCache cache = new PhraseCache(null, "kevin16-150");
+        cache.register("Yes?");
+        cache.put("Yes?", clip(4));
+
+        cache.setVoiceKey("kevin16-180");
+        assertNull(cache.get("Yes?"));
+    }
+
+    @Test
+    void testPersistsAcrossInstances() throws IOException {
+        Path dir = Files.createTempDirectory("iris-phrases");
+        try {
+            PhraseCache first = new PhraseCache(dir, "kevin16-150");
+            first.register("Yes?");
+            first.put("Yes?", clip(100));
+
+            PhraseCache second = new PhraseCache(dir, "kevin16-150");
+            second.register("Yes?");
+            PcmClip loaded = second.get("Yes?");
+            assertNotNull(loaded);
+            assertArrayEquals(clip(100).pcm, loaded.pcm);
+            assertEquals(FORMAT.getSampleRate(), loaded.format.getSampleRate());
+
+            // Rendered with other settings: not reused
+            PhraseCache other = new PhraseCache(dir, "kevin16-180");
+            other.register("Yes?");
+            assertNull(other.get("Yes?"));
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static PcmClip clip(int samples) {
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte) i;
+        }
+        return new PcmClip(pcm, FORMAT);
+    }
+}
@@ -0,0 +1,120 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for RecognizerPool class
+ */
+class RecognizerPoolTest {
+
+    private RecognizerPool<FakeRecognizer> pool;
+    private final AtomicInteger built = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        pool = new RecognizerPool<>("test", 2, () -> new FakeRecognizer(built.incrementAndGet()), FakeRecognizer::reset);
+    }
+
+    @Test
+    void testInstancesAreReusedAndReset() throws Exception {
+        FakeRecognizer first;
+        try (RecognizerPool<FakeRecognizer>.Lease lease = pool.acquire(100)) {
+            first = lease.get();
+            first.dirty = true;
+        }
+        assertFalse(first.dirty);
+
+        try (RecognizerPool<FakeRecognizer>.Lease lease = pool.acquire(100)) {
+            assertSame(first, lease.get());
+        }
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    void testPrewarmBuildsAhead() throws Exception {
+        pool.prewarm(5);
+        assertEquals(2, pool.getIdleCount());
+        try (RecognizerPool<FakeRecognizer>.Lease a = pool.acquire(100);
+             RecognizerPool<FakeRecognizer>.Lease b = pool.acquire(100)) {
+            assertNotSame(a.get(), b.get());
+        }
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test
+    void testWaitsWhenAllInUse() throws Exception {
+        RecognizerPool<FakeRecognizer>.Lease a = pool.acquire(100);
+        RecognizerPool<FakeRecognizer>.Lease b = pool.acquire(100);
+        assertThrows(IllegalStateException.class, () -> pool.acquire(20));
+
+        CompletableFuture<FakeRecognizer> waiter = CompletableFuture.supplyAsync(() -> {
+            try (RecognizerPool<FakeRecognizer>.Lease c = pool.acquire(2000)) {
+                return c.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(50);
+        FakeRecognizer returned = a.get();
+        a.close();
+        assertSame(returned, waiter.get());
+        b.close();
+
+        assertTrue(pool.getMaxWaitMillis() >= 20);
+        assertTrue(pool.getStats().contains("3 acquisitions"));
+    }
+
+    @Test
+    void testFailedResetDiscardsInstance() throws Exception {
+        try (RecognizerPool<FakeRecognizer>.Lease lease = pool.acquire(100)) {
+            lease.get().broken = true;
+        }
+        assertEquals(0, pool.getIdleCount());
+        try (RecognizerPool<FakeRecognizer>.Lease lease = pool.acquire(100)) {
+            assertEquals(2, lease.get().id);
+        }
+    }
+
+    @Test
+    void testCloseClosesIdleAndReturnedInstances() throws Exception {
+        RecognizerPool<FakeRecognizer>.Lease leased = pool.acquire(100);
+        pool.prewarm(2);
+        FakeRecognizer idle = pool.acquire(100).get();
+        FakeRecognizer inUse = leased.get();
+
+        pool.close();
+        assertFalse(inUse.closed);
+        leased.close();
+        assertTrue(inUse.closed);
+        assertFalse(idle.closed); // still leased by the caller above
+        assertThrows(IllegalStateException.class, () -> pool.acquire(10));
+    }
+
+    private static class FakeRecognizer implements AutoCloseable {
+        final int id;
+        boolean dirty;
+        boolean broken;
+        boolean closed;
+
+        FakeRecognizer(int id) {
+            this.id = id;
+        }
+
+        void reset() {
+            if (broken) {
+                throw new IllegalStateException("reset failed");
+            }
+            dirty = false;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
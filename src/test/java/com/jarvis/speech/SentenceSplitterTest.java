@@ -0,0 +1,62 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for SentenceSplitter class
+ */
+class SentenceSplitterTest {
+
+    private SentenceSplitter splitter;
+
+    @BeforeEach
+    void setUp() {
+        splitter = new SentenceSplitter();
+    }
+
+    @Test
+    void testSentenceIsReleasedOnceComplete() {
+        assertTrue(splitter.append("The weather today is").isEmpty());
+        assertTrue(splitter.append(" sunny and warm.").isEmpty());
+        // The period only ends the sentence once something follows it
+        assertEquals(List.of("The weather today is sunny and warm."), splitter.append(" Expect"));
+        assertEquals("Expect", splitter.flush());
+        assertNull(splitter.flush());
+    }
+
+    @Test
+    void testTokensSplitIntoSentences() {
+        List<String> sentences = new ArrayList<>();
+        for (String token : "Paris is the capital of France! It has about two million people. Want more?".split("(?<= )")) {
+            sentences.addAll(splitter.append(token));
+        }
+        sentences.add(splitter.flush());
+        assertEquals(List.of("Paris is the capital of France!", "It has about two million people.", "Want more?"),
+            sentences);
+    }
+
+    @Test
+    void testShortPiecesAndDecimalsAreNotSplit() {
+        List<String> sentences = splitter.append("Dr. Smith measured 3.5 degrees today. Then ");
+        assertEquals(List.of("Dr. Smith measured 3.5 degrees today."), sentences);
+    }
+
+    @Test
+    void testLineBreakEndsSentence() {
+        assertEquals(List.of("Here are your results:"), splitter.append("Here are your results:\n1. First"));
+    }
+
+    @Test
+    void testRunOnSentenceIsBrokenAtComma() {
+        String longClause = "a".repeat(150) + ", " + "b".repeat(60);
+        List<String> sentences = splitter.append(longClause);
+        assertEquals(1, sentences.size());
+        assertEquals("a".repeat(150) + ",", sentences.get(0));
+        assertEquals("b".repeat(60), splitter.flush());
+    }
+}
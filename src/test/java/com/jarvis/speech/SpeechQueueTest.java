@@ -0,0 +1,119 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for SpeechQueue class
+ */
+class SpeechQueueTest {
+
+    private final List<String> spoken = new CopyOnWriteArrayList<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile CountDownLatch playing = new CountDownLatch(0);
+    private SpeechQueue<String> queue;
+
+    @BeforeEach
+    void setUp() {
+        // The fake voice "plays" until released or stopped
+        queue = new SpeechQueue<>(text -> {
+            spoken.add(text);
+            started.countDown();
+            try {
+                playing.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, text -> playing.countDown(), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    void testSpeaksInOrder() throws Exception {
+        queue.submit("one", SpeechQueue.Priority.NORMAL);
+        queue.submit("two", SpeechQueue.Priority.NORMAL);
+        CompletableFuture<Boolean> last = queue.submit("three", SpeechQueue.Priority.NORMAL);
+
+        assertTrue(last.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of("one", "two", "three"), spoken);
+    }
+
+    @Test
+    void testInterruptCutsOffAndGoesFirst() throws Exception {
+        playing = new CountDownLatch(1);
+        CompletableFuture<Boolean> answer = queue.submit("long answer", SpeechQueue.Priority.NORMAL);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> next = queue.submit("next answer", SpeechQueue.Priority.NORMAL);
+        CompletableFuture<Boolean> ack = queue.submit("Yes?", SpeechQueue.Priority.INTERRUPT);
+
+        assertFalse(answer.get(1, TimeUnit.SECONDS));
+        assertTrue(next.get(1, TimeUnit.SECONDS));
+        assertTrue(ack.isDone());
+        assertEquals(List.of("long answer", "Yes?", "next answer"), spoken);
+        assertEquals(1, queue.getInterruptedCount());
+    }
+
+    @Test
+    void testFullQueueDropsOldestAnswer() throws Exception {
+        playing = new CountDownLatch(1);
+        queue.submit("playing", SpeechQueue.Priority.NORMAL);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> oldest = queue.submit("a", SpeechQueue.Priority.NORMAL);
+        queue.submit("b", SpeechQueue.Priority.NORMAL);
+        queue.submit("c", SpeechQueue.Priority.NORMAL);
+        queue.submit("d", SpeechQueue.Priority.NORMAL);
+
+        assertFalse(oldest.get(1, TimeUnit.SECONDS));
+        assertEquals(3, queue.getDepth());
+        assertEquals(3, queue.getMaxDepth());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void testBargeInStopsEverything() throws Exception {
+        playing = new CountDownLatch(1);
+        CompletableFuture<Boolean> current = queue.submit("playing", SpeechQueue.Priority.NORMAL);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = queue.submit("waiting", SpeechQueue.Priority.NORMAL);
+
+        assertEquals(2, queue.bargeIn());
+        assertFalse(current.get(1, TimeUnit.SECONDS));
+        assertFalse(waiting.get(1, TimeUnit.SECONDS));
+        assertTrue(queue.awaitIdle(1000));
+        assertEquals(List.of("playing"), spoken);
+    }
+
+    @Test
+    void testBargeInKeepsAcknowledgement() throws Exception {
+        playing = new CountDownLatch(1);
+        CompletableFuture<Boolean> ack = queue.submit("yes?", SpeechQueue.Priority.INTERRUPT);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> answer = queue.submit("answer", SpeechQueue.Priority.NORMAL);
+
+        // The acknowledgement coming back through the microphone looks like the user speaking
+        assertEquals(1, queue.bargeIn());
+        assertFalse(answer.get(1, TimeUnit.SECONDS));
+        assertFalse(ack.isDone());
+
+        playing.countDown();
+        assertTrue(ack.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClosedQueueRejects() throws Exception {
+        queue.close();
+        assertFalse(queue.submit("late", SpeechQueue.Priority.NORMAL).get(1, TimeUnit.SECONDS));
+    }
+}
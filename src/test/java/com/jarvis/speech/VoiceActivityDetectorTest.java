@@ -0,0 +1,118 @@
+package com.jarvis.speech;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Unit tests for VoiceActivityDetector class
+ */
+class VoiceActivityDetectorTest {
+
+    private static final int RATE = 16000;
+    private static final int FRAME_SAMPLES = 480; // 30 ms
+
+    private VoiceActivityDetector vad;
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void setUp() {
+        vad = new VoiceActivityDetector(RATE, 0.01, 90, 300);
+    }
+
+    @Test
+    void testSilenceNeverStartsSpeech() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(VoiceActivityDetector.Event.SILENCE, accept(noise(0.001)));
+        }
+        assertFalse(vad.isSpeech());
+    }
+
+    @Test
+    void testUtteranceStartsAndEndsOnTrailingSilence() {
+        // 90 ms of speech is needed before the utterance starts
+        assertEquals(VoiceActivityDetector.Event.SILENCE, accept(tone(220, 0.3)));
+        assertEquals(VoiceActivityDetector.Event.SILENCE, accept(tone(220, 0.3)));
+        assertEquals(VoiceActivityDetector.Event.SPEECH_START, accept(tone(220, 0.3)));
+        assertTrue(vad.isSpeech());
+
+        // A short pause inside the utterance does not end it
+        for (int i = 0; i < 5; i++) {
+            assertEquals(VoiceActivityDetector.Event.SPEECH, accept(noise(0.001)));
+        }
+        assertEquals(VoiceActivityDetector.Event.SPEECH, accept(tone(220, 0.3)));
+
+        // 300 ms of silence ends it
+        for (int i = 0; i < 9; i++) {
+            assertEquals(VoiceActivityDetector.Event.SPEECH, accept(noise(0.001)));
+        }
+        assertEquals(VoiceActivityDetector.Event.SPEECH_END, accept(noise(0.001)));
+        assertFalse(vad.isSpeech());
+    }
+
+    @Test
+    void testSingleClickIsIgnored() {
+        assertEquals(VoiceActivityDetector.Event.SILENCE, accept(tone(220, 0.5)));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(VoiceActivityDetector.Event.SILENCE, accept(noise(0.001)));
+        }
+        assertFalse(vad.isSpeech());
+    }
+
+    @Test
+    void testNoiseFloorAdapts() {
+        // Steady background hum louder than the minimum threshold: mistaken for
+        // speech at first, then learned as noise
+        for (int i = 0; i < 400; i++) {
+            accept(tone(50, 0.02));
+        }
+        assertTrue(vad.getNoiseFloor() > 0.01);
+        assertFalse(vad.isSpeech());
+
+        for (int i = 0; i < 3; i++) {
+            accept(tone(220, 0.3));
+        }
+        assertTrue(vad.isSpeech());
+    }
+
+    @Test
+    void testZeroCrossingRate() {
+        byte[] alternating = frame(new double[] {0.5, -0.5, 0.5, -0.5, 0.5});
+        assertEquals(1.0, VoiceActivityDetector.zeroCrossingRate(alternating, 0, alternating.length), 1e-9);
+        byte[] constant = frame(new double[] {0.5, 0.5, 0.5});
+        assertEquals(0.0, VoiceActivityDetector.zeroCrossingRate(constant, 0, constant.length), 1e-9);
+        assertEquals(0.5, VoiceActivityDetector.rms(constant, 0, constant.length), 1e-3);
+    }
+
+    private VoiceActivityDetector.Event accept(byte[] frame) {
+        return vad.accept(frame, 0, frame.length);
+    }
+
+    private byte[] tone(double hz, double amplitude) {
+        double[] samples = new double[FRAME_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = amplitude * Math.sin(2 * Math.PI * hz * i / RATE);
+        }
+        return frame(samples);
+    }
+
+    private byte[] noise(double amplitude) {
+        double[] samples = new double[FRAME_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = amplitude * (random.nextDouble() * 2 - 1);
+        }
+        return frame(samples);
+    }
+
+    private static byte[] frame(double[] samples) {
+        byte[] pcm = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            int value = (int) Math.round(samples[i] * 32767);
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+}
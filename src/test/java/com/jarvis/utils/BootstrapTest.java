@@ -0,0 +1,90 @@
+package com.jarvis.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for Bootstrap class
+ */
+class BootstrapTest {
+
+    private Bootstrap boot;
+
+    @BeforeEach
+    void setUp() {
+        boot = new Bootstrap("test", new ForkJoinPool(4));
+    }
+
+    @Test
+    void testDependenciesFinishFirst() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        Bootstrap.Stage<String> config = boot.stage("config", () -> { order.add("config"); return "cfg"; });
+        Bootstrap.Stage<String> tts = boot.stage("tts", () -> { order.add("tts"); return config.get() + "+tts"; }, config);
+        Bootstrap.Stage<String> commands = boot.stage("commands",
+            () -> { order.add("commands"); return tts.get() + "+commands"; }, config, tts);
+
+        boot.await(commands);
+
+        assertEquals("cfg+tts+commands", commands.get());
+        assertEquals(List.of("config", "tts", "commands"), order);
+    }
+
+    @Test
+    void testIndependentStagesRunConcurrently() {
+        // Each stage waits for the other to start, which only works if both run at once
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        boot.stage("speech", () -> awaitOther(bothStarted));
+        boot.stage("tts", () -> awaitOther(bothStarted));
+
+        boot.start().orTimeout(5, TimeUnit.SECONDS).join();
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    private static Boolean awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Test
+    void testFailurePropagatesToDependents() {
+        Bootstrap.Stage<String> model = boot.stage("speech", () -> { throw new IllegalStateException("no model"); });
+        Bootstrap.Stage<String> listener = boot.stage("listener", () -> "never", model);
+        Bootstrap.Stage<String> other = boot.stage("tts", () -> "ok");
+
+        boot.start().join();
+
+        assertTrue(model.future().isCompletedExceptionally());
+        assertTrue(listener.future().isCompletedExceptionally());
+        assertEquals("ok", other.get());
+    }
+
+    @Test
+    void testReportListsEveryStage() {
+        boot.stage("config", () -> 1);
+        boot.stage("broken", () -> { throw new IllegalStateException("boom"); });
+        boot.start().join();
+
+        String report = boot.getReport();
+        assertTrue(report.contains("test startup"));
+        assertTrue(report.contains("config"));
+        assertTrue(report.contains("boom"));
+    }
+
+    @Test
+    void testCannotAddStagesAfterStart() {
+        boot.start().join();
+        assertThrows(IllegalStateException.class, () -> boot.stage("late", () -> 1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.jarvis.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for IntentRouter class
+ */
+class IntentRouterTest {
+
+    private IntentRouter<String> router;
+
+    @BeforeEach
+    void setUp() {
+        router = IntentRouter.<String>builder()
+            .addAll("terminal", 80, new String[] {"run"}, new String[] {"terminal"})
+            .add("scan", 80, "check open ports", "nmap scan")
+            .add("time", 60, "time")
+            .add("open", 60, "open")
+            .add("play", 60, "play")
+            .add("security", 40, "hack*", "nmap")
+            .add("exit", 20, "bye")
+            .build();
+    }
+
+    @Test
+    void testRoutesSingleKeyword() {
+        assertEquals("time", router.route("what time is it"));
+        assertEquals("open", router.route("Open Firefox"));
+    }
+
+    @Test
+    void testMatchesWholeWordsOnly() {
+        assertNull(router.route("explain this runtime error"));
+        assertNull(router.route("my display is flickering"));
+        assertNull(router.route("maybe later"));
+    }
+
+    @Test
+    void testPrefixPhraseMatchesLongerWords() {
+        assertEquals("security", router.route("how does wifi hacking work"));
+        assertEquals("security", router.route("hack the box"));
+    }
+
+    @Test
+    void testHigherPriorityWins() {
+        assertEquals("scan", router.route("check open ports on the server"));
+        assertEquals("scan", router.route("nmap scan 10.0.0.1"));
+        assertEquals("security", router.route("how do I use nmap"));
+    }
+
+    @Test
+    void testAllGroupsMustMatch() {
+        assertEquals("terminal", router.route("run ls in the terminal"));
+        assertEquals("open", router.route("open a new terminal window"));
+        assertNull(router.route("run"));
+    }
+
+    @Test
+    void testOverlappingPhrasesAreAllFound() {
+        assertEquals(Arrays.asList("scan", "open"), router.matches("check open ports"));
+        assertEquals(Arrays.asList("scan", "security"), router.matches("nmap scan"));
+    }
+
+    @Test
+    void testNoMatch() {
+        assertNull(router.route("tell me a joke"));
+        assertNull(router.route(""));
+        assertNull(router.route(null));
+        assertEquals(10, router.getPhraseCount());
+    }
+}